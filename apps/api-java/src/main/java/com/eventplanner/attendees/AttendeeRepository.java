@@ -1,8 +1,21 @@
 package com.eventplanner.attendees;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface AttendeeRepository extends JpaRepository<Attendee, Long> {
     List<Attendee> findByEventId(Long eventId);
+
+    // Forward-only cursor for exports; must be consumed inside a transaction and closed
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT a FROM Attendee a WHERE a.event.id = :eventId ORDER BY a.id")
+    Stream<Attendee> streamByEventId(@Param("eventId") Long eventId);
 }
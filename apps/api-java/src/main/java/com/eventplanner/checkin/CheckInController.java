@@ -1,12 +1,24 @@
 package com.eventplanner.checkin;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
 
 @RestController
 @RequestMapping("/api/events/{eventId}")
@@ -14,11 +26,15 @@ import java.util.List;
 public class CheckInController {
 
     private final CheckInService checkInService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${eventplanner.checkin.sync-max-bytes:20971520}")
+    private int syncMaxBytes;
 
     @PostMapping("/checkin")
     public ResponseEntity<CheckInEvent> checkInEvent(@PathVariable("eventId") Long eventId,
                                                      @RequestBody @Valid CheckInRequest body) {
-        CheckInEvent ev = checkInService.checkInEvent(eventId, body.getCode(), body.getName(), body.getAttendeeId());
+        CheckInEvent ev = checkInService.checkInEvent(eventId, body);
         return ResponseEntity.ok(ev);
     }
 
@@ -26,7 +42,7 @@ public class CheckInController {
     public ResponseEntity<CheckInEvent> checkInSession(@PathVariable("eventId") Long eventId,
                                                        @PathVariable("sessionId") Long sessionId,
                                                        @RequestBody @Valid CheckInRequest body) {
-        CheckInEvent ev = checkInService.checkInSession(eventId, sessionId, body.getCode(), body.getName(), body.getAttendeeId());
+        CheckInEvent ev = checkInService.checkInSession(eventId, sessionId, body);
         return ResponseEntity.ok(ev);
     }
 
@@ -34,10 +50,38 @@ public class CheckInController {
     public ResponseEntity<CheckInEvent> checkInZone(@PathVariable("eventId") Long eventId,
                                                     @PathVariable("zoneId") Long zoneId,
                                                     @RequestBody @Valid CheckInRequest body) {
-        CheckInEvent ev = checkInService.checkInZone(eventId, zoneId, body.getCode(), body.getName(), body.getAttendeeId());
+        CheckInEvent ev = checkInService.checkInZone(eventId, zoneId, body);
         return ResponseEntity.ok(ev);
     }
 
+    /**
+     * Offline sync: a device uploads the scans it recorded while disconnected. The body may be
+     * sent with {@code Content-Encoding: gzip}; its decoded size is capped at {@code sync-max-bytes}.
+     */
+    @PostMapping("/checkin/sync")
+    public ResponseEntity<CheckInSyncResponse> sync(@PathVariable("eventId") Long eventId,
+                                                    HttpServletRequest request) throws IOException {
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        byte[] body;
+        try (InputStream in = "gzip".equalsIgnoreCase(encoding)
+                ? new GZIPInputStream(request.getInputStream(), 1 << 16)
+                : request.getInputStream()) {
+            body = in.readNBytes(syncMaxBytes + 1);
+        } catch (ZipException e) {
+            throw new IllegalArgumentException("Sync payload is not valid gzip");
+        }
+        if (body.length > syncMaxBytes) {
+            throw new IllegalArgumentException("Sync payload exceeds " + syncMaxBytes + " bytes");
+        }
+        CheckInSyncRequest sync;
+        try {
+            sync = objectMapper.readValue(body, CheckInSyncRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed sync payload: " + e.getOriginalMessage());
+        }
+        return ResponseEntity.ok(checkInService.sync(eventId, sync));
+    }
+
     @GetMapping("/checkin/search")
     public ResponseEntity<List<CheckInEvent>> search(@PathVariable("eventId") Long eventId,
                                                      @RequestParam(name = "q", required = false) String q) {
@@ -48,4 +92,12 @@ public class CheckInController {
     public SseEmitter live(@PathVariable("eventId") Long eventId) {
         return checkInService.subscribe(eventId);
     }
+
+    // The check-in writer is saturated; scanners retry, and a retried scan is idempotent
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, String>> busy(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("message", e.getMessage()));
+    }
 }
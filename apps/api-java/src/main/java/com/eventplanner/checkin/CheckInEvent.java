@@ -8,7 +8,7 @@ import lombok.NoArgsConstructor;
 import java.time.Instant;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class CheckInEvent {
@@ -20,6 +20,13 @@ public class CheckInEvent {
     private String attendeeId;
     private String name;
     private String code;
+    private String deviceId; // scanner that recorded it, when known
+    private String clientScanId; // scanner-generated id of the scan, when given
 
     private Instant at;
+    // Set when an offline scan synced later happened before the recorded one
+    private Instant firstScanAt;
+    private String firstScanDeviceId;
+
+    private Boolean duplicate; // true when the code had already been checked in here (a re-scan)
 }
@@ -0,0 +1,162 @@
+package com.eventplanner.checkin;
+
+import com.eventplanner.common.SseOutbox;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans check-ins out to live dashboards on every node. With Redis enabled a check-in is
+ * published once on {@code checkin:live:<eventId>} and each node, the publisher included, relays
+ * it to its own subscribers; without Redis it is delivered in-process.
+ *
+ * <p>Publishing never blocks the caller: the Redis publish runs on its own thread behind a
+ * bounded queue, and when that queue is full or Redis fails the check-in is delivered locally
+ * instead. Each subscriber has a bounded {@link SseOutbox}, so a slow dashboard only delays itself.
+ */
+@Component
+@Slf4j
+public class CheckInLiveFeed {
+    private static final String CHANNEL_PREFIX = "checkin:live:";
+
+    private final Map<Long, Subscribers> subscribersByEvent = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("checkin-live-", 0).factory());
+    // One thread keeps publishes in order; a stalled Redis fills the queue instead of blocking the writer
+    private final ThreadPoolExecutor publisher;
+    private final int queueCapacity;
+
+    public CheckInLiveFeed(ObjectMapper objectMapper,
+                           ObjectProvider<RedisTemplate<String, byte[]>> redisTemplateProvider,
+                           ObjectProvider<RedisMessageListenerContainer> listenerContainerProvider,
+                           @Value("${eventplanner.checkin.live.queue-capacity:256}") int queueCapacity,
+                           @Value("${eventplanner.checkin.live.publish-queue-capacity:1024}") int publishQueueCapacity) {
+        this.objectMapper = objectMapper;
+        this.queueCapacity = queueCapacity;
+        this.publisher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(publishQueueCapacity),
+                Thread.ofPlatform().name("checkin-live-publish").daemon().factory());
+        RedisMessageListenerContainer container = listenerContainerProvider.getIfAvailable();
+        RedisTemplate<String, byte[]> template = redisTemplateProvider.getIfAvailable();
+        // Only go through Redis when this node also hears the channel, or local dashboards would miss out
+        this.redisTemplate = container != null ? template : null;
+        if (this.redisTemplate != null) {
+            container.addMessageListener(this::onMessage, new PatternTopic(CHANNEL_PREFIX + "*"));
+        }
+    }
+
+    /** An event's dashboards; dropped, under its monitor, with the last one to leave. */
+    private static final class Subscribers {
+        final List<SseOutbox> outboxes = new CopyOnWriteArrayList<>();
+        boolean removed;
+    }
+
+    public SseEmitter subscribe(Long eventId) {
+        SseEmitter emitter = new SseEmitter(0L); // no timeout
+        while (true) {
+            Subscribers subscribers = subscribersByEvent.computeIfAbsent(eventId, k -> new Subscribers());
+            synchronized (subscribers) {
+                if (subscribers.removed) continue; // Lost a race with the last dashboard leaving; take the new entry
+                SseOutbox outbox = new SseOutbox(emitter, queueCapacity, senders, () -> leave(eventId, subscribers));
+                subscribers.outboxes.add(outbox);
+                outbox.send(SseOutbox.Frame.text("ready", "ok"));
+                return emitter;
+            }
+        }
+    }
+
+    /** Sends the check-in to the event's dashboards on all nodes; serialized once, here. */
+    public void publish(CheckInEvent ev) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(ev);
+        } catch (JsonProcessingException e) {
+            log.warn("[CheckInLiveFeed] could not serialize check-in for event {}: {}", ev.getEventId(), e.getMessage());
+            return;
+        }
+        if (redisTemplate != null) {
+            try {
+                publisher.execute(() -> publishToRedis(ev.getEventId(), json));
+                return; // Delivered to this node's subscribers by onMessage
+            } catch (RejectedExecutionException e) {
+                log.warn("[CheckInLiveFeed] publish queue full for event {}, delivering locally", ev.getEventId());
+            }
+        }
+        deliver(ev.getEventId(), json);
+    }
+
+    private void publishToRedis(Long eventId, String json) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL_PREFIX + eventId, json.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.warn("[CheckInLiveFeed] publish failed for event {}, delivering locally: {}", eventId, e.getMessage());
+            deliver(eventId, json);
+        }
+    }
+
+    private void onMessage(Message message, byte[] pattern) {
+        try {
+            String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+            Long eventId = Long.valueOf(channel.substring(CHANNEL_PREFIX.length()));
+            deliver(eventId, new String(message.getBody(), StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.warn("[CheckInLiveFeed] invalid live message: {}", e.getMessage());
+        }
+    }
+
+    private void deliver(Long eventId, String json) {
+        Subscribers subscribers = subscribersByEvent.get(eventId);
+        if (subscribers == null) return;
+        SseOutbox.Frame frame = SseOutbox.Frame.json("checkin", json);
+        for (SseOutbox outbox : subscribers.outboxes) {
+            outbox.send(frame);
+        }
+    }
+
+    // Keeps idle connections open through proxies; a ping that cannot be written closes the subscriber
+    @Scheduled(fixedRateString = "${eventplanner.checkin.live.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribersByEvent.values().forEach(subscribers ->
+                subscribers.outboxes.forEach(outbox -> outbox.send(SseOutbox.Frame.PING)));
+    }
+
+    private void leave(Long eventId, Subscribers subscribers) {
+        synchronized (subscribers) {
+            subscribers.outboxes.removeIf(SseOutbox::isClosed);
+            if (subscribers.outboxes.isEmpty() && !subscribers.removed) {
+                subscribers.removed = true;
+                subscribersByEvent.remove(eventId, subscribers);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        publisher.shutdownNow();
+        senders.shutdownNow();
+    }
+}
@@ -0,0 +1,186 @@
+package com.eventplanner.checkin;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Native access to the append-only {@code check_ins} ledger (see V20240930_30__check_ins.sql). Scans are
+ * written as one multi-row insert per batch; callers run everything inside a transaction and pass
+ * scans in {@link #KEY_ORDER}, so concurrent batches wait on shared keys in the same order
+ * instead of deadlocking.
+ */
+@Repository
+public class CheckInRepository {
+    private static final String COLUMNS =
+            "id, event_id, scope, scope_ref, code, name, attendee_id, checked_in_at, device_id, client_scan_id, "
+            + "first_scan_at, first_scan_device_id";
+    private static final int COLUMN_COUNT = 12;
+    private static final int INSERT_PARAMS = 9;
+
+    /** Order of the unique key (event_id, scope, scope_ref, code); rows are written in list order. */
+    public static final Comparator<CheckInEvent> KEY_ORDER = Comparator
+            .comparing(CheckInEvent::getEventId)
+            .thenComparing(CheckInEvent::getScope)
+            .thenComparingLong(CheckInRepository::scopeRef)
+            .thenComparing(CheckInEvent::getCode);
+
+    /** A synced check-in row and whether the sync inserted it (rather than recording an earlier first scan). */
+    public record Synced(CheckInEvent checkIn, boolean inserted) {}
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /** Inserts the scans, skipping any already recorded; returns only the rows actually inserted. */
+    public List<CheckInEvent> insertAll(List<CheckInEvent> scans) {
+        Query query = insertQuery(scans, " ON CONFLICT (event_id, scope, scope_ref, code) DO NOTHING RETURNING " + COLUMNS);
+        return map(query.getResultList());
+    }
+
+    /**
+     * Inserts the scans. When a key is already recorded and the scan happened earlier, it is kept
+     * as the row's first scan (time and device) instead, so the first scan wins whatever order
+     * they arrive in while the recorded columns, including the device and client scan id a
+     * retry is matched on, never change. Returns the rows inserted or given an earlier first
+     * scan; keys missing from the result already had an earlier scan. Scans must have distinct keys.
+     */
+    public List<Synced> upsertEarliest(List<CheckInEvent> scans) {
+        Query query = insertQuery(scans, " ON CONFLICT (event_id, scope, scope_ref, code) DO UPDATE SET "
+                + "first_scan_at = EXCLUDED.checked_in_at, first_scan_device_id = EXCLUDED.device_id "
+                + "WHERE EXCLUDED.checked_in_at < coalesce(check_ins.first_scan_at, check_ins.checked_in_at) "
+                // xmax is 0 only for a freshly inserted row version
+                + "RETURNING " + COLUMNS + ", (xmax = 0) AS inserted");
+        List<?> rows = query.getResultList();
+        List<CheckInEvent> checkIns = map(rows);
+        List<Synced> synced = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            synced.add(new Synced(checkIns.get(i), Boolean.TRUE.equals(((Object[]) rows.get(i))[COLUMN_COUNT])));
+        }
+        return synced;
+    }
+
+    private Query insertQuery(List<CheckInEvent> scans, String onConflict) {
+        StringBuilder sql = new StringBuilder("INSERT INTO check_ins "
+                + "(event_id, scope, scope_ref, code, name, attendee_id, checked_in_at, device_id, client_scan_id) VALUES ");
+        for (int i = 0; i < scans.size(); i++) {
+            if (i > 0) sql.append(", ");
+            int p = i * INSERT_PARAMS;
+            sql.append("(?").append(p + 1).append(", ?").append(p + 2).append(", ?").append(p + 3)
+                    .append(", ?").append(p + 4)
+                    // Typed so null optional fields are not bound as untyped parameters
+                    .append(", CAST(?").append(p + 5).append(" AS VARCHAR), CAST(?").append(p + 6).append(" AS VARCHAR)")
+                    .append(", ?").append(p + 7)
+                    .append(", CAST(?").append(p + 8).append(" AS VARCHAR), CAST(?").append(p + 9).append(" AS VARCHAR))");
+        }
+        sql.append(onConflict);
+        Query query = em.createNativeQuery(sql.toString());
+        for (int i = 0; i < scans.size(); i++) {
+            CheckInEvent scan = scans.get(i);
+            int p = i * INSERT_PARAMS;
+            query.setParameter(p + 1, scan.getEventId());
+            query.setParameter(p + 2, scan.getScope().name());
+            query.setParameter(p + 3, scopeRef(scan));
+            query.setParameter(p + 4, scan.getCode());
+            query.setParameter(p + 5, scan.getName());
+            query.setParameter(p + 6, scan.getAttendeeId());
+            query.setParameter(p + 7, scan.getAt());
+            query.setParameter(p + 8, scan.getDeviceId());
+            query.setParameter(p + 9, scan.getClientScanId());
+        }
+        return query;
+    }
+
+    /** The recorded check-ins matching the scans' (event, scope, scope ref, code) keys. */
+    public List<CheckInEvent> findExisting(List<CheckInEvent> scans) {
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS
+                + " FROM check_ins WHERE (event_id, scope, scope_ref, code) IN (");
+        for (int i = 0; i < scans.size(); i++) {
+            if (i > 0) sql.append(", ");
+            int p = i * 4;
+            sql.append("(?").append(p + 1).append(", ?").append(p + 2).append(", ?").append(p + 3)
+                    .append(", ?").append(p + 4).append(')');
+        }
+        sql.append(')');
+        Query query = em.createNativeQuery(sql.toString());
+        for (int i = 0; i < scans.size(); i++) {
+            CheckInEvent scan = scans.get(i);
+            int p = i * 4;
+            query.setParameter(p + 1, scan.getEventId());
+            query.setParameter(p + 2, scan.getScope().name());
+            query.setParameter(p + 3, scopeRef(scan));
+            query.setParameter(p + 4, scan.getCode());
+        }
+        return map(query.getResultList());
+    }
+
+    /**
+     * Check-ins whose code or name starts with {@code text}, plus names similar to it (pg_trgm);
+     * exact code matches first. A blank {@code text} lists the latest check-ins.
+     */
+    public List<CheckInEvent> search(Long eventId, String text, int limit) {
+        String normalized = text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+        Query query;
+        if (normalized.isEmpty()) {
+            query = em.createNativeQuery("SELECT " + COLUMNS + " FROM check_ins WHERE event_id = :eventId "
+                    + "ORDER BY id DESC LIMIT :limit");
+        } else {
+            query = em.createNativeQuery("SELECT " + COLUMNS + " FROM check_ins WHERE event_id = :eventId "
+                    + "AND (lower(code) LIKE :prefix ESCAPE '\\' OR lower(name) LIKE :prefix ESCAPE '\\' "
+                    + "OR lower(name) % :raw) "
+                    + "ORDER BY (lower(code) = :raw) DESC, similarity(lower(coalesce(name, '')), :raw) DESC, id DESC "
+                    + "LIMIT :limit");
+            query.setParameter("prefix", escapeLike(normalized) + "%");
+            query.setParameter("raw", normalized);
+        }
+        query.setParameter("eventId", eventId);
+        query.setParameter("limit", limit);
+        return map(query.getResultList());
+    }
+
+    private static long scopeRef(CheckInEvent scan) {
+        return scan.getScopeRef() != null ? scan.getScopeRef() : 0L;
+    }
+
+    private static List<CheckInEvent> map(List<?> rows) {
+        List<CheckInEvent> events = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            Object[] cols = (Object[]) row;
+            long scopeRef = ((Number) cols[3]).longValue();
+            events.add(CheckInEvent.builder()
+                    .id(String.valueOf(((Number) cols[0]).longValue()))
+                    .eventId(((Number) cols[1]).longValue())
+                    .scope(CheckInScope.valueOf((String) cols[2]))
+                    .scopeRef(scopeRef != 0 ? scopeRef : null)
+                    .code((String) cols[4])
+                    .name((String) cols[5])
+                    .attendeeId((String) cols[6])
+                    .at(toInstant(cols[7]))
+                    .deviceId((String) cols[8])
+                    .clientScanId((String) cols[9])
+                    .firstScanAt(toInstant(cols[10]))
+                    .firstScanDeviceId((String) cols[11])
+                    .build());
+        }
+        return events;
+    }
+
+    private static Instant toInstant(Object value) {
+        if (value instanceof Instant instant) return instant;
+        if (value instanceof OffsetDateTime odt) return odt.toInstant();
+        if (value instanceof Timestamp ts) return ts.toInstant();
+        return null;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -10,4 +10,6 @@ public class CheckInRequest {
 
     private String name; // optional, fallback to code
     private String attendeeId; // optional
+    private String deviceId; // optional, scanner id
+    private String clientScanId; // optional; a retry with the same device and id gets the original result
 }
@@ -1,83 +1,238 @@
 package com.eventplanner.checkin;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.MediaType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Check-ins are stored in the {@code check_ins} ledger through {@link CheckInWriter} and
+ * acknowledged once committed. Scanning a code again at the same door returns the original
+ * check-in marked as a duplicate and is not broadcast again; a retried request (same device and
+ * client scan id) gets the original result instead. Devices that scanned offline upload
+ * their scans through {@link #sync}, where the earliest scan of a code wins.
+ */
 @Service
 @RequiredArgsConstructor
 public class CheckInService {
+    // Column sizes of check_ins; checked up front since one bad row would fail its whole batch
+    private static final int MAX_CODE_LENGTH = 255;
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_ATTENDEE_ID_LENGTH = 64;
+    private static final int MAX_DEVICE_ID_LENGTH = 64;
+    private static final int MAX_CLIENT_SCAN_ID_LENGTH = 64;
+    private static final int SEARCH_LIMIT = 50;
+    // 9 bind parameters per row keeps each statement well under the driver's limit
+    private static final int SYNC_CHUNK_SIZE = 500;
+    // Device clocks ahead of ours by more than this are treated as scanning now
+    private static final Duration MAX_CLOCK_SKEW = Duration.ofMinutes(5);
 
-    private final Map<Long, List<SseEmitter>> emittersByEvent = new ConcurrentHashMap<>();
-    private final AtomicLong seq = new AtomicLong(1);
+    private final CheckInWriter writer;
+    private final CheckInLiveFeed liveFeed;
+    private final CheckInRepository repo;
+
+    @Value("${eventplanner.checkin.ack-timeout-ms:2000}")
+    private long ackTimeoutMs;
+
+    @Value("${eventplanner.checkin.sync-max-scans:10000}")
+    private int syncMaxScans;
 
     public SseEmitter subscribe(Long eventId) {
-        SseEmitter emitter = new SseEmitter(0L); // no timeout
-        emittersByEvent.computeIfAbsent(eventId, k -> new CopyOnWriteArrayList<>()).add(emitter);
-        emitter.onCompletion(() -> emittersByEvent.getOrDefault(eventId, List.of()).remove(emitter));
-        emitter.onTimeout(() -> emittersByEvent.getOrDefault(eventId, List.of()).remove(emitter));
-        try {
-            emitter.send(SseEmitter.event().name("ready").data("ok"));
-        } catch (IOException ignored) {}
-        return emitter;
+        return liveFeed.subscribe(eventId);
     }
 
-    public CheckInEvent checkInEvent(Long eventId, String code, String name, String attendeeId) {
-        CheckInEvent ev = base(eventId, CheckInScope.EVENT, null, code, name, attendeeId);
-        broadcast(eventId, ev);
-        return ev;
+    public CheckInEvent checkInEvent(Long eventId, CheckInRequest request) {
+        return record(base(eventId, CheckInScope.EVENT, null, request, Instant.now()));
     }
 
-    public CheckInEvent checkInSession(Long eventId, Long sessionId, String code, String name, String attendeeId) {
-        CheckInEvent ev = base(eventId, CheckInScope.SESSION, sessionId, code, name, attendeeId);
-        broadcast(eventId, ev);
-        return ev;
+    public CheckInEvent checkInSession(Long eventId, Long sessionId, CheckInRequest request) {
+        return record(base(eventId, CheckInScope.SESSION, sessionId, request, Instant.now()));
     }
 
-    public CheckInEvent checkInZone(Long eventId, Long zoneId, String code, String name, String attendeeId) {
-        CheckInEvent ev = base(eventId, CheckInScope.ZONE, zoneId, code, name, attendeeId);
-        broadcast(eventId, ev);
-        return ev;
+    public CheckInEvent checkInZone(Long eventId, Long zoneId, CheckInRequest request) {
+        return record(base(eventId, CheckInScope.ZONE, zoneId, request, Instant.now()));
     }
 
+    /**
+     * Records a device's offline scans in one transaction. Invalid scans are rejected individually;
+     * the rest are deduplicated against each other and the ledger, and the earliest scan of a code
+     * wins: one that predates an already recorded check-in becomes that row's first scan, leaving
+     * the recorded scan as it was. New check-ins are broadcast after commit.
+     */
+    @Transactional
+    public CheckInSyncResponse sync(Long eventId, CheckInSyncRequest request) {
+        String deviceId = request.getDeviceId() != null ? request.getDeviceId().trim() : "";
+        if (deviceId.isEmpty()) {
+            throw new IllegalArgumentException("deviceId is required");
+        }
+        if (deviceId.length() > MAX_DEVICE_ID_LENGTH) {
+            throw new IllegalArgumentException("deviceId must be at most " + MAX_DEVICE_ID_LENGTH + " characters");
+        }
+        List<CheckInSyncRequest.Scan> scans = request.getScans() != null ? request.getScans() : List.of();
+        if (scans.size() > syncMaxScans) {
+            throw new IllegalArgumentException("At most " + syncMaxScans + " scans per sync");
+        }
+
+        Instant now = Instant.now();
+        CheckInSyncResponse.Result[] results = new CheckInSyncResponse.Result[scans.size()];
+        CheckInEvent[] built = new CheckInEvent[scans.size()];
+        // Earliest scan per (scope, scope ref, code) key; only these reach the ledger
+        Map<String, CheckInEvent> earliest = new LinkedHashMap<>();
+        for (int i = 0; i < scans.size(); i++) {
+            CheckInSyncRequest.Scan scan = scans.get(i);
+            try {
+                CheckInEvent ev = syncScan(eventId, scan, deviceId, now);
+                built[i] = ev;
+                earliest.merge(key(ev), ev, (a, b) -> b.getAt().isBefore(a.getAt()) ? b : a);
+            } catch (IllegalArgumentException e) {
+                results[i] = new CheckInSyncResponse.Result(i, scan != null ? scan.getClientScanId() : null,
+                        CheckInSyncResponse.Status.REJECTED, null, e.getMessage());
+            }
+        }
+
+        Map<String, CheckInEvent> recorded = new HashMap<>();
+        Set<String> written = new HashSet<>(); // keys whose ledger row now comes from this sync
+        List<CheckInEvent> created = new ArrayList<>();
+        List<CheckInEvent> winners = new ArrayList<>(earliest.values());
+        winners.sort(CheckInRepository.KEY_ORDER); // across chunks too, as they share one transaction
+        for (int from = 0; from < winners.size(); from += SYNC_CHUNK_SIZE) {
+            List<CheckInEvent> chunk = winners.subList(from, Math.min(from + SYNC_CHUNK_SIZE, winners.size()));
+            for (CheckInRepository.Synced row : repo.upsertEarliest(chunk)) {
+                recorded.put(key(row.checkIn()), row.checkIn());
+                written.add(key(row.checkIn()));
+                if (row.inserted()) created.add(row.checkIn());
+            }
+            if (recorded.size() < from + chunk.size()) {
+                List<CheckInEvent> missing = chunk.stream().filter(ev -> !recorded.containsKey(key(ev))).toList();
+                for (CheckInEvent row : repo.findExisting(missing)) {
+                    recorded.put(key(row), row);
+                }
+            }
+        }
+
+        int accepted = 0;
+        int duplicates = 0;
+        for (int i = 0; i < scans.size(); i++) {
+            if (results[i] != null) continue;
+            CheckInEvent ev = built[i];
+            CheckInEvent row = recorded.get(key(ev));
+            if (row == null) {
+                throw new IllegalStateException("Check-in was not recorded");
+            }
+            // A re-uploaded batch finds its own rows already there and still reports them as accepted
+            boolean won = earliest.get(key(ev)) == ev && (written.contains(key(ev))
+                    || (deviceId.equals(row.getDeviceId()) && ev.getAt().equals(row.getAt()))
+                    || (deviceId.equals(row.getFirstScanDeviceId()) && ev.getAt().equals(row.getFirstScanAt())));
+            CheckInEvent result = row.toBuilder().duplicate(!won).build();
+            results[i] = new CheckInSyncResponse.Result(i, scans.get(i).getClientScanId(),
+                    won ? CheckInSyncResponse.Status.ACCEPTED : CheckInSyncResponse.Status.DUPLICATE, result, null);
+            if (won) accepted++; else duplicates++;
+        }
+
+        if (!created.isEmpty()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    created.forEach(liveFeed::publish);
+                }
+            });
+        }
+        return new CheckInSyncResponse(accepted, duplicates, scans.size() - accepted - duplicates, List.of(results));
+    }
+
+    @Transactional(readOnly = true)
     public List<CheckInEvent> search(Long eventId, String q) {
-        // TODO: wire to persistence. For now, return a mock filtered list
-        return List.of();
+        return repo.search(eventId, q, SEARCH_LIMIT);
     }
 
-    private CheckInEvent base(Long eventId, CheckInScope scope, Long scopeRef, String code, String name, String attendeeId) {
+    /**
+     * Waits for the scan's batch to commit. Throws {@link RejectedExecutionException} when the
+     * writer is saturated or too slow; the scan may still commit (and is then broadcast by the
+     * writer), so the scanner retries with the same client scan id to get the original result.
+     */
+    private CheckInEvent record(CheckInEvent scan) {
+        CheckInWriter.Outcome outcome;
+        try {
+            outcome = writer.submit(scan).get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new RejectedExecutionException("Check-in not acknowledged in time");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while recording check-in");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException("Check-in failed", e.getCause());
+        }
+        return outcome.checkIn();
+    }
+
+    private CheckInEvent syncScan(Long eventId, CheckInSyncRequest.Scan scan, String deviceId, Instant now) {
+        if (scan == null || scan.getCode() == null || scan.getCode().isBlank()) {
+            throw new IllegalArgumentException("code is required");
+        }
+        CheckInScope scope = scan.getScope() != null ? scan.getScope() : CheckInScope.EVENT;
+        Long scopeRef = scope == CheckInScope.EVENT ? null : scan.getScopeRef();
+        if (scope != CheckInScope.EVENT && scopeRef == null) {
+            throw new IllegalArgumentException("scopeRef is required for " + scope + " check-ins");
+        }
+        Instant at = scan.getScannedAt();
+        if (at == null || at.isAfter(now.plus(MAX_CLOCK_SKEW))) {
+            at = now;
+        }
+        at = at.truncatedTo(ChronoUnit.MICROS); // timestamptz precision, so retries compare equal
+        return base(eventId, scope, scopeRef, scan.getCode(), scan.getName(), scan.getAttendeeId(), deviceId,
+                scan.getClientScanId(), at);
+    }
+
+    private static String key(CheckInEvent ev) {
+        return ev.getScope() + "|" + (ev.getScopeRef() != null ? ev.getScopeRef() : 0L) + "|" + ev.getCode();
+    }
+
+    private CheckInEvent base(Long eventId, CheckInScope scope, Long scopeRef, CheckInRequest request, Instant at) {
+        return base(eventId, scope, scopeRef, request.getCode(), request.getName(), request.getAttendeeId(),
+                request.getDeviceId(), request.getClientScanId(), at);
+    }
+
+    private CheckInEvent base(Long eventId, CheckInScope scope, Long scopeRef, String code, String name, String attendeeId,
+                              String deviceId, String clientScanId, Instant at) {
+        String trimmed = code.trim();
+        if (trimmed.length() > MAX_CODE_LENGTH) {
+            throw new IllegalArgumentException("code must be at most " + MAX_CODE_LENGTH + " characters");
+        }
+        if (name != null && name.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("name must be at most " + MAX_NAME_LENGTH + " characters");
+        }
+        if (attendeeId != null && attendeeId.length() > MAX_ATTENDEE_ID_LENGTH) {
+            throw new IllegalArgumentException("attendeeId must be at most " + MAX_ATTENDEE_ID_LENGTH + " characters");
+        }
+        if (deviceId != null && deviceId.length() > MAX_DEVICE_ID_LENGTH) {
+            throw new IllegalArgumentException("deviceId must be at most " + MAX_DEVICE_ID_LENGTH + " characters");
+        }
+        if (clientScanId != null && clientScanId.length() > MAX_CLIENT_SCAN_ID_LENGTH) {
+            throw new IllegalArgumentException("clientScanId must be at most " + MAX_CLIENT_SCAN_ID_LENGTH + " characters");
+        }
         return CheckInEvent.builder()
-                .id(String.valueOf(seq.getAndIncrement()))
                 .eventId(eventId)
                 .scope(scope)
                 .scopeRef(scopeRef)
-                .code(code)
-                .name(name != null ? name : code)
+                .code(trimmed)
+                .name(name != null ? name : trimmed)
                 .attendeeId(attendeeId)
-                .at(Instant.now())
+                .deviceId(deviceId)
+                .clientScanId(clientScanId)
+                .at(at)
                 .build();
     }
-
-    private void broadcast(Long eventId, CheckInEvent ev) {
-        List<SseEmitter> list = emittersByEvent.getOrDefault(eventId, List.of());
-        List<SseEmitter> dead = new ArrayList<>();
-        for (SseEmitter em : list) {
-            try {
-                em.send(SseEmitter.event().name("checkin").data(ev, MediaType.APPLICATION_JSON));
-            } catch (Exception ex) {
-                dead.add(em);
-            }
-        }
-        if (!dead.isEmpty()) {
-            list.removeAll(dead);
-        }
-    }
 }
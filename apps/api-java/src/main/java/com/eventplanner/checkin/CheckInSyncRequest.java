@@ -0,0 +1,24 @@
+package com.eventplanner.checkin;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+/** Scans a device recorded while offline, uploaded in one request (optionally gzip-encoded). */
+@Data
+public class CheckInSyncRequest {
+    private String deviceId;
+    private List<Scan> scans;
+
+    @Data
+    public static class Scan {
+        private String clientScanId; // echoed back so the device can match results
+        private CheckInScope scope; // defaults to EVENT
+        private Long scopeRef; // sessionId or zoneId when applicable
+        private String code;
+        private String name; // optional, fallback to code
+        private String attendeeId; // optional
+        private Instant scannedAt; // device clock; defaults to the time of upload
+    }
+}
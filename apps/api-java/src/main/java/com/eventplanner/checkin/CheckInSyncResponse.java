@@ -0,0 +1,34 @@
+package com.eventplanner.checkin;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckInSyncResponse {
+    private int accepted;
+    private int duplicates;
+    private int rejected;
+    private List<Result> results; // one per uploaded scan, in upload order
+
+    public enum Status {
+        ACCEPTED, // this scan is the recorded (earliest) check-in
+        DUPLICATE, // an earlier scan of the code was already recorded
+        REJECTED // invalid; see error
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private int index;
+        private String clientScanId;
+        private Status status;
+        private CheckInEvent checkIn; // the recorded check-in; null when rejected
+        private String error;
+    }
+}
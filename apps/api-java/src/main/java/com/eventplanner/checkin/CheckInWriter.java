@@ -0,0 +1,164 @@
+package com.eventplanner.checkin;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for door scans. Scans wait in a bounded queue; a single writer thread drains
+ * whatever has queued up while the previous batch was being written and stores it with one
+ * multi-row insert in one transaction. Under load batches grow on their own, so throughput
+ * scales without adding latency when it is quiet. Futures complete only after commit, and new
+ * check-ins are broadcast from here once committed, so a scan whose caller stopped waiting for
+ * the acknowledgement still reaches the live dashboards.
+ */
+@Component
+@Slf4j
+public class CheckInWriter {
+
+    /**
+     * Result of one scan: the ledger row, and whether the code had already been checked in by
+     * another scan. A retry of the scan that created the row (same device and client scan id) is
+     * not a duplicate.
+     */
+    public record Outcome(CheckInEvent checkIn, boolean duplicate) {}
+
+    private record Pending(CheckInEvent scan, CompletableFuture<Outcome> result) {}
+
+    private final CheckInRepository repo;
+    private final CheckInLiveFeed liveFeed;
+    private final TransactionTemplate tx;
+    private final BlockingQueue<Pending> queue;
+    private final int batchSize;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public CheckInWriter(CheckInRepository repo,
+                         CheckInLiveFeed liveFeed,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${eventplanner.checkin.queue-capacity:5000}") int queueCapacity,
+                         @Value("${eventplanner.checkin.batch-size:200}") int batchSize) {
+        this.repo = repo;
+        this.liveFeed = liveFeed;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.writer = new Thread(this::run, "checkin-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /** Queues a scan; completes exceptionally with {@link RejectedExecutionException} when the queue is full. */
+    public CompletableFuture<Outcome> submit(CheckInEvent scan) {
+        CompletableFuture<Outcome> result = new CompletableFuture<>();
+        if (!running || !queue.offer(new Pending(scan, result))) {
+            result.completeExceptionally(new RejectedExecutionException("Check-in queue is full"));
+        }
+        return result;
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (Throwable e) {
+                log.error("Check-in batch of {} failed", batch.size(), e);
+                batch.forEach(p -> p.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        // Only the first scan of a key in the batch is inserted; the rest answer as re-scans
+        Map<String, List<Pending>> byKey = new HashMap<>();
+        List<CheckInEvent> scans = new ArrayList<>(batch.size());
+        for (Pending p : batch) {
+            List<Pending> same = byKey.computeIfAbsent(key(p.scan()), k -> new ArrayList<>(1));
+            if (same.isEmpty()) scans.add(p.scan());
+            same.add(p);
+        }
+        scans.sort(CheckInRepository.KEY_ORDER);
+
+        Set<String> created = new HashSet<>();
+        Map<String, CheckInEvent> rows = tx.execute(s -> {
+            Map<String, CheckInEvent> found = new HashMap<>();
+            List<CheckInEvent> inserted = repo.insertAll(scans);
+            for (CheckInEvent row : inserted) {
+                found.put(key(row), row);
+                created.add(key(row));
+            }
+            if (inserted.size() < scans.size()) {
+                List<CheckInEvent> missing = scans.stream().filter(scan -> !found.containsKey(key(scan))).toList();
+                for (CheckInEvent row : repo.findExisting(missing)) {
+                    found.put(key(row), row);
+                }
+            }
+            return found;
+        });
+
+        List<CheckInEvent> committed = new ArrayList<>(created.size());
+        for (Map.Entry<String, List<Pending>> entry : byKey.entrySet()) {
+            CheckInEvent row = rows.get(entry.getKey());
+            List<Pending> same = entry.getValue();
+            boolean isNew = created.contains(entry.getKey());
+            if (row != null && isNew) {
+                committed.add(row.toBuilder().duplicate(false).build());
+            }
+            for (int i = 0; i < same.size(); i++) {
+                Pending p = same.get(i);
+                if (row == null) {
+                    p.result().completeExceptionally(new IllegalStateException("Check-in was not recorded"));
+                } else {
+                    boolean original = (i == 0 && isNew) || isRetryOf(p.scan(), row);
+                    // Scans sharing a ledger row each get their own copy with their own duplicate flag
+                    p.result().complete(new Outcome(row.toBuilder().duplicate(!original).build(), !original));
+                }
+            }
+        }
+        committed.forEach(liveFeed::publish);
+    }
+
+    // A scanner that timed out waiting for the acknowledgement resends the same scan id
+    private static boolean isRetryOf(CheckInEvent scan, CheckInEvent row) {
+        return scan.getClientScanId() != null
+                && scan.getClientScanId().equals(row.getClientScanId())
+                && Objects.equals(scan.getDeviceId(), row.getDeviceId());
+    }
+
+    private static String key(CheckInEvent scan) {
+        return scan.getEventId() + "|" + scan.getScope() + "|" + (scan.getScopeRef() != null ? scan.getScopeRef() : 0L)
+                + "|" + scan.getCode();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Stop taking scans and let the writer flush what is already queued
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+}
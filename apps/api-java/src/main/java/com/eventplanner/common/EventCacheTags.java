@@ -0,0 +1,90 @@
+package com.eventplanner.common;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-event cache namespaces. Cache keys for event-scoped data are prefixed with
+ * {@link #namespace(Long)}; {@link #invalidate(Long)} moves the event to a fresh namespace, so
+ * every cached entry for that one event (lists, pages, time windows) becomes unreachable
+ * at once while other events keep their entries. Orphaned entries age out through the caches'
+ * size and TTL bounds.
+ *
+ * <p>Usage in SpEL: {@code @Cacheable(value = "sessions", key = "@eventCacheTags.namespace(#eventId) + ':list'")}.
+ */
+@Component("eventCacheTags")
+@Slf4j
+public class EventCacheTags {
+    static final String INVALIDATION_CHANNEL = "cache:event-tag:invalidate";
+
+    // Seeded from the clock so a restarted node never reuses a namespace still present in a shared cache
+    private final AtomicLong generationSource = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final Cache<Long, Long> generations = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .build();
+    private final RedisTemplate<String, byte[]> redisTemplate;
+
+    public EventCacheTags(ObjectProvider<RedisTemplate<String, byte[]>> redisTemplateProvider,
+                          ObjectProvider<RedisMessageListenerContainer> listenerContainerProvider) {
+        this.redisTemplate = redisTemplateProvider.getIfAvailable();
+        RedisMessageListenerContainer container = listenerContainerProvider.getIfAvailable();
+        if (container != null && redisTemplate != null) {
+            container.addMessageListener(this::onInvalidationMessage, new ChannelTopic(INVALIDATION_CHANNEL));
+        }
+    }
+
+    public String namespace(Long eventId) {
+        return eventId + ":g" + generations.get(eventId, id -> generationSource.incrementAndGet());
+    }
+
+    /**
+     * Drops every cached entry for {@code eventId} on all nodes. Inside a transaction it runs
+     * again after commit so a concurrent reader cannot re-cache pre-commit data.
+     */
+    public void invalidate(Long eventId) {
+        if (eventId == null) return;
+        invalidateEverywhere(eventId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateEverywhere(eventId);
+                }
+            });
+        }
+    }
+
+    private void invalidateEverywhere(Long eventId) {
+        bump(eventId);
+        if (redisTemplate == null) return; // Single node
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, String.valueOf(eventId).getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.warn("[EventCacheTags] publish failed for event {}: {}", eventId, e.getMessage());
+        }
+    }
+
+    private void bump(Long eventId) {
+        generations.put(eventId, generationSource.incrementAndGet());
+    }
+
+    private void onInvalidationMessage(Message message, byte[] pattern) {
+        try {
+            bump(Long.valueOf(new String(message.getBody(), StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            log.warn("[EventCacheTags] invalid invalidation message: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.eventplanner.common;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.OffsetDateTime;
+
+/** Resume position of a long-running scan job (last processed id), so restarts do not start over. */
+@Entity
+@Table(name = "job_checkpoints")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class JobCheckpoint {
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+}
@@ -0,0 +1,6 @@
+package com.eventplanner.common;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+}
@@ -0,0 +1,109 @@
+package com.eventplanner.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One SSE connection with a bounded outbound queue. Callers only enqueue; a task on
+ * {@code senders} (virtual threads) writes the frames, at most one task per connection, so a
+ * slow client delays only itself and an emitter is never written concurrently. A client whose
+ * queue overflows is disconnected, and its EventSource reconnects. {@code onClose} runs once,
+ * however the connection ends.
+ */
+@Slf4j
+public final class SseOutbox {
+
+    /** One outbound event, built per connection from data serialized once; a null name is a comment. */
+    public record Frame(String name, String data, boolean json) {
+        public static final Frame PING = new Frame(null, "ping", false);
+
+        public static Frame json(String name, String json) {
+            return new Frame(name, json, true);
+        }
+
+        public static Frame text(String name, String text) {
+            return new Frame(name, text, false);
+        }
+
+        SseEmitter.SseEventBuilder toEvent() {
+            if (name == null) return SseEmitter.event().comment(data);
+            return json
+                    ? SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON)
+                    : SseEmitter.event().name(name).data(data);
+        }
+    }
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<Frame> outbound;
+    private final Executor senders;
+    private final Runnable onClose;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    public SseOutbox(SseEmitter emitter, int capacity, Executor senders, Runnable onClose) {
+        this.emitter = emitter;
+        this.outbound = new ArrayBlockingQueue<>(capacity);
+        this.senders = senders;
+        this.onClose = onClose;
+        emitter.onCompletion(this::close);
+        emitter.onTimeout(this::close);
+        emitter.onError(e -> close());
+    }
+
+    public SseEmitter emitter() {
+        return emitter;
+    }
+
+    /** Queues a frame; false when the connection is closed, or has just been closed for falling behind. */
+    public boolean send(Frame frame) {
+        if (closed.get()) return false;
+        if (!outbound.offer(frame)) {
+            log.info("[SseOutbox] disconnecting slow client ({} frames queued)", outbound.size());
+            close();
+            emitter.complete();
+            return false;
+        }
+        if (draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                close(); // Shutting down
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void drain() {
+        do {
+            Frame frame;
+            while ((frame = outbound.poll()) != null) {
+                try {
+                    emitter.send(frame.toEvent());
+                } catch (Exception e) {
+                    close();
+                    return;
+                }
+            }
+            draining.set(false);
+            // A frame queued after the last poll but before the flag was cleared still needs a sender
+        } while (!outbound.isEmpty() && draining.compareAndSet(false, true));
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    public void close() {
+        if (!closed.compareAndSet(false, true)) return;
+        outbound.clear();
+        onClose.run();
+    }
+}
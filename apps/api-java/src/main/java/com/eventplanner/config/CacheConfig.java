@@ -1,8 +1,10 @@
 package com.eventplanner.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -33,9 +35,23 @@ public class CacheConfig {
                 .build();
     }
 
+    /**
+     * Bounded in-process caches (Caffeine spec syntax, e.g. {@code maximumSize=5000,expireAfterWrite=10m}).
+     * Known caches are registered up front so Actuator binds their {@code cache.*} hit/miss/eviction
+     * metrics; any other cache name falls back to the default spec.
+     */
     @Bean
     @ConditionalOnProperty(name = "eventplanner.redis.enabled", havingValue = "false", matchIfMissing = true)
-    public CacheManager simpleCacheManager() {
-        return new ConcurrentMapCacheManager();
+    public CacheManager simpleCacheManager(
+            @Value("${eventplanner.cache.spec.default:maximumSize=1000,expireAfterWrite=10m}") String defaultSpec,
+            @Value("${eventplanner.cache.spec.sessions:maximumSize=5000,expireAfterWrite=10m}") String sessionsSpec) {
+        CaffeineCacheManager manager = new CaffeineCacheManager();
+        manager.setCacheSpecification(withStats(defaultSpec));
+        manager.registerCustomCache("sessions", Caffeine.from(withStats(sessionsSpec)).build());
+        return manager;
+    }
+
+    private static String withStats(String spec) {
+        return spec.contains("recordStats") ? spec : spec + ",recordStats";
     }
 }
@@ -1,12 +1,13 @@
 package com.eventplanner.config;
 
-import com.eventplanner.events.Event;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
@@ -22,12 +23,21 @@ public class RedisConfig {
         return template;
     }
 
+    // Event responses are cached pre-serialized (see CachedEventResponse), so values are raw bytes
     @Bean
-    public RedisTemplate<String, Event> eventRedisTemplate(RedisConnectionFactory connectionFactory) {
-        RedisTemplate<String, Event> template = new RedisTemplate<>();
+    public RedisTemplate<String, byte[]> eventRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
         template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
         return template;
     }
+
+    // Shared pub/sub container; components register their own channel listeners on it
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
 }
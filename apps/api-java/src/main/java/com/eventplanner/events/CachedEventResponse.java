@@ -0,0 +1,110 @@
+package com.eventplanner.events;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+
+/**
+ * Pre-serialized {@code EventResponse} kept in the event cache. The JSON body is stored
+ * without its {@code status} field and closing brace; the time-dependent status is
+ * appended at write time from {@code startsAt}/{@code endsAt}.
+ */
+public final class CachedEventResponse {
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte[][] STATUS_SUFFIXES = new byte[EventStatus.values().length][];
+
+    static {
+        for (EventStatus s : EventStatus.values()) {
+            STATUS_SUFFIXES[s.ordinal()] = (",\"status\":\"" + s.name() + "\"}").getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private final Long id;
+    private final String tenantId;
+    private final EventStatus storedStatus;
+    private final OffsetDateTime startsAt;
+    private final OffsetDateTime endsAt;
+    private final byte[] jsonPrefix;
+
+    CachedEventResponse(Long id, String tenantId, EventStatus storedStatus,
+                        OffsetDateTime startsAt, OffsetDateTime endsAt, byte[] jsonPrefix) {
+        this.id = id;
+        this.tenantId = tenantId;
+        this.storedStatus = storedStatus;
+        this.startsAt = startsAt;
+        this.endsAt = endsAt;
+        this.jsonPrefix = jsonPrefix;
+    }
+
+    public Long getId() { return id; }
+    public String getTenantId() { return tenantId; }
+    public OffsetDateTime getStartsAt() { return startsAt; }
+    public OffsetDateTime getEndsAt() { return endsAt; }
+
+    public EventStatus statusAt(OffsetDateTime now) {
+        return EventStatus.effective(storedStatus, startsAt, endsAt, now);
+    }
+
+    /** Writes the complete JSON document, including the status computed for {@code now}. */
+    public void writeTo(OutputStream out, OffsetDateTime now) throws IOException {
+        out.write(jsonPrefix);
+        out.write(STATUS_SUFFIXES[statusAt(now).ordinal()]);
+    }
+
+    // Compact binary framing for the Redis tier; avoids a second JSON round trip
+    byte[] toBytes() {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(jsonPrefix.length + 96);
+        try (DataOutputStream out = new DataOutputStream(bos)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(id);
+            writeNullable(out, tenantId);
+            writeNullable(out, storedStatus != null ? storedStatus.name() : null);
+            writeNullable(out, startsAt != null ? startsAt.toString() : null);
+            writeNullable(out, endsAt != null ? endsAt.toString() : null);
+            out.writeInt(jsonPrefix.length);
+            out.write(jsonPrefix);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bos.toByteArray();
+    }
+
+    static CachedEventResponse fromBytes(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readByte() != FORMAT_VERSION) {
+                return null; // written by an incompatible build; treat as a miss
+            }
+            long id = in.readLong();
+            String tenantId = readNullable(in);
+            String status = readNullable(in);
+            String startsAt = readNullable(in);
+            String endsAt = readNullable(in);
+            byte[] json = new byte[in.readInt()];
+            in.readFully(json);
+            return new CachedEventResponse(
+                    id,
+                    tenantId,
+                    status != null ? EventStatus.valueOf(status) : null,
+                    startsAt != null ? OffsetDateTime.parse(startsAt) : null,
+                    endsAt != null ? OffsetDateTime.parse(endsAt) : null,
+                    json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
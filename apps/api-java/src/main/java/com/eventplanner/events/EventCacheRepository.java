@@ -1,57 +1,170 @@
 package com.eventplanner.events;
 
+import com.eventplanner.events.dto.EventResponse;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Two-tier cache of pre-serialized event responses: a bounded in-process L1 (Caffeine) in
+ * front of the shared Redis L2. Evictions are broadcast on {@link #INVALIDATION_CHANNEL} so
+ * every node drops its L1 copy. Without Redis only the L1 is used and its short TTL bounds
+ * staleness.
+ */
 @Repository
+@Slf4j
 public class EventCacheRepository {
-    private static final String CACHE_KEY_PREFIX = "event:";
+    static final String INVALIDATION_CHANNEL = "event:invalidate";
+    private static final String CACHE_KEY_PREFIX = "event:response:";
     private static final long CACHE_TTL_HOURS = 1;
 
-    private final RedisTemplate<String, Event> redisTemplate;
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final Cache<Long, CachedEventResponse> localCache;
+    private final ObjectWriter responseWriter;
 
-    public EventCacheRepository(ObjectProvider<RedisTemplate<String, Event>> redisTemplateProvider) {
+    public EventCacheRepository(ObjectProvider<RedisTemplate<String, byte[]>> redisTemplateProvider,
+                                ObjectProvider<RedisMessageListenerContainer> listenerContainerProvider,
+                                ObjectProvider<MeterRegistry> meterRegistryProvider,
+                                ObjectMapper objectMapper,
+                                @Value("${eventplanner.cache.event-l1.max-size:10000}") long localMaxSize,
+                                @Value("${eventplanner.cache.event-l1.ttl-seconds:30}") long localTtlSeconds) {
         // Allow running without Redis: getIfAvailable returns null when Redis is not configured
         this.redisTemplate = redisTemplateProvider.getIfAvailable();
+        // Same mapper as MVC so cached bytes match a normally serialized EventResponse
+        this.responseWriter = objectMapper.copy()
+                .addMixIn(EventResponse.class, WithoutStatus.class)
+                .writerFor(EventResponse.class);
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .recordStats()
+                .build();
+
+        MeterRegistry registry = meterRegistryProvider.getIfAvailable();
+        if (registry != null) {
+            CaffeineCacheMetrics.monitor(registry, localCache, "eventL1");
+        }
+        RedisMessageListenerContainer container = listenerContainerProvider.getIfAvailable();
+        if (container != null && redisTemplate != null) {
+            container.addMessageListener(this::onInvalidationMessage, new ChannelTopic(INVALIDATION_CHANNEL));
+        }
     }
 
-    public void cacheEvent(Event event) {
-        if (redisTemplate == null) return; // No-op when Redis is unavailable
-        if (event != null && event.getId() != null) {
-            try {
-                String key = CACHE_KEY_PREFIX + event.getId();
-                redisTemplate.opsForValue().set(key, event, CACHE_TTL_HOURS, TimeUnit.HOURS);
-            } catch (Exception e) {
-                System.err.println("[EventCacheRepository] cacheEvent failed: " + e.getMessage());
-            }
+    /**
+     * Serializes {@code response} (minus its status) and stores it in both tiers.
+     * The stored status and window come from the entity so status can be recomputed on read.
+     */
+    public CachedEventResponse cacheEvent(Event event, EventResponse response) {
+        CachedEventResponse cached = new CachedEventResponse(
+                event.getId(),
+                event.getTenantId(),
+                event.getStatus(),
+                event.getStartsAt(),
+                event.getEndsAt(),
+                serializeWithoutClosingBrace(response));
+        localCache.put(event.getId(), cached);
+        if (redisTemplate == null) return cached; // No-op when Redis is unavailable
+        try {
+            String key = CACHE_KEY_PREFIX + event.getId();
+            redisTemplate.opsForValue().set(key, cached.toBytes(), CACHE_TTL_HOURS, TimeUnit.HOURS);
+        } catch (Exception e) {
+            log.warn("[EventCacheRepository] cacheEvent failed: {}", e.getMessage());
         }
+        return cached;
     }
 
-    public Optional<Event> getCachedEvent(Long id) {
-        if (redisTemplate == null || id == null) {
+    public Optional<CachedEventResponse> getCachedEvent(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        CachedEventResponse local = localCache.getIfPresent(id);
+        if (local != null) {
+            return Optional.of(local);
+        }
+        if (redisTemplate == null) {
             return Optional.empty();
         }
         try {
             String key = CACHE_KEY_PREFIX + id;
-            Event event = redisTemplate.opsForValue().get(key);
-            return Optional.ofNullable(event);
+            byte[] bytes = redisTemplate.opsForValue().get(key);
+            CachedEventResponse cached = bytes != null ? CachedEventResponse.fromBytes(bytes) : null;
+            if (cached != null) {
+                localCache.put(id, cached);
+            }
+            return Optional.ofNullable(cached);
         } catch (Exception e) {
-            System.err.println("[EventCacheRepository] getCachedEvent failed: " + e.getMessage());
+            log.warn("[EventCacheRepository] getCachedEvent failed: {}", e.getMessage());
             return Optional.empty();
         }
     }
 
+    /**
+     * Evicts now and, when called inside a transaction, again after commit so a concurrent
+     * reader cannot re-populate either tier with the pre-update row.
+     */
     public void evictEventFromCache(Long id) {
-        if (redisTemplate == null || id == null) return; // No-op
+        if (id == null) return;
+        evictEverywhere(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictEverywhere(id);
+                }
+            });
+        }
+    }
+
+    private void evictEverywhere(Long id) {
+        localCache.invalidate(id);
+        if (redisTemplate == null) return; // No-op
         try {
-            String key = CACHE_KEY_PREFIX + id;
-            redisTemplate.delete(key);
+            redisTemplate.delete(CACHE_KEY_PREFIX + id);
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.warn("[EventCacheRepository] evictEventFromCache failed: {}", e.getMessage());
+        }
+    }
+
+    private void onInvalidationMessage(Message message, byte[] pattern) {
+        try {
+            localCache.invalidate(Long.valueOf(new String(message.getBody(), StandardCharsets.UTF_8)));
         } catch (Exception e) {
-            System.err.println("[EventCacheRepository] evictEventFromCache failed: " + e.getMessage());
+            log.warn("[EventCacheRepository] invalid invalidation message: {}", e.getMessage());
+        }
+    }
+
+    private byte[] serializeWithoutClosingBrace(EventResponse response) {
+        try {
+            byte[] json = responseWriter.writeValueAsBytes(response);
+            return Arrays.copyOf(json, json.length - 1);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize event " + response.getId(), e);
         }
     }
+
+    // Status is time-dependent, so it is appended at write time rather than cached
+    @JsonIgnoreProperties("status")
+    private abstract static class WithoutStatus {}
 }
@@ -1,17 +1,22 @@
 package com.eventplanner.events;
 
+import com.eventplanner.events.dto.EventNearbyResult;
 import com.eventplanner.events.dto.EventRequest;
 import com.eventplanner.events.dto.EventResponse;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.OffsetDateTime;
 import java.util.Locale;
 import java.util.List;
 import java.util.Map;
@@ -27,7 +32,7 @@ public class EventController {
     private final EventService eventService;
 
     @GetMapping
-    public ResponseEntity<Page<EventResponse>> getAllEvents(
+    public ResponseEntity<?> getAllEvents(
             @RequestHeader(value = "x-tenant-id", required = false) String tenantId,
             @RequestHeader(value = "x-user-role", required = false) String userRole,
             @RequestParam(name = "status", required = false) String status,
@@ -35,8 +40,12 @@ public class EventController {
             @RequestParam(name = "page", required = false, defaultValue = "1") int page,
             @RequestParam(name = "limit", required = false, defaultValue = "10") int limit,
             @RequestParam(name = "search", required = false) String search,
+            @RequestParam(name = "city", required = false) String city,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
             @RequestParam(name = "sortBy", required = false) String sortBy,
-            @RequestParam(name = "sortDir", required = false, defaultValue = "DESC") String sortDir) {
+            @RequestParam(name = "sortDir", required = false, defaultValue = "DESC") String sortDir,
+            @RequestParam(name = "cursor", required = false) String cursor) {
         // Convert 1-based page to 0-based index expected by Spring Data
         int pageIndex = Math.max(page - 1, 0);
         int pageSize = Math.max(Math.min(limit, 100), 1);
@@ -59,29 +68,39 @@ public class EventController {
         // Check if user is super admin (can see all tenants)
         boolean isSuperAdmin = "SUPER_ADMIN".equals(userRole);
         
-        if (search != null && !search.isBlank()) {
-            return ResponseEntity.ok(eventService.searchEvents(null, search, pageable, tenantId, isSuperAdmin));
-        }
         final String normalizedStatus = (status == null || status.isBlank()) ? null : status.toUpperCase(Locale.ROOT);
-        boolean hasStatus = normalizedStatus != null;
-        boolean hasMode = eventMode != null;
-        if (hasStatus && hasMode) {
-            return ResponseEntity.ok(eventService.getEventsByStatusAndMode(normalizedStatus, eventMode, pageable, tenantId, isSuperAdmin));
-        } else if (hasStatus) {
-            return ResponseEntity.ok(eventService.getEventsByStatus(normalizedStatus, pageable, tenantId, isSuperAdmin));
-        } else if (hasMode) {
-            return ResponseEntity.ok(eventService.getAllEventsByMode(eventMode, pageable, tenantId, isSuperAdmin));
+        EventFilter filter = EventFilter.builder()
+                .tenantId(tenantId)
+                .statusKey(normalizedStatus)
+                .eventMode(eventMode)
+                .city(city)
+                .startsFrom(from)
+                .startsTo(to)
+                .text(search)
+                .build();
+        // Free text goes to the ranked full-text index; ranking replaces sortBy
+        if (search != null && !search.isBlank() && cursor == null) {
+            return ResponseEntity.ok(eventService.searchEvents(filter.toBuilder().text(null).build(), search,
+                    PageRequest.of(pageIndex, pageSize), isSuperAdmin));
+        }
+        // Keyset mode: any "cursor" param (empty for the first page) switches off OFFSET paging and COUNT
+        if (cursor != null) {
+            return ResponseEntity.ok(eventService.getEventsAfterCursor(filter, cursor, field, direction, pageSize, isSuperAdmin));
         }
-        return ResponseEntity.ok(eventService.getAllEvents(pageable, tenantId, isSuperAdmin));
+        return ResponseEntity.ok(eventService.findEvents(filter, pageable, isSuperAdmin));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<EventResponse> getEventById(
+    public void getEventById(
             @PathVariable("id") Long id,
             @RequestHeader(value = "x-tenant-id", required = false) String tenantId,
-            @RequestHeader(value = "x-user-role", required = false) String userRole) {
+            @RequestHeader(value = "x-user-role", required = false) String userRole,
+            HttpServletResponse response) throws IOException {
         boolean isSuperAdmin = "SUPER_ADMIN".equals(userRole);
-        return ResponseEntity.ok(eventService.getEventById(id, tenantId, isSuperAdmin));
+        CachedEventResponse ev = eventService.getEventById(id, tenantId, isSuperAdmin);
+        // Cached JSON goes straight to the socket; only the status suffix is computed per request
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ev.writeTo(response.getOutputStream(), OffsetDateTime.now());
     }
 
     @PostMapping
@@ -138,14 +157,55 @@ public class EventController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Page<EventResponse>> searchEvents(
+    public ResponseEntity<?> searchEvents(
             @RequestParam(required = false) String city,
             @RequestParam(required = false) String query,
             Pageable pageable,
             @RequestHeader(value = "x-tenant-id", required = false) String tenantId,
             @RequestHeader(value = "x-user-role", required = false) String userRole) {
         boolean isSuperAdmin = "SUPER_ADMIN".equals(userRole);
-        return ResponseEntity.ok(eventService.searchEvents(city, query, pageable, tenantId, isSuperAdmin));
+        EventFilter filter = EventFilter.builder()
+                .tenantId(tenantId)
+                .city(city)
+                .build();
+        // Same ranked full-text search as GET /api/events?search=; ranking replaces any requested sort
+        if (query != null && !query.isBlank()) {
+            return ResponseEntity.ok(eventService.searchEvents(filter, query,
+                    PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()), isSuperAdmin));
+        }
+        return ResponseEntity.ok(eventService.findEvents(filter, pageable, isSuperAdmin));
+    }
+
+    @GetMapping("/search/suggest")
+    public ResponseEntity<List<String>> suggestEventNames(
+            @RequestParam("q") String prefix,
+            @RequestParam(name = "limit", defaultValue = "10") int limit,
+            @RequestHeader(value = "x-tenant-id", required = false) String tenantId,
+            @RequestHeader(value = "x-user-role", required = false) String userRole) {
+        boolean isSuperAdmin = "SUPER_ADMIN".equals(userRole);
+        int cappedLimit = Math.max(Math.min(limit, 20), 1);
+        return ResponseEntity.ok(eventService.suggestEventNames(prefix, cappedLimit, tenantId, isSuperAdmin));
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<List<EventNearbyResult>> getNearbyEvents(
+            @RequestParam("lat") double lat,
+            @RequestParam("lon") double lon,
+            @RequestParam(name = "radiusKm", defaultValue = "25") double radiusKm,
+            @RequestParam(name = "limit", defaultValue = "20") int limit,
+            @RequestParam(name = "status", required = false) String status,
+            @RequestParam(name = "eventMode", required = false) EventMode eventMode,
+            @RequestHeader(value = "x-tenant-id", required = false) String tenantId,
+            @RequestHeader(value = "x-user-role", required = false) String userRole) {
+        boolean isSuperAdmin = "SUPER_ADMIN".equals(userRole);
+        EventFilter filter = EventFilter.builder()
+                .tenantId(tenantId)
+                .statusKey((status == null || status.isBlank()) ? null : status.toUpperCase(Locale.ROOT))
+                .eventMode(eventMode)
+                .build();
+        double cappedRadius = Math.min(radiusKm, 500);
+        int cappedLimit = Math.max(Math.min(limit, 100), 1);
+        return ResponseEntity.ok(eventService.findNearby(filter, lat, lon, cappedRadius, cappedLimit, isSuperAdmin));
     }
 
     @GetMapping("/cities")
@@ -168,7 +228,7 @@ public class EventController {
             @RequestHeader(value = "x-tenant-id", required = false) String tenantId,
             @RequestHeader(value = "x-user-role", required = false) String userRole) {
         boolean isSuperAdmin = "SUPER_ADMIN".equals(userRole);
-        EventResponse ev = eventService.getEventById(id, tenantId, isSuperAdmin);
+        CachedEventResponse ev = eventService.getEventById(id, tenantId, isSuperAdmin);
         long daysToEvent = 0;
         if (ev.getStartsAt() != null) {
             LocalDate start = ev.getStartsAt().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
@@ -0,0 +1,75 @@
+package com.eventplanner.events;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Keyset position for event listings: the sort key and id of the last row returned.
+ * Serialized as an opaque url-safe token so clients only echo it back.
+ */
+public final class EventCursor {
+    // Only non-null columns can be seeked on; priceInr is nullable and falls back to createdAt
+    private static final Set<String> SEEKABLE_FIELDS = Set.of("createdAt", "updatedAt", "startsAt", "name");
+    private static final String DEFAULT_FIELD = "createdAt";
+
+    private final String field;
+    private final Sort.Direction direction;
+    private final Comparable<?> lastValue;
+    private final Long lastId;
+
+    private EventCursor(String field, Sort.Direction direction, Comparable<?> lastValue, Long lastId) {
+        this.field = field;
+        this.direction = direction;
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+    }
+
+    /** Position before the first row for the given sort. */
+    public static EventCursor first(String field, Sort.Direction direction) {
+        return new EventCursor(SEEKABLE_FIELDS.contains(field) ? field : DEFAULT_FIELD, direction, null, null);
+    }
+
+    public static EventCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            String field = parts[0];
+            if (parts.length != 4 || !SEEKABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Sort.Direction direction = Sort.Direction.fromString(parts[1]);
+            Long id = Long.valueOf(parts[2]);
+            Comparable<?> value = "name".equals(field) ? parts[3] : OffsetDateTime.parse(parts[3]);
+            return new EventCursor(field, direction, value, id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /** Cursor pointing just after {@code last}, keeping this cursor's sort. */
+    public EventCursor after(Event last) {
+        Comparable<?> value = switch (field) {
+            case "updatedAt" -> last.getUpdatedAt();
+            case "startsAt" -> last.getStartsAt();
+            case "name" -> last.getName();
+            default -> last.getCreatedAt();
+        };
+        return new EventCursor(field, direction, value, last.getId());
+    }
+
+    public String encode() {
+        String raw = field + "|" + direction.name() + "|" + lastId + "|" + lastValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isFirst() { return lastId == null; }
+    public String getField() { return field; }
+    public Sort.Direction getDirection() { return direction; }
+    public Comparable<?> getLastValue() { return lastValue; }
+    public Long getLastId() { return lastId; }
+}
@@ -0,0 +1,22 @@
+package com.eventplanner.events;
+
+import lombok.Builder;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Listing filter shared by the event query paths; every field is optional. {@code tenantId}
+ * null means all tenants (super admin); {@code statusKey} is one of
+ * DRAFT/LIVE/COMPLETED/CANCELLED/TRASHED/ALL. {@code startsFrom}/{@code startsTo} bound
+ * {@code startsAt} (inclusive/exclusive).
+ */
+@Builder(toBuilder = true)
+public record EventFilter(
+        String tenantId,
+        String statusKey,
+        EventMode eventMode,
+        String city,
+        OffsetDateTime startsFrom,
+        OffsetDateTime startsTo,
+        String text
+) {}
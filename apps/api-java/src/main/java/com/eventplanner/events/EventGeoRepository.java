@@ -0,0 +1,55 @@
+package com.eventplanner.events;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Radius queries over event coordinates using the {@code earthdistance} extension. The
+ * {@code earth_box @>} test is answered by the GiST index on {@code ll_to_earth(latitude, longitude)}
+ * (V20240930_20__events_geo_index.sql); exact distance is only computed for rows inside the box.
+ */
+@Repository
+public class EventGeoRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public record Hit(Long id, double distanceMeters) {}
+
+    /** Events within {@code radiusMeters} of the point, nearest first. */
+    public List<Hit> findWithinRadius(EventFilter filter, double lat, double lon, double radiusMeters,
+                                      OffsetDateTime now, int limit) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("lat", lat);
+        params.put("lon", lon);
+        params.put("radius", radiusMeters);
+        StringBuilder sql = new StringBuilder(
+                "SELECT e.id, earth_distance(ll_to_earth(:lat, :lon), ll_to_earth(e.latitude, e.longitude)) AS dist "
+                        + "FROM events e "
+                        + "WHERE e.latitude IS NOT NULL AND e.longitude IS NOT NULL "
+                        + "AND earth_box(ll_to_earth(:lat, :lon), :radius) @> ll_to_earth(e.latitude, e.longitude) "
+                        // earth_box is a cube, so trim its corners with the exact distance
+                        + "AND earth_distance(ll_to_earth(:lat, :lon), ll_to_earth(e.latitude, e.longitude)) <= :radius");
+        EventSqlFilter.appendTo(filter, now, sql, params);
+        sql.append(" ORDER BY dist, e.id LIMIT :limit");
+
+        Query query = em.createNativeQuery(sql.toString());
+        params.forEach(query::setParameter);
+        query.setParameter("limit", limit);
+        List<?> rows = query.getResultList();
+        List<Hit> hits = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            Object[] cols = (Object[]) row;
+            hits.add(new Hit(((Number) cols[0]).longValue(), ((Number) cols[1]).doubleValue()));
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,43 @@
+package com.eventplanner.events;
+
+import com.eventplanner.geo.GeocodePipeline;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Hands geocode requests to {@link GeocodePipeline} once the event row is committed, then
+ * writes coordinates back with a single UPDATE. Failures are left for {@link GeocodeBackfillJob}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventGeocodeListener {
+
+    private final GeocodePipeline geocodePipeline;
+    private final EventRepository eventRepository;
+    private final EventCacheRepository eventCacheRepository;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onGeocodeRequested(EventGeocodeRequested request) {
+        geocodePipeline.resolve(request.city()).whenComplete((geo, error) -> {
+            if (error != null) {
+                log.warn("Async geocode failed for event {} city '{}': {}", request.eventId(), request.city(), error.toString());
+                return;
+            }
+            if (geo == null) return;
+            try {
+                // Skips the write if the city was edited again while the lookup was running
+                int updated = eventRepository.updateCoordinatesIfCityUnchanged(
+                        request.eventId(), request.city(), geo.getLat(), geo.getLon());
+                if (updated > 0) {
+                    eventCacheRepository.evictEventFromCache(request.eventId());
+                }
+            } catch (Exception e) {
+                log.warn("Failed to store coordinates for event {}: {}", request.eventId(), e.toString());
+            }
+        });
+    }
+}
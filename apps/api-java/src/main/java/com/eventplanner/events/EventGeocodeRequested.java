@@ -0,0 +1,4 @@
+package com.eventplanner.events;
+
+/** Published when an event's city needs (re)geocoding; handled after the transaction commits. */
+public record EventGeocodeRequested(Long eventId, String city) {}
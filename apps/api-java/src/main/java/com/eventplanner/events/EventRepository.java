@@ -1,23 +1,24 @@
 package com.eventplanner.events;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
+/**
+ * Listing queries (tenant/status/mode/city/date/text in any combination) go through
+ * {@link JpaSpecificationExecutor} with {@link EventSpecifications}.
+ */
 @Repository
-public interface EventRepository extends JpaRepository<Event, Long> {
-    
-    // Find events by city (case-insensitive)
-    Page<Event> findByCityIgnoreCase(String city, Pageable pageable);
-    
-    // Search by name, venue, or address (case-insensitive)
-    Page<Event> findByNameContainingIgnoreCaseOrVenueContainingIgnoreCaseOrAddressContainingIgnoreCase(
-            String name, String venue, String address, Pageable pageable);
+public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event>, EventRepositoryCustom {
     
     // Find upcoming events
     @Query("SELECT e FROM Event e WHERE e.startsAt > CURRENT_TIMESTAMP ORDER BY e.startsAt ASC")
@@ -27,77 +28,29 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     @Query("SELECT DISTINCT e.city FROM Event e WHERE e.city IS NOT NULL")
     List<String> findDistinctCities();
 
-    // Explicit status lookups (for CANCELLED / TRASHED mainly)
-    Page<Event> findByStatus(EventStatus status, Pageable pageable);
-
-    // Filter by event mode only
-    Page<Event> findByEventMode(EventMode eventMode, Pageable pageable);
-
-    // Filter by explicit status and mode
-    Page<Event> findByStatusAndEventMode(EventStatus status, EventMode eventMode, Pageable pageable);
-
-    // Draft = future events not cancelled/trashed
-    @Query("SELECT e FROM Event e WHERE e.status NOT IN ('CANCELLED','TRASHED') AND e.startsAt > CURRENT_TIMESTAMP")
-    Page<Event> findDraft(Pageable pageable);
-
-    @Query("SELECT e FROM Event e WHERE e.status NOT IN ('CANCELLED','TRASHED') AND e.startsAt > CURRENT_TIMESTAMP AND e.eventMode = :eventMode")
-    Page<Event> findDraftByMode(EventMode eventMode, Pageable pageable);
-
-    // Live = between start and end, not cancelled/trashed
-    @Query("SELECT e FROM Event e WHERE e.status NOT IN ('CANCELLED','TRASHED') AND e.startsAt <= CURRENT_TIMESTAMP AND e.endsAt >= CURRENT_TIMESTAMP")
-    Page<Event> findLive(Pageable pageable);
-
-    @Query("SELECT e FROM Event e WHERE e.status NOT IN ('CANCELLED','TRASHED') AND e.startsAt <= CURRENT_TIMESTAMP AND e.endsAt >= CURRENT_TIMESTAMP AND e.eventMode = :eventMode")
-    Page<Event> findLiveByMode(EventMode eventMode, Pageable pageable);
-
-    // Completed = past end, not cancelled/trashed
-    @Query("SELECT e FROM Event e WHERE e.status NOT IN ('CANCELLED','TRASHED') AND e.endsAt < CURRENT_TIMESTAMP")
-    Page<Event> findCompleted(Pageable pageable);
-
-    @Query("SELECT e FROM Event e WHERE e.status NOT IN ('CANCELLED','TRASHED') AND e.endsAt < CURRENT_TIMESTAMP AND e.eventMode = :eventMode")
-    Page<Event> findCompletedByMode(EventMode eventMode, Pageable pageable);
-
-    // Missing coordinates for backfill job
-    Page<Event> findByLatitudeIsNullOrLongitudeIsNull(Pageable pageable);
-    
-    // ========== TENANT-FILTERED METHODS ==========
-    
-    // Basic tenant filtering
-    Page<Event> findByTenantId(String tenantId, Pageable pageable);
-    
-    // Tenant + Status
-    Page<Event> findByTenantIdAndStatus(String tenantId, EventStatus status, Pageable pageable);
-    
-    // Tenant + Mode
-    Page<Event> findByTenantIdAndEventMode(String tenantId, EventMode eventMode, Pageable pageable);
-    
-    // Tenant + Status + Mode
-    Page<Event> findByTenantIdAndStatusAndEventMode(String tenantId, EventStatus status, EventMode eventMode, Pageable pageable);
-    
-    // Tenant + Draft (future events not cancelled/trashed)
-    @Query("SELECT e FROM Event e WHERE e.tenantId = :tenantId AND e.status NOT IN ('CANCELLED','TRASHED') AND e.startsAt > CURRENT_TIMESTAMP")
-    Page<Event> findDraftByTenantId(@Param("tenantId") String tenantId, Pageable pageable);
-    
-    @Query("SELECT e FROM Event e WHERE e.tenantId = :tenantId AND e.status NOT IN ('CANCELLED','TRASHED') AND e.startsAt > CURRENT_TIMESTAMP AND e.eventMode = :eventMode")
-    Page<Event> findDraftByTenantIdAndMode(@Param("tenantId") String tenantId, @Param("eventMode") EventMode eventMode, Pageable pageable);
-    
-    // Tenant + Live (between start and end)
-    @Query("SELECT e FROM Event e WHERE e.tenantId = :tenantId AND e.status NOT IN ('CANCELLED','TRASHED') AND e.startsAt <= CURRENT_TIMESTAMP AND e.endsAt >= CURRENT_TIMESTAMP")
-    Page<Event> findLiveByTenantId(@Param("tenantId") String tenantId, Pageable pageable);
-    
-    @Query("SELECT e FROM Event e WHERE e.tenantId = :tenantId AND e.status NOT IN ('CANCELLED','TRASHED') AND e.startsAt <= CURRENT_TIMESTAMP AND e.endsAt >= CURRENT_TIMESTAMP AND e.eventMode = :eventMode")
-    Page<Event> findLiveByTenantIdAndMode(@Param("tenantId") String tenantId, @Param("eventMode") EventMode eventMode, Pageable pageable);
-    
-    // Tenant + Completed (past end)
-    @Query("SELECT e FROM Event e WHERE e.tenantId = :tenantId AND e.status NOT IN ('CANCELLED','TRASHED') AND e.endsAt < CURRENT_TIMESTAMP")
-    Page<Event> findCompletedByTenantId(@Param("tenantId") String tenantId, Pageable pageable);
-    
-    @Query("SELECT e FROM Event e WHERE e.tenantId = :tenantId AND e.status NOT IN ('CANCELLED','TRASHED') AND e.endsAt < CURRENT_TIMESTAMP AND e.eventMode = :eventMode")
-    Page<Event> findCompletedByTenantIdAndMode(@Param("tenantId") String tenantId, @Param("eventMode") EventMode eventMode, Pageable pageable);
-    
-    // Tenant + Search
-    @Query("SELECT e FROM Event e WHERE e.tenantId = :tenantId AND (LOWER(e.name) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(e.description) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(e.venue) LIKE LOWER(CONCAT('%', :query, '%')))")
-    Page<Event> searchByTenantId(@Param("tenantId") String tenantId, @Param("query") String query, Pageable pageable);
+    // Async geocode write-back; REQUIRES_NEW because it may run from an after-commit callback
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("UPDATE Event e SET e.latitude = :lat, e.longitude = :lon WHERE e.id = :id AND LOWER(e.city) = LOWER(:city)")
+    int updateCoordinatesIfCityUnchanged(@Param("id") Long id, @Param("city") String city,
+                                         @Param("lat") Double lat, @Param("lon") Double lon);
+
+    // Missing coordinates for backfill job: keyset scan projecting only id + city
+    interface CityRow {
+        Long getId();
+        String getCity();
+    }
+
+    @Query("SELECT e.id AS id, e.city AS city FROM Event e WHERE (e.latitude IS NULL OR e.longitude IS NULL) " +
+            "AND e.city IS NOT NULL AND e.id > :afterId ORDER BY e.id")
+    List<CityRow> findMissingCoordinatesAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    // One statement per distinct city in a backfill batch
+    @Modifying
+    @Transactional
+    @Query("UPDATE Event e SET e.latitude = :lat, e.longitude = :lon " +
+            "WHERE e.id IN :ids AND (e.latitude IS NULL OR e.longitude IS NULL)")
+    int fillMissingCoordinates(@Param("ids") Collection<Long> ids, @Param("lat") Double lat, @Param("lon") Double lon);
     
     // Tenant + Upcoming events
     @Query("SELECT e FROM Event e WHERE e.tenantId = :tenantId AND e.startsAt > CURRENT_TIMESTAMP ORDER BY e.startsAt ASC")
@@ -0,0 +1,12 @@
+package com.eventplanner.events;
+
+import java.util.List;
+
+public interface EventRepositoryCustom {
+
+    /**
+     * Keyset scan: up to {@code limit} events matching {@code filter} that sort strictly after
+     * {@code cursor}. Issues a single index-range query and no count query.
+     */
+    List<Event> findAfter(EventFilter filter, EventCursor cursor, int limit);
+}
@@ -0,0 +1,62 @@
+package com.eventplanner.events;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class EventRepositoryImpl implements EventRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<Event> findAfter(EventFilter filter, EventCursor cursor, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Event> cq = cb.createQuery(Event.class);
+        Root<Event> e = cq.from(Event.class);
+
+        List<Predicate> where = new ArrayList<>();
+        Predicate filtered = EventSpecifications.matching(filter, OffsetDateTime.now()).toPredicate(e, cq, cb);
+        if (filtered != null) {
+            where.add(filtered);
+        }
+        if (!cursor.isFirst()) {
+            where.add(seek(cb, e, cursor));
+        }
+
+        Path<Object> key = e.get(cursor.getField());
+        Path<Object> id = e.get("id");
+        cq.where(where.toArray(new Predicate[0]));
+        cq.orderBy(cursor.getDirection().isAscending()
+                ? List.of(cb.asc(key), cb.asc(id))
+                : List.of(cb.desc(key), cb.desc(id)));
+        return em.createQuery(cq).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Row-value seek {@code (key, id) < (v, lastId)} (or {@code >} ascending), expanded for JPQL.
+     * The redundant {@code key <= v} bound lets Postgres use it as the index range condition.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate seek(CriteriaBuilder cb, Root<Event> e, EventCursor cursor) {
+        Path<Comparable> key = e.get(cursor.getField());
+        Path<Long> id = e.get("id");
+        Comparable value = cursor.getLastValue();
+        if (cursor.getDirection().isAscending()) {
+            return cb.and(
+                    cb.greaterThanOrEqualTo(key, value),
+                    cb.or(cb.greaterThan(key, value), cb.greaterThan(id, cursor.getLastId())));
+        }
+        return cb.and(
+                cb.lessThanOrEqualTo(key, value),
+                cb.or(cb.lessThan(key, value), cb.lessThan(id, cursor.getLastId())));
+    }
+}
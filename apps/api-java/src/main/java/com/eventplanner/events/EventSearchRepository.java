@@ -0,0 +1,143 @@
+package com.eventplanner.events;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.util.HtmlUtils;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Full-text event search over the generated {@code events.search_vector} column (GIN) with a
+ * {@code pg_trgm} fallback on {@code lower(name)} for misspellings; see V20240930_19__events_full_text_search.sql.
+ * Filters are rendered by {@link EventSqlFilter} because {@code @@} has no JPQL form.
+ */
+@Repository
+public class EventSearchRepository {
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_TERMS = 8;
+    // ts_headline copies the document verbatim, markup included, so matches are delimited with
+    // private-use characters (stripped from the input) and the snippet is escaped in Java
+    private static final char START_SEL = '\uE000';
+    private static final char STOP_SEL = '\uE001';
+    private static final String HEADLINE_OPTIONS = "StartSel=\"" + START_SEL + "\", StopSel=\"" + STOP_SEL
+            + "\", MaxWords=30, MinWords=10, MaxFragments=2";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public record Hit(Long id, double rank, String highlight) {}
+
+    /**
+     * Ranked page of matches for {@code text}; every term must match and the last one is
+     * treated as a prefix so results update while the user is typing.
+     */
+    public List<Hit> search(EventFilter filter, String text, OffsetDateTime now, int offset, int limit) {
+        String tsQuery = toPrefixTsQuery(text);
+        if (tsQuery == null) return List.of();
+        Map<String, Object> params = new LinkedHashMap<>();
+        String where = matchClause(filter, tsQuery, text, now, params);
+
+        // Headlines are only computed for the rows on this page
+        String sql = "SELECT h.id, h.rank, ts_headline('english', "
+                + "translate(coalesce(nullif(h.description, ''), h.name), :selectors, ''), "
+                + "to_tsquery('english', :tsq), :headlineOptions) "
+                + "FROM (SELECT e.id, e.name, e.description, "
+                + "ts_rank_cd(e.search_vector, to_tsquery('english', :tsq)) + similarity(lower(e.name), :raw) AS rank "
+                + "FROM events e WHERE " + where
+                + " ORDER BY rank DESC, e.id DESC LIMIT :limit OFFSET :offset) h "
+                + "ORDER BY h.rank DESC, h.id DESC";
+        Query query = em.createNativeQuery(sql);
+        params.forEach(query::setParameter);
+        query.setParameter("limit", limit);
+        query.setParameter("offset", offset);
+        query.setParameter("selectors", String.valueOf(START_SEL) + STOP_SEL);
+        query.setParameter("headlineOptions", HEADLINE_OPTIONS);
+
+        List<?> rows = query.getResultList();
+        List<Hit> hits = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            Object[] cols = (Object[]) row;
+            hits.add(new Hit(((Number) cols[0]).longValue(), ((Number) cols[1]).doubleValue(), toHtml((String) cols[2])));
+        }
+        return hits;
+    }
+
+    public long count(EventFilter filter, String text, OffsetDateTime now) {
+        String tsQuery = toPrefixTsQuery(text);
+        if (tsQuery == null) return 0;
+        Map<String, Object> params = new LinkedHashMap<>();
+        Query query = em.createNativeQuery("SELECT count(*) FROM events e WHERE "
+                + matchClause(filter, tsQuery, text, now, params));
+        params.forEach(query::setParameter);
+        return ((Number) query.getSingleResult()).longValue();
+    }
+
+    /** Event names starting with {@code prefix} (case-insensitive), closest matches first. */
+    public List<String> suggestNames(String tenantId, String prefix, int limit) {
+        String normalized = prefix.trim().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty()) return List.of();
+        StringBuilder sql = new StringBuilder(
+                "SELECT e.name FROM events e WHERE lower(e.name) LIKE :prefix ESCAPE '\\' "
+                        + "AND e.status NOT IN ('CANCELLED','TRASHED')");
+        if (tenantId != null) {
+            sql.append(" AND e.tenant_id = :tenantId");
+        }
+        sql.append(" GROUP BY e.name ORDER BY max(similarity(lower(e.name), :raw)) DESC, e.name LIMIT :limit");
+        Query query = em.createNativeQuery(sql.toString());
+        query.setParameter("prefix", escapeLike(normalized) + "%");
+        query.setParameter("raw", normalized);
+        query.setParameter("limit", limit);
+        if (tenantId != null) {
+            query.setParameter("tenantId", tenantId);
+        }
+        @SuppressWarnings("unchecked")
+        List<String> names = query.getResultList();
+        return names;
+    }
+
+    private String matchClause(EventFilter filter, String tsQuery, String text,
+                               OffsetDateTime now, Map<String, Object> params) {
+        params.put("tsq", tsQuery);
+        params.put("raw", text.trim().toLowerCase(Locale.ROOT));
+        StringBuilder sql = new StringBuilder(
+                "(e.search_vector @@ to_tsquery('english', :tsq) OR lower(e.name) % :raw)");
+        EventSqlFilter.appendTo(filter, now, sql, params);
+        return sql.toString();
+    }
+
+    /**
+     * Builds {@code a & b & c:*} from free text. Input is reduced to letter/digit runs, so the
+     * result is always valid tsquery syntax; returns null when nothing searchable is left.
+     */
+    static String toPrefixTsQuery(String text) {
+        if (text == null) return null;
+        List<String> terms = new ArrayList<>();
+        for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty() && terms.size() < MAX_TERMS) {
+                terms.add(token);
+            }
+        }
+        if (terms.isEmpty()) return null;
+        return String.join(" & ", terms) + ":*";
+    }
+
+    /** Escapes the headline and only then turns the match delimiters into {@code <mark>} tags. */
+    static String toHtml(String headline) {
+        if (headline == null) return null;
+        return HtmlUtils.htmlEscape(headline)
+                .replace(String.valueOf(START_SEL), "<mark>")
+                .replace(String.valueOf(STOP_SEL), "</mark>");
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
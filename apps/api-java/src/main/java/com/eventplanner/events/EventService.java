@@ -1,21 +1,28 @@
 package com.eventplanner.events;
 
 import com.eventplanner.events.dto.EventRequest;
+import com.eventplanner.events.dto.EventNearbyResult;
 import com.eventplanner.events.dto.EventResponse;
+import com.eventplanner.events.dto.EventSearchResult;
 import com.eventplanner.events.exceptions.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
-import com.eventplanner.geo.GeocodeService;
-import com.eventplanner.geo.GeocodeResponse;
+import com.eventplanner.util.CursorPage;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,145 +32,134 @@ public class EventService {
 
     private final EventRepository eventRepository;
     private final EventCacheRepository eventCacheRepository;
+    private final EventSearchRepository eventSearchRepository;
+    private final EventGeoRepository eventGeoRepository;
     private final EventMapper eventMapper;
-    private final GeocodeService geocodeService;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
+    /**
+     * Offset-paginated listing for any combination of filters. Super admins see every tenant;
+     * everyone else is scoped to {@code filter.tenantId()}.
+     */
     @Transactional(readOnly = true)
-    public Page<EventResponse> getAllEvents(Pageable pageable, String tenantId, boolean isSuperAdmin) {
-        if (isSuperAdmin) {
-            return eventRepository.findAll(pageable)
-                    .map(this::toResponseWithComputedStatus);
-        }
-        if (tenantId == null || tenantId.isBlank()) {
-            throw new IllegalArgumentException("Tenant ID required");
-        }
-        return eventRepository.findByTenantId(tenantId, pageable)
+    public Page<EventResponse> findEvents(EventFilter filter, Pageable pageable, boolean isSuperAdmin) {
+        EventFilter scoped = scopeToTenant(filter, isSuperAdmin);
+        return eventRepository.findAll(EventSpecifications.matching(scoped, OffsetDateTime.now()), pageable)
                 .map(this::toResponseWithComputedStatus);
     }
 
+    /**
+     * Relevance-ranked full-text search combined with the other listing filters. Ranking
+     * replaces the requested sort; only the page's rows are loaded as entities.
+     */
     @Transactional(readOnly = true)
-    public Page<EventResponse> getAllEventsByMode(EventMode mode, Pageable pageable, String tenantId, boolean isSuperAdmin) {
-        if (isSuperAdmin) {
-            return eventRepository.findByEventMode(mode, pageable)
-                    .map(this::toResponseWithComputedStatus);
-        }
-        if (tenantId == null || tenantId.isBlank()) {
+    public Page<EventSearchResult> searchEvents(EventFilter filter, String text, Pageable pageable, boolean isSuperAdmin) {
+        EventFilter scoped = scopeToTenant(filter, isSuperAdmin);
+        OffsetDateTime now = OffsetDateTime.now();
+        List<EventSearchRepository.Hit> hits = eventSearchRepository.search(
+                scoped, text, now, (int) pageable.getOffset(), pageable.getPageSize());
+        Map<Long, Event> byId = eventRepository.findAllById(hits.stream().map(EventSearchRepository.Hit::id).toList())
+                .stream()
+                .collect(Collectors.toMap(Event::getId, Function.identity()));
+        List<EventSearchResult> content = hits.stream()
+                .filter(h -> byId.containsKey(h.id()))
+                .map(h -> new EventSearchResult(toResponseWithComputedStatus(byId.get(h.id())), h.rank(), h.highlight()))
+                .collect(Collectors.toList());
+        return PageableExecutionUtils.getPage(content, pageable, () -> eventSearchRepository.count(scoped, text, now));
+    }
+
+    /** Name autocomplete for the search box. */
+    @Transactional(readOnly = true)
+    public List<String> suggestEventNames(String prefix, int limit, String tenantId, boolean isSuperAdmin) {
+        if (!isSuperAdmin && (tenantId == null || tenantId.isBlank())) {
             throw new IllegalArgumentException("Tenant ID required");
         }
-        return eventRepository.findByTenantIdAndEventMode(tenantId, mode, pageable)
-                .map(this::toResponseWithComputedStatus);
+        return eventSearchRepository.suggestNames(isSuperAdmin ? null : tenantId, prefix, limit);
     }
 
+    /** Events within {@code radiusKm} of ({@code lat}, {@code lon}), nearest first. */
     @Transactional(readOnly = true)
-    public Page<EventResponse> getEventsByStatus(String statusKey, Pageable pageable, String tenantId, boolean isSuperAdmin) {
-        if (isSuperAdmin) {
-            switch (statusKey) {
-                case "DRAFT":
-                    return eventRepository.findDraft(pageable).map(this::toResponseWithComputedStatus);
-                case "LIVE":
-                    return eventRepository.findLive(pageable).map(this::toResponseWithComputedStatus);
-                case "COMPLETED":
-                    return eventRepository.findCompleted(pageable).map(this::toResponseWithComputedStatus);
-                case "CANCELLED":
-                    return eventRepository.findByStatus(EventStatus.CANCELLED, pageable).map(this::toResponseWithComputedStatus);
-                case "TRASHED":
-                    return eventRepository.findByStatus(EventStatus.TRASHED, pageable).map(this::toResponseWithComputedStatus);
-                case "ALL":
-                    return getAllEvents(pageable, tenantId, isSuperAdmin);
-                default:
-                    return getAllEvents(pageable, tenantId, isSuperAdmin);
-            }
+    public List<EventNearbyResult> findNearby(EventFilter filter, double lat, double lon, double radiusKm,
+                                              int limit, boolean isSuperAdmin) {
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            throw new IllegalArgumentException("Invalid coordinates");
         }
-        if (tenantId == null || tenantId.isBlank()) {
-            throw new IllegalArgumentException("Tenant ID required");
-        }
-        switch (statusKey) {
-            case "DRAFT":
-                return eventRepository.findDraftByTenantId(tenantId, pageable).map(this::toResponseWithComputedStatus);
-            case "LIVE":
-                return eventRepository.findLiveByTenantId(tenantId, pageable).map(this::toResponseWithComputedStatus);
-            case "COMPLETED":
-                return eventRepository.findCompletedByTenantId(tenantId, pageable).map(this::toResponseWithComputedStatus);
-            case "CANCELLED":
-                return eventRepository.findByTenantIdAndStatus(tenantId, EventStatus.CANCELLED, pageable).map(this::toResponseWithComputedStatus);
-            case "TRASHED":
-                return eventRepository.findByTenantIdAndStatus(tenantId, EventStatus.TRASHED, pageable).map(this::toResponseWithComputedStatus);
-            case "ALL":
-                return getAllEvents(pageable, tenantId, isSuperAdmin);
-            default:
-                return getAllEvents(pageable, tenantId, isSuperAdmin);
+        if (radiusKm <= 0) {
+            throw new IllegalArgumentException("radiusKm must be positive");
         }
+        EventFilter scoped = scopeToTenant(filter, isSuperAdmin);
+        List<EventGeoRepository.Hit> hits = eventGeoRepository.findWithinRadius(
+                scoped, lat, lon, radiusKm * 1000d, OffsetDateTime.now(), limit);
+        Map<Long, Event> byId = eventRepository.findAllById(hits.stream().map(EventGeoRepository.Hit::id).toList())
+                .stream()
+                .collect(Collectors.toMap(Event::getId, Function.identity()));
+        return hits.stream()
+                .filter(h -> byId.containsKey(h.id()))
+                .map(h -> new EventNearbyResult(toResponseWithComputedStatus(byId.get(h.id())), h.distanceMeters() / 1000d))
+                .collect(Collectors.toList());
     }
 
+    /**
+     * Keyset-paginated listing: seeks past {@code cursorToken} instead of using OFFSET and
+     * never runs a count query, so every page costs the same regardless of depth.
+     */
     @Transactional(readOnly = true)
-    public Page<EventResponse> getEventsByStatusAndMode(String statusKey, EventMode mode, Pageable pageable, String tenantId, boolean isSuperAdmin) {
+    public CursorPage<EventResponse> getEventsAfterCursor(EventFilter filter, String cursorToken, String sortField,
+                                                          Sort.Direction direction, int limit, boolean isSuperAdmin) {
+        EventFilter scoped = scopeToTenant(filter, isSuperAdmin);
+        EventCursor cursor = (cursorToken == null || cursorToken.isBlank())
+                ? EventCursor.first(sortField, direction)
+                : EventCursor.decode(cursorToken);
+
+        // Fetch one extra row to learn whether another page exists
+        List<Event> rows = eventRepository.findAfter(scoped, cursor, limit + 1);
+        boolean hasNext = rows.size() > limit;
+        List<Event> pageRows = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? cursor.after(pageRows.get(pageRows.size() - 1)).encode() : null;
+        List<EventResponse> content = pageRows.stream()
+                .map(this::toResponseWithComputedStatus)
+                .collect(Collectors.toList());
+        return new CursorPage<>(content, nextCursor, hasNext, content.size());
+    }
+
+    private EventFilter scopeToTenant(EventFilter filter, boolean isSuperAdmin) {
         if (isSuperAdmin) {
-            switch (statusKey) {
-                case "DRAFT":
-                    return eventRepository.findDraftByMode(mode, pageable).map(this::toResponseWithComputedStatus);
-                case "LIVE":
-                    return eventRepository.findLiveByMode(mode, pageable).map(this::toResponseWithComputedStatus);
-                case "COMPLETED":
-                    return eventRepository.findCompletedByMode(mode, pageable).map(this::toResponseWithComputedStatus);
-                case "CANCELLED":
-                    return eventRepository.findByStatusAndEventMode(EventStatus.CANCELLED, mode, pageable).map(this::toResponseWithComputedStatus);
-                case "TRASHED":
-                    return eventRepository.findByStatusAndEventMode(EventStatus.TRASHED, mode, pageable).map(this::toResponseWithComputedStatus);
-                case "ALL":
-                    return getAllEventsByMode(mode, pageable, tenantId, isSuperAdmin);
-                default:
-                    return getAllEventsByMode(mode, pageable, tenantId, isSuperAdmin);
-            }
+            return filter.toBuilder().tenantId(null).build();
         }
-        if (tenantId == null || tenantId.isBlank()) {
+        if (filter.tenantId() == null || filter.tenantId().isBlank()) {
             throw new IllegalArgumentException("Tenant ID required");
         }
-        switch (statusKey) {
-            case "DRAFT":
-                return eventRepository.findDraftByTenantIdAndMode(tenantId, mode, pageable).map(this::toResponseWithComputedStatus);
-            case "LIVE":
-                return eventRepository.findLiveByTenantIdAndMode(tenantId, mode, pageable).map(this::toResponseWithComputedStatus);
-            case "COMPLETED":
-                return eventRepository.findCompletedByTenantIdAndMode(tenantId, mode, pageable).map(this::toResponseWithComputedStatus);
-            case "CANCELLED":
-                return eventRepository.findByTenantIdAndStatusAndEventMode(tenantId, EventStatus.CANCELLED, mode, pageable).map(this::toResponseWithComputedStatus);
-            case "TRASHED":
-                return eventRepository.findByTenantIdAndStatusAndEventMode(tenantId, EventStatus.TRASHED, mode, pageable).map(this::toResponseWithComputedStatus);
-            case "ALL":
-                return getAllEventsByMode(mode, pageable, tenantId, isSuperAdmin);
-            default:
-                return getAllEventsByMode(mode, pageable, tenantId, isSuperAdmin);
-        }
+        return filter;
     }
 
+    /**
+     * Returns the pre-serialized response for an event; hits and misses both go through
+     * {@link CachedEventResponse} so the computed status is identical either way.
+     */
     @Transactional(readOnly = true)
-    public EventResponse getEventById(Long id, String tenantId, boolean isSuperAdmin) {
+    public CachedEventResponse getEventById(Long id, String tenantId, boolean isSuperAdmin) {
         // Try to get from cache first
-        Optional<Event> cachedEvent = eventCacheRepository.getCachedEvent(id);
-        if (cachedEvent.isPresent()) {
-            Event event = cachedEvent.get();
+        Optional<CachedEventResponse> cached = eventCacheRepository.getCachedEvent(id);
+        if (cached.isPresent()) {
             // Verify tenant access
-            if (!isSuperAdmin && !event.getTenantId().equals(tenantId)) {
+            if (!isSuperAdmin && !Objects.equals(cached.get().getTenantId(), tenantId)) {
                 throw new SecurityException("Access denied: Event belongs to different tenant");
             }
             log.debug("Cache hit for event id: {}", id);
-            return toResponseWithComputedStatus(event);
+            return cached.get();
         }
-        
+
         // If not in cache, get from database and cache it
         log.debug("Cache miss for event id: {}", id);
         Event event = eventRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + id));
-        
+
         // Verify tenant access
-        if (!isSuperAdmin && !event.getTenantId().equals(tenantId)) {
+        if (!isSuperAdmin && !Objects.equals(event.getTenantId(), tenantId)) {
             throw new SecurityException("Access denied: Event belongs to different tenant");
         }
-        
-        // Cache the event
-        eventCacheRepository.cacheEvent(event);
-        
-        return eventMapper.toResponse(event);
+
+        return eventCacheRepository.cacheEvent(event, eventMapper.toResponse(event));
     }
 
     @Transactional
@@ -178,18 +174,14 @@ public class EventService {
         event.setUpdatedAt(OffsetDateTime.now());
         // Newly created events are DRAFT by default
         event.setStatus(EventStatus.DRAFT);
-        // Populate coordinates if city present
-        if (request.getCity() != null && !request.getCity().isBlank()) {
-            GeocodeResponse geo = geocodeService.geocodeCity(request.getCity());
-            if (geo != null) {
-                event.setLatitude(geo.getLat());
-                event.setLongitude(geo.getLon());
-            }
-        }
         Event savedEvent = eventRepository.save(event);
+        // Coordinates are filled in asynchronously after commit; never call Nominatim while holding a connection
+        if (savedEvent.getCity() != null && !savedEvent.getCity().isBlank()) {
+            applicationEventPublisher.publishEvent(new EventGeocodeRequested(savedEvent.getId(), savedEvent.getCity()));
+        }
         
         // Cache the newly created event
-        eventCacheRepository.cacheEvent(savedEvent);
+        eventCacheRepository.cacheEvent(savedEvent, eventMapper.toResponse(savedEvent));
         
         return toResponseWithComputedStatus(savedEvent);
     }
@@ -212,15 +204,11 @@ public class EventService {
                     // If city changed (or was added/removed), recompute coordinates
                     boolean changed = (oldCity == null ? newCity != null && !newCity.isBlank() : !oldCity.equalsIgnoreCase(newCity == null ? "" : newCity));
                     if (changed) {
+                        // Old coordinates no longer apply; new ones arrive asynchronously after commit
+                        existingEvent.setLatitude(null);
+                        existingEvent.setLongitude(null);
                         if (newCity != null && !newCity.isBlank()) {
-                            GeocodeResponse geo = geocodeService.geocodeCity(newCity);
-                            if (geo != null) {
-                                existingEvent.setLatitude(geo.getLat());
-                                existingEvent.setLongitude(geo.getLon());
-                            }
-                        } else {
-                            existingEvent.setLatitude(null);
-                            existingEvent.setLongitude(null);
+                            applicationEventPublisher.publishEvent(new EventGeocodeRequested(id, newCity));
                         }
                     }
                     existingEvent.setUpdatedAt(OffsetDateTime.now());
@@ -321,31 +309,6 @@ public class EventService {
         return toResponseWithComputedStatus(eventRepository.save(event));
     }
 
-    @Transactional(readOnly = true)
-    public Page<EventResponse> searchEvents(String city, String query, Pageable pageable, String tenantId, boolean isSuperAdmin) {
-        if (isSuperAdmin) {
-            if (city != null && !city.isEmpty()) {
-                return eventRepository.findByCityIgnoreCase(city, pageable)
-                        .map(this::toResponseWithComputedStatus);
-            } else if (query != null && !query.isEmpty()) {
-                return eventRepository.findByNameContainingIgnoreCaseOrVenueContainingIgnoreCaseOrAddressContainingIgnoreCase(
-                                query, query, query, pageable)
-                        .map(this::toResponseWithComputedStatus);
-            }
-            return eventRepository.findAll(pageable)
-                    .map(this::toResponseWithComputedStatus);
-        }
-        if (tenantId == null || tenantId.isBlank()) {
-            throw new IllegalArgumentException("Tenant ID required");
-        }
-        if (query != null && !query.isEmpty()) {
-            return eventRepository.searchByTenantId(tenantId, query, pageable)
-                    .map(this::toResponseWithComputedStatus);
-        }
-        return eventRepository.findByTenantId(tenantId, pageable)
-                .map(this::toResponseWithComputedStatus);
-    }
-
     @Transactional(readOnly = true)
     public List<String> getCities() {
         return eventRepository.findDistinctCities();
@@ -369,25 +332,8 @@ public class EventService {
 
     private EventResponse toResponseWithComputedStatus(Event event) {
         EventResponse response = eventMapper.toResponse(event);
-        // Respect explicit statuses
-        if (event.getStatus() == EventStatus.CANCELLED || event.getStatus() == EventStatus.TRASHED) {
-            response.setStatus(event.getStatus().name());
-            return response;
-        }
-
-        OffsetDateTime now = OffsetDateTime.now();
-        // Null-safe computation: if missing times, default to DRAFT
-        if (event.getStartsAt() == null || event.getEndsAt() == null) {
-            response.setStatus(EventStatus.DRAFT.name());
-            return response;
-        }
-        if (now.isBefore(event.getStartsAt())) {
-            response.setStatus(EventStatus.DRAFT.name());
-        } else if (!now.isAfter(event.getEndsAt())) {
-            response.setStatus(EventStatus.LIVE.name());
-        } else {
-            response.setStatus(EventStatus.COMPLETED.name());
-        }
+        EventStatus status = EventStatus.effective(event.getStatus(), event.getStartsAt(), event.getEndsAt(), OffsetDateTime.now());
+        response.setStatus(status.name());
         return response;
     }
 }
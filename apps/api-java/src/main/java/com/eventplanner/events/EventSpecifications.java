@@ -0,0 +1,92 @@
+package com.eventplanner.events;
+
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.OffsetDateTime;
+import java.util.Locale;
+
+/**
+ * Criteria building blocks for event listings. Every filter combination compiles to a single
+ * query whose leading predicates line up with the indexes in V20240930_18__events_filter_indexes.sql.
+ */
+public final class EventSpecifications {
+
+    private EventSpecifications() {}
+
+    /** Combines every non-null field of {@code filter}; lifecycle status is evaluated at {@code now}. */
+    public static Specification<Event> matching(EventFilter filter, OffsetDateTime now) {
+        return Specification.where(tenant(filter.tenantId()))
+                .and(status(filter.statusKey(), now))
+                .and(mode(filter.eventMode()))
+                .and(city(filter.city()))
+                .and(startsBetween(filter.startsFrom(), filter.startsTo()))
+                .and(text(filter.text()));
+    }
+
+    public static Specification<Event> tenant(String tenantId) {
+        if (tenantId == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("tenantId"), tenantId);
+    }
+
+    public static Specification<Event> mode(EventMode mode) {
+        if (mode == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("eventMode"), mode);
+    }
+
+    public static Specification<Event> city(String city) {
+        if (city == null || city.isBlank()) return null;
+        String normalized = city.trim().toLowerCase(Locale.ROOT);
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("city")), normalized);
+    }
+
+    public static Specification<Event> startsBetween(OffsetDateTime from, OffsetDateTime to) {
+        if (from == null && to == null) return null;
+        return (root, query, cb) -> {
+            Path<OffsetDateTime> startsAt = root.get("startsAt");
+            if (from == null) return cb.lessThan(startsAt, to);
+            if (to == null) return cb.greaterThanOrEqualTo(startsAt, from);
+            return cb.and(cb.greaterThanOrEqualTo(startsAt, from), cb.lessThan(startsAt, to));
+        };
+    }
+
+    /**
+     * Case-insensitive substring match on name, description, venue and address, served by the
+     * trigram indexes. Only keyset listings use it; ranked search goes through {@link EventSearchRepository}.
+     */
+    public static Specification<Event> text(String text) {
+        if (text == null || text.isBlank()) return null;
+        String pattern = "%" + text.trim().toLowerCase(Locale.ROOT) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("name")), pattern),
+                cb.like(cb.lower(root.get("description")), pattern),
+                cb.like(cb.lower(root.get("venue")), pattern),
+                cb.like(cb.lower(root.get("address")), pattern));
+    }
+
+    /**
+     * Lifecycle status as shown to clients: explicit CANCELLED/TRASHED, otherwise derived from
+     * the time window. {@code now} is bound as a parameter rather than CURRENT_TIMESTAMP so the
+     * result matches {@link EventStatus#effective} for the same instant.
+     */
+    public static Specification<Event> status(String statusKey, OffsetDateTime now) {
+        if (statusKey == null) return null;
+        return switch (statusKey.toUpperCase(Locale.ROOT)) {
+            case "DRAFT" -> active().and((root, query, cb) ->
+                    cb.greaterThan(root.<OffsetDateTime>get("startsAt"), now));
+            case "LIVE" -> active().and((root, query, cb) -> cb.and(
+                    cb.lessThanOrEqualTo(root.<OffsetDateTime>get("startsAt"), now),
+                    cb.greaterThanOrEqualTo(root.<OffsetDateTime>get("endsAt"), now)));
+            case "COMPLETED" -> active().and((root, query, cb) ->
+                    cb.lessThan(root.<OffsetDateTime>get("endsAt"), now));
+            case "CANCELLED" -> (root, query, cb) -> cb.equal(root.get("status"), EventStatus.CANCELLED);
+            case "TRASHED" -> (root, query, cb) -> cb.equal(root.get("status"), EventStatus.TRASHED);
+            default -> null; // ALL
+        };
+    }
+
+    // Status values are bound parameters; the range on starts_at/ends_at is what the indexes serve
+    private static Specification<Event> active() {
+        return (root, query, cb) -> cb.not(root.get("status").in(EventStatus.CANCELLED, EventStatus.TRASHED));
+    }
+}
@@ -0,0 +1,61 @@
+package com.eventplanner.events;
+
+import java.time.OffsetDateTime;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Native-SQL rendering of {@link EventFilter} for queries that need Postgres operators with no
+ * JPQL form (full-text, distance). Semantics match {@link EventSpecifications}; the table must
+ * be aliased {@code e}. Free text is not handled here.
+ */
+final class EventSqlFilter {
+
+    private EventSqlFilter() {}
+
+    static void appendTo(EventFilter filter, OffsetDateTime now, StringBuilder sql, Map<String, Object> params) {
+        if (filter.tenantId() != null) {
+            sql.append(" AND e.tenant_id = :tenantId");
+            params.put("tenantId", filter.tenantId());
+        }
+        if (filter.eventMode() != null) {
+            sql.append(" AND e.event_mode = :mode");
+            params.put("mode", filter.eventMode().name());
+        }
+        if (filter.city() != null && !filter.city().isBlank()) {
+            sql.append(" AND lower(e.city) = :city");
+            params.put("city", filter.city().trim().toLowerCase(Locale.ROOT));
+        }
+        if (filter.startsFrom() != null) {
+            sql.append(" AND e.starts_at >= :startsFrom");
+            params.put("startsFrom", filter.startsFrom());
+        }
+        if (filter.startsTo() != null) {
+            sql.append(" AND e.starts_at < :startsTo");
+            params.put("startsTo", filter.startsTo());
+        }
+        appendStatus(filter.statusKey(), now, sql, params);
+    }
+
+    private static void appendStatus(String statusKey, OffsetDateTime now, StringBuilder sql, Map<String, Object> params) {
+        if (statusKey == null) return;
+        String active = " AND e.status NOT IN ('CANCELLED','TRASHED')";
+        switch (statusKey.toUpperCase(Locale.ROOT)) {
+            case "DRAFT" -> {
+                sql.append(active).append(" AND e.starts_at > :now");
+                params.put("now", now);
+            }
+            case "LIVE" -> {
+                sql.append(active).append(" AND e.starts_at <= :now AND e.ends_at >= :now");
+                params.put("now", now);
+            }
+            case "COMPLETED" -> {
+                sql.append(active).append(" AND e.ends_at < :now");
+                params.put("now", now);
+            }
+            case "CANCELLED" -> sql.append(" AND e.status = 'CANCELLED'");
+            case "TRASHED" -> sql.append(" AND e.status = 'TRASHED'");
+            default -> { } // ALL
+        }
+    }
+}
@@ -1,9 +1,25 @@
 package com.eventplanner.events;
 
+import java.time.OffsetDateTime;
+
 public enum EventStatus {
     DRAFT,
     LIVE,
     COMPLETED,
     CANCELLED,
-    TRASHED
+    TRASHED;
+
+    /**
+     * Status as shown to clients: CANCELLED/TRASHED are explicit, everything else
+     * is derived from the event window at {@code now} (missing times count as DRAFT).
+     */
+    public static EventStatus effective(EventStatus stored, OffsetDateTime startsAt, OffsetDateTime endsAt, OffsetDateTime now) {
+        if (stored == CANCELLED || stored == TRASHED) {
+            return stored;
+        }
+        if (startsAt == null || endsAt == null || now.isBefore(startsAt)) {
+            return DRAFT;
+        }
+        return now.isAfter(endsAt) ? COMPLETED : LIVE;
+    }
 }
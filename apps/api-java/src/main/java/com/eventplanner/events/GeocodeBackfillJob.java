@@ -1,53 +1,195 @@
 package com.eventplanner.events;
 
+import com.eventplanner.common.JobCheckpoint;
+import com.eventplanner.common.JobCheckpointRepository;
+import com.eventplanner.geo.GeocodePipeline;
 import com.eventplanner.geo.GeocodeResponse;
-import com.eventplanner.geo.GeocodeService;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fills missing event coordinates. Scans by id (keyset) from a persisted checkpoint, geocodes
+ * each distinct city in a batch once through {@link GeocodePipeline} (cache + rate limiter),
+ * and writes back one UPDATE per city. The checkpoint resets after a full pass so events that
+ * failed are retried the next night.
+ *
+ * <p>The pass runs on its own thread, off the shared scheduler, and keeps at most two lookups
+ * per pipeline thread in flight so live geocodes for new or edited events still
+ * find room in its queue. The checkpoint only moves past events whose city got a definitive
+ * answer, so a lookup that failed is retried even if the pass is cut short.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class GeocodeBackfillJob {
+    static final String JOB_NAME = "geocode-backfill";
 
     private final EventRepository eventRepository;
-    private final GeocodeService geocodeService;
+    private final GeocodePipeline geocodePipeline;
+    private final JobCheckpointRepository checkpointRepository;
+    private final EventCacheRepository eventCacheRepository;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "geocode-backfill");
+        t.setDaemon(true);
+        return t;
+    });
+    private final int maxInFlight;
+
+    @Value("${eventplanner.geocode.backfill.batch-size:500}")
+    private int batchSize;
+
+    @Value("${eventplanner.geocode.backfill.batch-timeout-seconds:600}")
+    private long batchTimeoutSeconds;
+
+    public GeocodeBackfillJob(EventRepository eventRepository,
+                              GeocodePipeline geocodePipeline,
+                              JobCheckpointRepository checkpointRepository,
+                              EventCacheRepository eventCacheRepository,
+                              @Value("${eventplanner.geocode.pipeline.threads:2}") int pipelineThreads) {
+        this.eventRepository = eventRepository;
+        this.geocodePipeline = geocodePipeline;
+        this.checkpointRepository = checkpointRepository;
+        this.eventCacheRepository = eventCacheRepository;
+        // Enough to keep every pipeline thread busy without queueing ahead of live lookups
+        this.maxInFlight = Math.max(1, pipelineThreads * 2);
+    }
 
     // Run nightly at 02:15 AM server time
     @Scheduled(cron = "0 15 2 * * *")
     public void backfillMissingCoordinates() {
-        int page = 0;
-        int size = 200;
-        int updatedCount = 0;
-        while (true) {
-            Pageable pageable = PageRequest.of(page, size);
-            Page<Event> batch = eventRepository.findByLatitudeIsNullOrLongitudeIsNull(pageable);
-            if (batch.isEmpty()) break;
-            for (Event ev : batch.getContent()) {
-                String city = ev.getCity();
-                if (city == null || city.isBlank()) continue;
+        if (!running.compareAndSet(false, true)) {
+            log.info("Geocode backfill already running; skipping");
+            return;
+        }
+        try {
+            runner.execute(() -> {
                 try {
-                    GeocodeResponse geo = geocodeService.geocodeCity(city);
-                    if (geo != null) {
-                        ev.setLatitude(geo.getLat());
-                        ev.setLongitude(geo.getLon());
-                        eventRepository.save(ev);
-                        updatedCount++;
-                    }
+                    runPass();
+                } catch (InterruptedException e) {
+                    log.info("Geocode backfill interrupted");
                 } catch (Exception e) {
-                    log.warn("Backfill geocode failed for event {} city {}: {}", ev.getId(), city, e.toString());
+                    log.warn("Geocode backfill failed: {}", e.toString());
+                } finally {
+                    running.set(false);
                 }
+            });
+        } catch (RejectedExecutionException e) {
+            running.set(false); // Shutting down
+        }
+    }
+
+    private void runPass() throws InterruptedException {
+        long afterId = checkpointRepository.findById(JOB_NAME).map(JobCheckpoint::getLastId).orElse(0L);
+        boolean settledSoFar = true; // every event up to afterId got a definitive answer
+        int updatedCount = 0;
+        while (true) {
+            List<EventRepository.CityRow> batch =
+                    eventRepository.findMissingCoordinatesAfter(afterId, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) break;
+            BatchResult result = processBatch(batch);
+            updatedCount += result.updated();
+            if (settledSoFar && result.settledThroughId() != null) {
+                saveCheckpoint(result.settledThroughId());
             }
-            if (!batch.hasNext()) break;
-            page++;
+            settledSoFar &= batch.get(batch.size() - 1).getId().equals(result.settledThroughId());
+            // Keep scanning past unsettled events in this pass; only the saved checkpoint waits for them
+            afterId = batch.get(batch.size() - 1).getId();
+            if (batch.size() < batchSize) break;
         }
+        saveCheckpoint(0L); // pass complete; next run starts from the beginning
         if (updatedCount > 0) {
             log.info("Geocode backfill updated {} events with coordinates", updatedCount);
         }
     }
+
+    /** Events updated, and the last id up to which every event in the batch was settled (null if none). */
+    private record BatchResult(int updated, Long settledThroughId) {}
+
+    private BatchResult processBatch(List<EventRepository.CityRow> batch) throws InterruptedException {
+        // Group event ids by normalized city so each city is looked up once
+        Map<String, List<Long>> idsByCity = new LinkedHashMap<>();
+        Map<String, String> displayCity = new LinkedHashMap<>();
+        for (EventRepository.CityRow row : batch) {
+            String city = row.getCity();
+            if (city == null || city.isBlank()) continue;
+            String key = city.trim().toLowerCase(Locale.ROOT);
+            idsByCity.computeIfAbsent(key, k -> new ArrayList<>()).add(row.getId());
+            displayCity.putIfAbsent(key, city.trim());
+        }
+
+        Semaphore window = new Semaphore(maxInFlight);
+        Map<String, CompletableFuture<GeocodeResponse>> lookups = new LinkedHashMap<>();
+        for (Map.Entry<String, String> city : displayCity.entrySet()) {
+            window.acquire();
+            CompletableFuture<GeocodeResponse> lookup = geocodePipeline.resolve(city.getValue());
+            lookup.whenComplete((geo, error) -> window.release());
+            lookups.put(city.getKey(), lookup);
+        }
+        try {
+            CompletableFuture.allOf(lookups.values().toArray(new CompletableFuture[0]))
+                    .get(batchTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException ignored) {
+            // Individual failures are handled per city below
+        }
+
+        int updated = 0;
+        Set<String> unsettled = new HashSet<>();
+        for (Map.Entry<String, CompletableFuture<GeocodeResponse>> entry : lookups.entrySet()) {
+            CompletableFuture<GeocodeResponse> lookup = entry.getValue();
+            if (!lookup.isDone() || lookup.isCompletedExceptionally()) {
+                log.warn("Backfill geocode unavailable for city '{}'", displayCity.get(entry.getKey()));
+                unsettled.add(entry.getKey());
+                continue;
+            }
+            GeocodeResponse geo = lookup.join();
+            if (geo == null) continue; // Nominatim has no result; settled
+            try {
+                List<Long> ids = idsByCity.get(entry.getKey());
+                updated += eventRepository.fillMissingCoordinates(ids, geo.getLat(), geo.getLon());
+                ids.forEach(eventCacheRepository::evictEventFromCache);
+            } catch (Exception e) {
+                log.warn("Backfill update failed for city '{}': {}", displayCity.get(entry.getKey()), e.toString());
+                unsettled.add(entry.getKey());
+            }
+        }
+
+        Long settledThroughId = null;
+        for (EventRepository.CityRow row : batch) {
+            String city = row.getCity();
+            if (city != null && !city.isBlank() && unsettled.contains(city.trim().toLowerCase(Locale.ROOT))) break;
+            settledThroughId = row.getId();
+        }
+        return new BatchResult(updated, settledThroughId);
+    }
+
+    private void saveCheckpoint(long lastId) {
+        checkpointRepository.save(new JobCheckpoint(JOB_NAME, lastId, OffsetDateTime.now()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+    }
 }
@@ -0,0 +1,9 @@
+package com.eventplanner.events.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/** Event returned by the radius search, with its distance from the query point. */
+public record EventNearbyResult(
+        @JsonUnwrapped EventResponse event,
+        double distanceKm
+) {}
@@ -0,0 +1,13 @@
+package com.eventplanner.events.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * Search hit: the usual event fields plus relevance {@code rank} and a {@code highlight}
+ * snippet: HTML-escaped event text with matched terms wrapped in {@code <mark>} tags.
+ */
+public record EventSearchResult(
+        @JsonUnwrapped EventResponse event,
+        double rank,
+        String highlight
+) {}
@@ -0,0 +1,41 @@
+package com.eventplanner.geo;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Persisted Nominatim answer for a normalized city + country bias. Null lat/lon records a
+ * lookup that returned no result (negative entry).
+ */
+@Entity
+@Table(name = "geocode_cache",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"city_key", "country_codes"}))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class GeocodeCacheEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "city_key", nullable = false, length = 200)
+    private String cityKey;
+
+    @Column(name = "country_codes", nullable = false, length = 64)
+    private String countryCodes;
+
+    @Column(name = "city", length = 200)
+    private String city;
+
+    private Double lat;
+    private Double lon;
+
+    @Column(name = "resolved_at", nullable = false)
+    private OffsetDateTime resolvedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private OffsetDateTime expiresAt;
+
+    public boolean isNegative() {
+        return lat == null || lon == null;
+    }
+}
@@ -0,0 +1,39 @@
+package com.eventplanner.geo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface GeocodeCacheRepository extends JpaRepository<GeocodeCacheEntry, Long> {
+
+    Optional<GeocodeCacheEntry> findByCityKeyAndCountryCodes(String cityKey, String countryCodes);
+
+    // Insert-or-refresh in one statement; concurrent nodes resolving the same city converge on one row
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO geocode_cache (city_key, country_codes, city, lat, lon, resolved_at, expires_at) " +
+            "VALUES (:cityKey, :countryCodes, :city, :lat, :lon, :resolvedAt, :expiresAt) " +
+            "ON CONFLICT (city_key, country_codes) DO UPDATE SET city = EXCLUDED.city, lat = EXCLUDED.lat, " +
+            "lon = EXCLUDED.lon, resolved_at = EXCLUDED.resolved_at, expires_at = EXCLUDED.expires_at",
+            nativeQuery = true)
+    void upsert(@Param("cityKey") String cityKey, @Param("countryCodes") String countryCodes,
+                @Param("city") String city, @Param("lat") Double lat, @Param("lon") Double lon,
+                @Param("resolvedAt") OffsetDateTime resolvedAt, @Param("expiresAt") OffsetDateTime expiresAt);
+
+    // Warm-start set: unexpired entries for the cities most events use
+    @Query(value = "SELECT g.* FROM geocode_cache g " +
+            "JOIN (SELECT lower(regexp_replace(trim(e.city), '\\s+', ' ', 'g')) AS city_key, count(*) AS n " +
+            "      FROM events e WHERE e.city IS NOT NULL GROUP BY 1 ORDER BY n DESC LIMIT :limit) top " +
+            "ON g.city_key = top.city_key " +
+            "WHERE g.country_codes = :countryCodes AND g.expires_at > :now",
+            nativeQuery = true)
+    List<GeocodeCacheEntry> findTopCities(@Param("countryCodes") String countryCodes,
+                                          @Param("now") OffsetDateTime now,
+                                          @Param("limit") int limit);
+}
@@ -0,0 +1,119 @@
+package com.eventplanner.geo;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Geocode answers keyed by normalized city + country bias: a bounded in-memory LRU in front of
+ * the {@code geocode_cache} table, so repeat lookups never reach Nominatim, including across
+ * restarts and nodes. "No result" answers are kept too, with a shorter TTL.
+ */
+@Component
+@Slf4j
+public class GeocodeCacheStore {
+
+    private final GeocodeCacheRepository repository;
+    private final Cache<String, GeocodeCacheEntry> localCache;
+    private final Duration positiveTtl;
+    private final Duration negativeTtl;
+    private final int warmStartSize;
+
+    public GeocodeCacheStore(GeocodeCacheRepository repository,
+                             ObjectProvider<MeterRegistry> meterRegistryProvider,
+                             @Value("${eventplanner.geocode.cache.max-size:5000}") long maxSize,
+                             @Value("${eventplanner.geocode.cache.positive-ttl-days:90}") long positiveTtlDays,
+                             @Value("${eventplanner.geocode.cache.negative-ttl-hours:24}") long negativeTtlHours,
+                             @Value("${eventplanner.geocode.cache.warm-start-size:500}") int warmStartSize) {
+        this.repository = repository;
+        this.positiveTtl = Duration.ofDays(positiveTtlDays);
+        this.negativeTtl = Duration.ofHours(negativeTtlHours);
+        this.warmStartSize = warmStartSize;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        MeterRegistry registry = meterRegistryProvider.getIfAvailable();
+        if (registry != null) {
+            CaffeineCacheMetrics.monitor(registry, localCache, "geocodeL1");
+        }
+    }
+
+    /** Cached answer if present and unexpired; a negative entry is returned as-is. */
+    public Optional<GeocodeCacheEntry> find(String city, String countryCodes) {
+        String key = key(city, countryCodes);
+        OffsetDateTime now = OffsetDateTime.now();
+        GeocodeCacheEntry local = localCache.getIfPresent(key);
+        if (local != null) {
+            if (local.getExpiresAt().isAfter(now)) return Optional.of(local);
+            localCache.invalidate(key);
+        }
+        try {
+            Optional<GeocodeCacheEntry> stored = repository
+                    .findByCityKeyAndCountryCodes(normalizeCity(city), normalizeCountryCodes(countryCodes))
+                    .filter(e -> e.getExpiresAt().isAfter(now));
+            stored.ifPresent(e -> localCache.put(key, e));
+            return stored;
+        } catch (Exception e) {
+            log.warn("[GeocodeCacheStore] lookup failed for '{}': {}", city, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    /** Records a definitive answer; {@code result} null stores a negative entry. */
+    public void put(String city, String countryCodes, GeocodeResponse result) {
+        OffsetDateTime now = OffsetDateTime.now();
+        GeocodeCacheEntry entry = GeocodeCacheEntry.builder()
+                .cityKey(normalizeCity(city))
+                .countryCodes(normalizeCountryCodes(countryCodes))
+                .city(city)
+                .lat(result != null ? result.getLat() : null)
+                .lon(result != null ? result.getLon() : null)
+                .resolvedAt(now)
+                .expiresAt(now.plus(result != null ? positiveTtl : negativeTtl))
+                .build();
+        localCache.put(key(city, countryCodes), entry);
+        try {
+            repository.upsert(entry.getCityKey(), entry.getCountryCodes(), entry.getCity(),
+                    entry.getLat(), entry.getLon(), entry.getResolvedAt(), entry.getExpiresAt());
+        } catch (Exception e) {
+            log.warn("[GeocodeCacheStore] persist failed for '{}': {}", city, e.toString());
+        }
+    }
+
+    /** Preloads the most-used cities so the first requests after a deploy are served from memory. */
+    public void warmUp(String countryCodes) {
+        if (warmStartSize <= 0) return;
+        try {
+            List<GeocodeCacheEntry> top = repository.findTopCities(
+                    normalizeCountryCodes(countryCodes), OffsetDateTime.now(), warmStartSize);
+            top.forEach(e -> localCache.put(e.getCityKey() + "|" + e.getCountryCodes(), e));
+            log.info("Geocode cache warmed with {} cities", top.size());
+        } catch (Exception e) {
+            log.warn("[GeocodeCacheStore] warm start failed: {}", e.toString());
+        }
+    }
+
+    private static String key(String city, String countryCodes) {
+        return normalizeCity(city) + "|" + normalizeCountryCodes(countryCodes);
+    }
+
+    static String normalizeCity(String city) {
+        return city.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    static String normalizeCountryCodes(String countryCodes) {
+        return countryCodes == null ? "" : countryCodes.replace(" ", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,79 @@
+package com.eventplanner.geo;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolves cities off the request path on a small bounded executor. Concurrent lookups of the
+ * same city share one in-flight future, so a burst of events in one city costs one request.
+ */
+@Component
+@Slf4j
+public class GeocodePipeline {
+
+    private final GeocodeService geocodeService;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentMap<String, CompletableFuture<GeocodeResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public GeocodePipeline(GeocodeService geocodeService,
+                           @Value("${eventplanner.geocode.pipeline.threads:2}") int threads,
+                           @Value("${eventplanner.geocode.pipeline.queue-capacity:500}") int queueCapacity) {
+        this.geocodeService = geocodeService;
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "geocode-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Geocodes {@code city} asynchronously, joining an in-flight lookup for the same city.
+     * Completes with null when Nominatim has no result for the city; completes exceptionally with
+     * {@link IllegalStateException} when the lookup could not be answered, or with
+     * {@link java.util.concurrent.RejectedExecutionException} when the queue is full.
+     */
+    public CompletableFuture<GeocodeResponse> resolve(String city) {
+        String key = city.trim().toLowerCase(Locale.ROOT);
+        CompletableFuture<GeocodeResponse> created = new CompletableFuture<>();
+        CompletableFuture<GeocodeResponse> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    created.complete(geocodeService.resolveCity(city));
+                } catch (Throwable e) {
+                    created.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, created);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
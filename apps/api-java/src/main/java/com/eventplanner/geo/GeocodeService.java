@@ -5,7 +5,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 
@@ -17,6 +18,7 @@ import java.time.Duration;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -24,6 +26,8 @@ import java.util.Map;
 public class GeocodeService {
 
     private final ObjectMapper objectMapper;
+    private final NominatimRateLimiter rateLimiter;
+    private final GeocodeCacheStore cacheStore;
     private final HttpClient httpClient = HttpClient.newBuilder()
             .connectTimeout(Duration.ofSeconds(5))
             .build();
@@ -37,10 +41,48 @@ public class GeocodeService {
     @Value("${eventplanner.nominatim.countryCodes:}")
     private String nominatimCountryCodes;
 
-    @Cacheable(value = "geocodeCity", key = "#city != null ? #city.toLowerCase() : 'null'", unless = "#result == null")
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmCache() {
+        cacheStore.warmUp(nominatimCountryCodes);
+    }
+
+    /**
+     * Coordinates for {@code city}, or null when it cannot be resolved. Answers (including "no
+     * result") are served from {@link GeocodeCacheStore}; only misses reach Nominatim.
+     */
     public GeocodeResponse geocodeCity(String city) {
+        try {
+            return resolveCity(city);
+        } catch (IllegalStateException unavailable) {
+            return null;
+        }
+    }
+
+    /**
+     * Like {@link #geocodeCity}, but null only means Nominatim has no result; a lookup that
+     * could not be answered (timeouts, 429/5xx after retries) throws {@link IllegalStateException}.
+     */
+    public GeocodeResponse resolveCity(String city) {
         if (city == null || city.isBlank()) return null;
 
+        Optional<GeocodeCacheEntry> cached = cacheStore.find(city, nominatimCountryCodes);
+        if (cached.isPresent()) {
+            GeocodeCacheEntry entry = cached.get();
+            return entry.isNegative() ? null
+                    : GeocodeResponse.builder().city(city).lat(entry.getLat()).lon(entry.getLon()).build();
+        }
+        Lookup lookup = fetchFromNominatim(city);
+        // Transient failures (timeouts, 429/5xx after retries) are not cached
+        if (!lookup.definitive()) {
+            throw new IllegalStateException("Geocoding unavailable for city '" + city + "'");
+        }
+        cacheStore.put(city, nominatimCountryCodes, lookup.response());
+        return lookup.response();
+    }
+
+    private record Lookup(GeocodeResponse response, boolean definitive) {}
+
+    private Lookup fetchFromNominatim(String city) {
         // Build query with optional country bias
         StringBuilder url = new StringBuilder("https://nominatim.openstreetmap.org/search?format=json&limit=1&q=")
                 .append(java.net.URLEncoder.encode(city, StandardCharsets.UTF_8));
@@ -56,6 +98,10 @@ public class GeocodeService {
 
         while (attempts < maxAttempts) {
             attempts++;
+            if (!rateLimiter.tryAcquire(Duration.ofSeconds(10))) {
+                log.warn("Nominatim rate limit wait exceeded for city '{}'", city);
+                break;
+            }
             try {
                 HttpRequest req = HttpRequest.newBuilder()
                         .uri(URI.create(url.toString()))
@@ -74,11 +120,11 @@ public class GeocodeService {
                         Double lat = first.get("lat") != null ? Double.valueOf(first.get("lat").toString()) : null;
                         Double lon = first.get("lon") != null ? Double.valueOf(first.get("lon").toString()) : null;
                         if (lat != null && lon != null) {
-                            return GeocodeResponse.builder().city(city).lat(lat).lon(lon).build();
+                            return new Lookup(GeocodeResponse.builder().city(city).lat(lat).lon(lon).build(), true);
                         }
                     }
                     // No results
-                    return null;
+                    return new Lookup(null, true);
                 }
 
                 // Retry on 429/5xx
@@ -109,6 +155,6 @@ public class GeocodeService {
         if (lastError != null) {
             log.warn("Geocoding failed for city '{}': {}", city, lastError.toString());
         }
-        return null;
+        return new Lookup(null, false);
     }
 }
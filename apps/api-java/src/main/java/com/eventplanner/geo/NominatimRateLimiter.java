@@ -0,0 +1,64 @@
+package com.eventplanner.geo;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide token bucket for outbound Nominatim requests. The public instance allows an
+ * absolute maximum of one request per second, which is the default here.
+ */
+@Component
+public class NominatimRateLimiter {
+    private final double permitsPerNano;
+    private final double burst;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public NominatimRateLimiter(@Value("${eventplanner.nominatim.requests-per-second:1}") double requestsPerSecond,
+                                @Value("${eventplanner.nominatim.burst:1}") int burst) {
+        if (requestsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Nominatim rate limit must be positive");
+        }
+        this.permitsPerNano = requestsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Waits up to {@code timeout} for a permit. Returns false on timeout or interrupt (the
+     * interrupt flag is restored) so callers can give up instead of queueing indefinitely.
+     */
+    public boolean tryAcquire(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return true;
+                }
+                waitNanos = (long) Math.ceil((1 - tokens) / permitsPerNano);
+            }
+            if (System.nanoTime() + waitNanos > deadline) {
+                return false;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+    }
+}
@@ -1,11 +1,11 @@
 package com.eventplanner.planning;
 
-import com.eventplanner.planning.dto.AgendaDayDto;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/events/{eventId}/agenda")
 public class AgendaController {
@@ -16,10 +16,30 @@ public class AgendaController {
         this.agendaService = agendaService;
     }
 
+    // Body is the stored List<AgendaDayDto> JSON, written as-is
     @GetMapping
-    public ResponseEntity<List<AgendaDayDto>> getAgenda(@PathVariable Long eventId,
-                                                        @RequestParam(required = false, defaultValue = "day,track") String groupBy) {
+    public ResponseEntity<String> getAgenda(@PathVariable Long eventId,
+                                            @RequestParam(required = false, defaultValue = "day,track") String groupBy,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         // Currently groups by day then track; groupBy reserved for future extensions
-        return ResponseEntity.ok(agendaService.getAgenda(eventId));
+        AgendaProjection agenda = agendaService.getAgenda(eventId);
+        String etag = agenda.etag();
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(agenda.getBody());
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
     }
 }
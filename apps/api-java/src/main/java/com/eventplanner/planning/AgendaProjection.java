@@ -0,0 +1,51 @@
+package com.eventplanner.planning;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Materialized agenda for one event: the serialized {@code List<AgendaDayDto>} plus a version
+ * that changes on every update and backs the agenda ETag.
+ */
+@Entity
+@Table(name = "agenda_projections")
+public class AgendaProjection {
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "body", nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt = OffsetDateTime.now();
+
+    // Default constructor for JPA
+    public AgendaProjection() {}
+
+    public AgendaProjection(Long eventId, String body) {
+        this.eventId = eventId;
+        this.body = body;
+        this.version = 1;
+    }
+
+    /** Replaces the body and bumps the version. */
+    public void update(String body) {
+        this.body = body;
+        this.version++;
+        this.updatedAt = OffsetDateTime.now();
+    }
+
+    public String etag() {
+        return "\"" + eventId + "-" + version + "\"";
+    }
+
+    public Long getEventId() { return eventId; }
+    public long getVersion() { return version; }
+    public String getBody() { return body; }
+    public OffsetDateTime getUpdatedAt() { return updatedAt; }
+}
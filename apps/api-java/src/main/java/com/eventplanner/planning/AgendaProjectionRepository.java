@@ -0,0 +1,26 @@
+package com.eventplanner.planning;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AgendaProjectionRepository extends JpaRepository<AgendaProjection, Long> {
+
+    // Serializes concurrent incremental updates to the same event's agenda
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM AgendaProjection a WHERE a.eventId = :eventId")
+    Optional<AgendaProjection> findForUpdate(@Param("eventId") Long eventId);
+
+    // First build; a concurrent builder for the same event waits here and then keeps the existing row
+    @Modifying
+    @Query(value = "INSERT INTO agenda_projections (event_id, version, body, updated_at) " +
+            "VALUES (:eventId, 1, :body, NOW()) ON CONFLICT (event_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("eventId") Long eventId, @Param("body") String body);
+}
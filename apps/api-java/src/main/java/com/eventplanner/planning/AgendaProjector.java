@@ -0,0 +1,142 @@
+package com.eventplanner.planning;
+
+import com.eventplanner.planning.dto.AgendaDayDto;
+import com.eventplanner.planning.dto.AgendaTrackDto;
+import com.eventplanner.planning.dto.SessionDto;
+import com.eventplanner.planning.mapper.SessionMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Maintains {@link AgendaProjection}s. Session writes patch the stored agenda in the same
+ * transaction (one session in, one out) instead of reloading every session of the event; the
+ * projection row is locked while patching so concurrent edits cannot lose updates.
+ */
+@Component
+public class AgendaProjector {
+    private static final TypeReference<List<AgendaDayDto>> AGENDA_TYPE = new TypeReference<>() {};
+
+    private final AgendaProjectionRepository projectionRepository;
+    private final SessionRepository sessionRepository;
+    private final ObjectMapper objectMapper;
+
+    public AgendaProjector(AgendaProjectionRepository projectionRepository,
+                           SessionRepository sessionRepository,
+                           ObjectMapper objectMapper) {
+        this.projectionRepository = projectionRepository;
+        this.sessionRepository = sessionRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /** Current projection, building it from the sessions table the first time. */
+    @Transactional
+    public AgendaProjection getOrBuild(Long eventId) {
+        return projectionRepository.findById(eventId).orElseGet(() -> {
+            projectionRepository.insertIfAbsent(eventId, buildBody(eventId));
+            return projectionRepository.findById(eventId)
+                    .orElseThrow(() -> new IllegalStateException("Agenda projection missing for event " + eventId));
+        });
+    }
+
+    @Transactional
+    public void upsertSession(Long eventId, Session session) {
+        SessionDto dto = SessionMapper.toDto(session);
+        patch(eventId, sessions -> {
+            sessions.removeIf(s -> s.id().equals(dto.id()));
+            sessions.add(dto);
+        });
+    }
+
+    @Transactional
+    public void removeSession(Long eventId, Long sessionId) {
+        patch(eventId, sessions -> sessions.removeIf(s -> s.id().equals(sessionId)));
+    }
+
+    /** A deleted speaker disappears from every session of the event (session_speakers cascades). */
+    @Transactional
+    public void removeSpeaker(Long eventId, Long speakerId) {
+        patch(eventId, sessions -> sessions.replaceAll(s -> {
+            if (s.speakerIds() == null || !s.speakerIds().contains(speakerId)) return s;
+            Set<Long> speakerIds = new HashSet<>(s.speakerIds());
+            speakerIds.remove(speakerId);
+            return new SessionDto(s.id(), s.eventId(), s.title(), s.description(), s.startTime(), s.endTime(),
+                    s.room(), s.track(), s.capacity(), speakerIds);
+        }));
+    }
+
+    private void patch(Long eventId, Consumer<List<SessionDto>> change) {
+        AgendaProjection projection = projectionRepository.findForUpdate(eventId).orElse(null);
+        if (projection == null) {
+            // Built from this transaction's view, which already includes the change being applied
+            projectionRepository.insertIfAbsent(eventId, buildBody(eventId));
+            projection = projectionRepository.findForUpdate(eventId)
+                    .orElseThrow(() -> new IllegalStateException("Agenda projection missing for event " + eventId));
+        }
+        List<SessionDto> sessions = new ArrayList<>();
+        read(projection.getBody()).forEach(day -> day.tracks().forEach(track -> sessions.addAll(track.sessions())));
+        change.accept(sessions);
+        projection.update(write(group(sessions)));
+    }
+
+    private String buildBody(Long eventId) {
+        List<SessionDto> sessions = sessionRepository.findByEventIdWithSpeakers(eventId).stream()
+                .map(SessionMapper::toDto)
+                .toList();
+        return write(group(sessions));
+    }
+
+    /** Groups by UTC day, then track ("General" when unset), in start-time order. */
+    static List<AgendaDayDto> group(List<SessionDto> sessions) {
+        List<SessionDto> sorted = new ArrayList<>(sessions);
+        sorted.sort(Comparator.comparing(SessionDto::startTime).thenComparing(SessionDto::id));
+
+        Map<LocalDate, Map<String, List<SessionDto>>> grouped = new LinkedHashMap<>();
+        for (SessionDto s : sorted) {
+            LocalDate day = s.startTime().atZoneSameInstant(ZoneOffset.UTC).toLocalDate();
+            String track = s.track() == null ? "General" : s.track();
+            grouped
+                .computeIfAbsent(day, d -> new LinkedHashMap<>())
+                .computeIfAbsent(track, t -> new ArrayList<>())
+                .add(s);
+        }
+
+        // Input is already in start-time order, so each track list is too
+        List<AgendaDayDto> days = new ArrayList<>(grouped.size());
+        for (Map.Entry<LocalDate, Map<String, List<SessionDto>>> dayEntry : grouped.entrySet()) {
+            List<AgendaTrackDto> tracks = new ArrayList<>(dayEntry.getValue().size());
+            dayEntry.getValue().forEach((track, list) -> tracks.add(new AgendaTrackDto(track, list)));
+            days.add(new AgendaDayDto(dayEntry.getKey(), tracks));
+        }
+        return days;
+    }
+
+    private List<AgendaDayDto> read(String body) {
+        try {
+            return objectMapper.readValue(body, AGENDA_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt agenda projection", e);
+        }
+    }
+
+    private String write(List<AgendaDayDto> days) {
+        try {
+            return objectMapper.writeValueAsString(days);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize agenda", e);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import java.util.Set;
 
 @Entity
 @Table(name = "sessions")
+@NamedEntityGraph(name = "Session.speakers", attributeNodes = @NamedAttributeNode("speakers"))
 public class Session {
 
     @Id
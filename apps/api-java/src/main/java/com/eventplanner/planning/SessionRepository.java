@@ -1,18 +1,33 @@
 package com.eventplanner.planning;
 
 import com.eventplanner.events.Event;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface SessionRepository extends JpaRepository<Session, Long> {
+    @EntityGraph("Session.speakers")
     List<Session> findByEvent(Event event);
+    @EntityGraph("Session.speakers")
     List<Session> findByEventAndStartTimeBetween(Event event, OffsetDateTime start, OffsetDateTime end);
+    // Paged variants load plain rows; a collection fetch join would make Hibernate paginate in memory
     Page<Session> findByEvent(Event event, Pageable pageable);
     Page<Session> findByEventAndStartTimeBetween(Event event, OffsetDateTime start, OffsetDateTime end, Pageable pageable);
+
+    // Full agenda build: speakers fetched in the same query instead of one lazy load per session
+    @Query("SELECT DISTINCT s FROM Session s LEFT JOIN FETCH s.speakers WHERE s.event.id = :eventId")
+    List<Session> findByEventIdWithSpeakers(@Param("eventId") Long eventId);
+
+    // Initializes speakers on sessions already loaded in this persistence context (one query per page)
+    @Query("SELECT DISTINCT s FROM Session s LEFT JOIN FETCH s.speakers WHERE s.id IN :ids")
+    List<Session> fetchSpeakers(@Param("ids") Collection<Long> ids);
 }
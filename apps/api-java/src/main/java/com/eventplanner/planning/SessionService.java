@@ -1,8 +1,8 @@
 package com.eventplanner.planning;
 
 import com.eventplanner.events.Event;
+import com.eventplanner.common.EventCacheTags;
 import com.eventplanner.events.EventRepository;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,13 +19,19 @@ public class SessionService {
     private final SessionRepository sessionRepository;
     private final SpeakerRepository speakerRepository;
     private final EventRepository eventRepository;
+    private final EventCacheTags eventCacheTags;
+    private final AgendaProjector agendaProjector;
 
     public SessionService(SessionRepository sessionRepository,
                           SpeakerRepository speakerRepository,
-                          EventRepository eventRepository) {
+                          EventRepository eventRepository,
+                          EventCacheTags eventCacheTags,
+                          AgendaProjector agendaProjector) {
         this.sessionRepository = sessionRepository;
         this.speakerRepository = speakerRepository;
         this.eventRepository = eventRepository;
+        this.eventCacheTags = eventCacheTags;
+        this.agendaProjector = agendaProjector;
     }
 
     private Event getEventOrThrow(Long eventId) {
@@ -33,24 +39,27 @@ public class SessionService {
                 .orElseThrow(() -> new IllegalArgumentException("Event not found: " + eventId));
     }
 
-    @Cacheable(value = "sessions", key = "#eventId + ':list'")
+    @Cacheable(value = "sessions", key = "@eventCacheTags.namespace(#eventId) + ':list'")
     public List<Session> list(Long eventId) {
         return sessionRepository.findByEvent(getEventOrThrow(eventId));
     }
 
-    @Cacheable(value = "sessions", key = "#eventId + ':page:' + #pageable")
+    // Only the first few pages are worth caching; compact key instead of Pageable.toString()
+    @Cacheable(value = "sessions", key = "@eventCacheTags.namespace(#eventId) + ':page:' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort",
+            condition = "#pageable.pageNumber < 5")
     public Page<Session> list(Long eventId, Pageable pageable) {
-        return sessionRepository.findByEvent(getEventOrThrow(eventId), pageable);
+        return withSpeakers(sessionRepository.findByEvent(getEventOrThrow(eventId), pageable));
     }
 
-    @CacheEvict(value = "sessions", allEntries = true)
     public Session create(Long eventId, Session payload) {
         Event event = getEventOrThrow(eventId);
         payload.setEvent(event);
-        return sessionRepository.save(payload);
+        eventCacheTags.invalidate(eventId);
+        Session saved = sessionRepository.save(payload);
+        agendaProjector.upsertSession(eventId, saved);
+        return saved;
     }
 
-    @CacheEvict(value = "sessions", allEntries = true)
     public Session update(Long eventId, Long id, Session payload) {
         Session existing = sessionRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Session not found: " + id));
@@ -64,30 +73,34 @@ public class SessionService {
         existing.setRoom(payload.getRoom());
         existing.setTrack(payload.getTrack());
         existing.setCapacity(payload.getCapacity());
-        return sessionRepository.save(existing);
+        eventCacheTags.invalidate(eventId);
+        Session saved = sessionRepository.save(existing);
+        agendaProjector.upsertSession(eventId, saved);
+        return saved;
     }
 
-    @CacheEvict(value = "sessions", allEntries = true)
     public void delete(Long eventId, Long id) {
         Session existing = sessionRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Session not found: " + id));
         if (!existing.getEvent().getId().equals(eventId)) {
             throw new IllegalArgumentException("Session does not belong to event");
         }
+        eventCacheTags.invalidate(eventId);
         sessionRepository.delete(existing);
+        agendaProjector.removeSession(eventId, id);
     }
 
-    @Cacheable(value = "sessions", key = "#eventId + ':between:' + #start + ':' + #end")
+    @Cacheable(value = "sessions", key = "@eventCacheTags.namespace(#eventId) + ':between:' + #start + ':' + #end")
     public List<Session> listBetween(Long eventId, OffsetDateTime start, OffsetDateTime end) {
         return sessionRepository.findByEventAndStartTimeBetween(getEventOrThrow(eventId), start, end);
     }
 
-    @Cacheable(value = "sessions", key = "#eventId + ':between:' + #start + ':' + #end + ':page:' + #pageable")
+    @Cacheable(value = "sessions", key = "@eventCacheTags.namespace(#eventId) + ':between:' + #start + ':' + #end + ':page:' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort",
+            condition = "#pageable.pageNumber < 5")
     public Page<Session> listBetween(Long eventId, OffsetDateTime start, OffsetDateTime end, Pageable pageable) {
-        return sessionRepository.findByEventAndStartTimeBetween(getEventOrThrow(eventId), start, end, pageable);
+        return withSpeakers(sessionRepository.findByEventAndStartTimeBetween(getEventOrThrow(eventId), start, end, pageable));
     }
 
-    @CacheEvict(value = "sessions", allEntries = true)
     public Session addSpeaker(Long eventId, Long sessionId, Long speakerId) {
         Session session = sessionRepository.findById(sessionId)
                 .orElseThrow(() -> new IllegalArgumentException("Session not found: " + sessionId));
@@ -102,10 +115,12 @@ public class SessionService {
         Set<Speaker> speakers = session.getSpeakers();
         speakers.add(speaker);
         session.setSpeakers(speakers);
-        return sessionRepository.save(session);
+        eventCacheTags.invalidate(eventId);
+        Session saved = sessionRepository.save(session);
+        agendaProjector.upsertSession(eventId, saved);
+        return saved;
     }
 
-    @CacheEvict(value = "sessions", allEntries = true)
     public Session removeSpeaker(Long eventId, Long sessionId, Long speakerId) {
         Session session = sessionRepository.findById(sessionId)
                 .orElseThrow(() -> new IllegalArgumentException("Session not found: " + sessionId));
@@ -120,6 +135,20 @@ public class SessionService {
         Set<Speaker> speakers = session.getSpeakers();
         speakers.removeIf(s -> s.getId().equals(speakerId));
         session.setSpeakers(speakers);
-        return sessionRepository.save(session);
+        eventCacheTags.invalidate(eventId);
+        Session saved = sessionRepository.save(session);
+        agendaProjector.upsertSession(eventId, saved);
+        return saved;
+    }
+
+    /**
+     * Loads the speakers of a page in one extra query; the fetched rows are the same managed
+     * instances, so the page content comes back initialized (and safe to cache and map later).
+     */
+    private Page<Session> withSpeakers(Page<Session> page) {
+        if (page.hasContent()) {
+            sessionRepository.fetchSpeakers(page.map(Session::getId).getContent());
+        }
+        return page;
     }
 }
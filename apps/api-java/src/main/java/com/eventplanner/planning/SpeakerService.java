@@ -1,6 +1,7 @@
 package com.eventplanner.planning;
 
 import com.eventplanner.events.Event;
+import com.eventplanner.common.EventCacheTags;
 import com.eventplanner.events.EventRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,10 +15,15 @@ import org.springframework.data.domain.Pageable;
 public class SpeakerService {
     private final SpeakerRepository speakerRepository;
     private final EventRepository eventRepository;
+    private final EventCacheTags eventCacheTags;
+    private final AgendaProjector agendaProjector;
 
-    public SpeakerService(SpeakerRepository speakerRepository, EventRepository eventRepository) {
+    public SpeakerService(SpeakerRepository speakerRepository, EventRepository eventRepository,
+                          EventCacheTags eventCacheTags, AgendaProjector agendaProjector) {
         this.speakerRepository = speakerRepository;
         this.eventRepository = eventRepository;
+        this.eventCacheTags = eventCacheTags;
+        this.agendaProjector = agendaProjector;
     }
 
     private Event getEventOrThrow(Long eventId) {
@@ -49,6 +55,8 @@ public class SpeakerService {
         existing.setTitle(payload.getTitle());
         existing.setBio(payload.getBio());
         existing.setPhotoUrl(payload.getPhotoUrl());
+        // Speaker details are embedded in cached sessions
+        eventCacheTags.invalidate(eventId);
         return speakerRepository.save(existing);
     }
 
@@ -58,6 +66,8 @@ public class SpeakerService {
         if (!existing.getEvent().getId().equals(eventId)) {
             throw new IllegalArgumentException("Speaker does not belong to event");
         }
+        eventCacheTags.invalidate(eventId);
         speakerRepository.delete(existing);
+        agendaProjector.removeSpeaker(eventId, id);
     }
 }
@@ -1,13 +1,25 @@
 package com.eventplanner.registration;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface RegistrationRepository extends JpaRepository<Registration, Long> {
     long countByEventId(Long eventId);
     List<Registration> findByEventId(Long eventId);
     List<Registration> findByEventIdAndType(Long eventId, RegistrationType type);
+
+    // Forward-only cursor for exports; must be consumed inside a transaction and closed
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT r FROM Registration r WHERE r.eventId = :eventId ORDER BY r.id")
+    Stream<Registration> streamByEventId(@Param("eventId") Long eventId);
 }
@@ -0,0 +1,20 @@
+package com.eventplanner.registration.export;
+
+import java.util.Locale;
+
+public enum ExportDataset {
+    REGISTRATIONS,
+    PAYMENTS,
+    RSVPS,
+    ATTENDEES;
+
+    public String getFileName() { return name().toLowerCase(Locale.ROOT); }
+
+    public static ExportDataset parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown export: " + value);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.eventplanner.registration.export;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/events/{eventId}/exports")
+@CrossOrigin(
+        origins = {"http://localhost:3000", "http://localhost:3001", "http://127.0.0.1:3000", "http://127.0.0.1:3001"},
+        allowCredentials = "true"
+)
+public class RegistrationExportController {
+    private final RegistrationExportService service;
+
+    public RegistrationExportController(RegistrationExportService service) {
+        this.service = service;
+    }
+
+    /**
+     * Downloads {@code registrations}, {@code payments}, {@code rsvps} or {@code attendees} as CSV
+     * or NDJSON, optionally gzipped ({@code .gz} file). The body is written while rows are read.
+     */
+    @GetMapping("/{dataset}")
+    public ResponseEntity<?> export(
+            @PathVariable("eventId") Long eventId,
+            @PathVariable("dataset") String dataset,
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            WebRequest request
+    ) {
+        ExportDataset ds = ExportDataset.parse(dataset);
+        ExportFormat fmt = ExportFormat.parse(format);
+        RegistrationExportService.Policy policy = service.policy(eventId);
+        if (!policy.allowed()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("message", "Data export is disabled for this event"));
+        }
+        RegistrationExportService.ExportSlot slot = service.tryBeginExport();
+        if (slot == null) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(Map.of("message", "Another export is running, try again shortly"));
+        }
+        // The body may never run (executor rejected it, request timed out or failed first), so the
+        // slot is also released when the async request completes, however it ends
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(slot, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                slot.close();
+            }
+        });
+
+        StreamingResponseBody body = out -> {
+            try (slot) {
+                if (gzip) {
+                    GZIPOutputStream zipped = new GZIPOutputStream(out, 1 << 16);
+                    service.write(eventId, ds, fmt, policy.includePersonalData(), zipped);
+                    zipped.finish();
+                } else {
+                    service.write(eventId, ds, fmt, policy.includePersonalData(), out);
+                }
+            }
+        };
+        String fileName = "event-" + eventId + "-" + ds.getFileName() + "." + fmt.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType(fmt.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+}
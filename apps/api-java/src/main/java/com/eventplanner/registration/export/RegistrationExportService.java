@@ -0,0 +1,200 @@
+package com.eventplanner.registration.export;
+
+import com.eventplanner.attendees.Attendee;
+import com.eventplanner.attendees.AttendeeRepository;
+import com.eventplanner.events.EventRepository;
+import com.eventplanner.registration.Registration;
+import com.eventplanner.registration.RegistrationRepository;
+import com.eventplanner.registration.payments.Payment;
+import com.eventplanner.registration.payments.PaymentRepository;
+import com.eventplanner.registration.rsvp.Rsvp;
+import com.eventplanner.registration.rsvp.RsvpRepository;
+import com.eventplanner.registration.settings.RegistrationSettingsRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Row-by-row exports of an event's registrations, payments, RSVPs and attendees. Rows come from
+ * a forward-only JDBC cursor and are written and detached one at a time, so memory use does not
+ * depend on the size of the event. Each running export holds a pooled connection for its whole
+ * duration, which is why only {@code max-concurrent} may run at once.
+ */
+@Service
+@Slf4j
+public class RegistrationExportService {
+    private final RegistrationRepository registrations;
+    private final PaymentRepository payments;
+    private final RsvpRepository rsvps;
+    private final AttendeeRepository attendees;
+    private final RegistrationSettingsRepository settings;
+    private final EventRepository events;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+    private final Semaphore running;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public RegistrationExportService(RegistrationRepository registrations,
+                                     PaymentRepository payments,
+                                     RsvpRepository rsvps,
+                                     AttendeeRepository attendees,
+                                     RegistrationSettingsRepository settings,
+                                     EventRepository events,
+                                     ObjectMapper objectMapper,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${eventplanner.export.max-concurrent:1}") int maxConcurrent) {
+        this.registrations = registrations;
+        this.payments = payments;
+        this.rsvps = rsvps;
+        this.attendees = attendees;
+        this.settings = settings;
+        this.events = events;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.running = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    /** What the event's registration settings allow; events without settings use the defaults. */
+    public record Policy(boolean allowed, boolean includePersonalData) {}
+
+    @Transactional(readOnly = true)
+    public Policy policy(Long eventId) {
+        events.findById(eventId).orElseThrow(() -> new NoSuchElementException("Event not found"));
+        return settings.findByEventId(eventId)
+                .map(s -> new Policy(!Boolean.FALSE.equals(s.getAllowDataExport()),
+                        Boolean.TRUE.equals(s.getExportIncludesPersonalData())))
+                .orElse(new Policy(true, false));
+    }
+
+    /** Reserves an export slot, or returns null when {@code max-concurrent} exports are already running. */
+    public ExportSlot tryBeginExport() {
+        return running.tryAcquire() ? new ExportSlot() : null;
+    }
+
+    /** A reserved export slot. Closing it more than once releases the slot only once. */
+    public final class ExportSlot implements AutoCloseable {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                running.release();
+            }
+        }
+    }
+
+    /** Streams the dataset to {@code out}; personal columns are left out unless {@code includePersonalData}. */
+    public void write(Long eventId, ExportDataset dataset, ExportFormat format, boolean includePersonalData,
+                      OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        Long rows;
+        try {
+            rows = readOnlyTx.execute(s -> switch (dataset) {
+                case REGISTRATIONS -> copy(registrations.streamByEventId(eventId),
+                        registrationColumns(includePersonalData), r -> registrationRow(r, includePersonalData), format, out);
+                case PAYMENTS -> copy(payments.streamByEventId(eventId),
+                        paymentColumns(includePersonalData), p -> paymentRow(p, includePersonalData), format, out);
+                case RSVPS -> copy(rsvps.streamByEventId(eventId),
+                        rsvpColumns(includePersonalData), r -> rsvpRow(r, includePersonalData), format, out);
+                case ATTENDEES -> copy(attendees.streamByEventId(eventId),
+                        attendeeColumns(includePersonalData), a -> attendeeRow(a, includePersonalData), format, out);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Exported {} {} rows for event {} in {} ms", rows, dataset.getFileName(), eventId,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private <T> long copy(Stream<T> source, List<String> columns, Function<T, Object[]> toRow,
+                          ExportFormat format, OutputStream out) {
+        try (Stream<T> rows = source) {
+            RowWriter writer = RowWriter.open(format, out, objectMapper, columns);
+            long count = 0;
+            for (T row : (Iterable<T>) rows::iterator) {
+                writer.write(toRow.apply(row));
+                // Drop the row from the persistence context so it does not grow with the export
+                em.detach(row);
+                count++;
+            }
+            writer.finish();
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> registrationColumns(boolean personal) {
+        return columns(List.of("id", "type", "createdAt"), personal, List.of("data"));
+    }
+
+    private static Object[] registrationRow(Registration r, boolean personal) {
+        return personal
+                ? new Object[]{r.getId(), r.getType(), r.getCreatedAt(), r.getDataJson()}
+                : new Object[]{r.getId(), r.getType(), r.getCreatedAt()};
+    }
+
+    private static List<String> paymentColumns(boolean personal) {
+        return columns(List.of("id", "ticketId", "ticketName", "stripePaymentIntentId", "amountInMinor",
+                "currency", "status", "createdAt"), personal, List.of("metadata"));
+    }
+
+    private static Object[] paymentRow(Payment p, boolean personal) {
+        Object[] row = {p.getId(), p.getTicket().getId(), p.getTicket().getName(), p.getStripePaymentIntentId(),
+                p.getAmountInMinor(), p.getCurrency(), p.getStatus(), p.getCreatedAt()};
+        return personal ? append(row, p.getMetadataJson()) : row;
+    }
+
+    private static List<String> rsvpColumns(boolean personal) {
+        return columns(List.of("id", "status", "plusOne", "createdAt", "updatedAt"), personal,
+                List.of("name", "email", "answers"));
+    }
+
+    private static Object[] rsvpRow(Rsvp r, boolean personal) {
+        Object[] row = {r.getId(), r.getStatus(), r.getPlusOne(), r.getCreatedAt(), r.getUpdatedAt()};
+        return personal ? append(row, r.getName(), r.getEmail(), r.getAnswersJson()) : row;
+    }
+
+    private static List<String> attendeeColumns(boolean personal) {
+        return columns(List.of("id", "status", "createdAt"), personal, List.of("name", "email", "phone", "answers"));
+    }
+
+    private static Object[] attendeeRow(Attendee a, boolean personal) {
+        Object[] row = {a.getId(), a.getStatus(), a.getCreatedAt()};
+        return personal ? append(row, a.getName(), a.getEmail(), a.getPhone(), a.getAnswersJson()) : row;
+    }
+
+    private static List<String> columns(List<String> base, boolean personal, List<String> personalColumns) {
+        if (!personal) return base;
+        List<String> all = new ArrayList<>(base);
+        all.addAll(personalColumns);
+        return all;
+    }
+
+    private static Object[] append(Object[] row, Object... extra) {
+        Object[] all = new Object[row.length + extra.length];
+        System.arraycopy(row, 0, all, 0, row.length);
+        System.arraycopy(extra, 0, all, row.length, extra.length);
+        return all;
+    }
+}
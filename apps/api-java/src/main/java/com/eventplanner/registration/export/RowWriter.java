@@ -0,0 +1,108 @@
+package com.eventplanner.registration.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes export rows straight to the response as they are read; nothing is buffered beyond the
+ * underlying writer's buffer. {@link #finish()} flushes but leaves the stream open.
+ */
+abstract class RowWriter {
+    protected final List<String> columns;
+
+    RowWriter(List<String> columns) {
+        this.columns = columns;
+    }
+
+    static RowWriter open(ExportFormat format, OutputStream out, ObjectMapper objectMapper, List<String> columns)
+            throws IOException {
+        return format == ExportFormat.NDJSON
+                ? new Ndjson(out, objectMapper, columns)
+                : new Csv(out, columns);
+    }
+
+    /** One value per column, in column order. */
+    abstract void write(Object[] values) throws IOException;
+
+    abstract void finish() throws IOException;
+
+    static final class Csv extends RowWriter {
+        private final Writer writer;
+
+        Csv(OutputStream out, List<String> columns) throws IOException {
+            super(columns);
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+            writeLine(columns.toArray());
+        }
+
+        @Override
+        void write(Object[] values) throws IOException {
+            writeLine(values);
+        }
+
+        @Override
+        void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void writeLine(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) writer.write(',');
+                writeCell(values[i]);
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeCell(Object value) throws IOException {
+            if (value == null) return;
+            String text = value.toString();
+            // Spreadsheet apps evaluate cells starting with these as formulas
+            if (!(value instanceof Number) && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    static final class Ndjson extends RowWriter {
+        private final JsonGenerator generator;
+
+        Ndjson(OutputStream out, ObjectMapper objectMapper, List<String> columns) throws IOException {
+            super(columns);
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Rows are separated by the newline written after each one, not the default space
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        void write(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(columns.get(i));
+                generator.writeObject(values[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        void finish() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -1,11 +1,42 @@
 package com.eventplanner.registration.payments;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
+    // toDto reads the ticket name, so list queries join it instead of loading one ticket per row
+    @EntityGraph(attributePaths = "ticket")
     List<Payment> findByEventIdOrderByCreatedAtDesc(Long eventId);
+    @EntityGraph(attributePaths = "ticket")
     List<Payment> findByTicketIdOrderByCreatedAtDesc(Long ticketId);
+    @EntityGraph(attributePaths = "ticket")
     List<Payment> findByStatusOrderByCreatedAtDesc(String status);
+
+    // Forward-only cursor for exports; must be consumed inside a transaction and closed
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT p FROM Payment p JOIN FETCH p.ticket WHERE p.event.id = :eventId ORDER BY p.createdAt DESC, p.id DESC")
+    Stream<Payment> streamByEventId(@Param("eventId") Long eventId);
+
+    boolean existsByStripePaymentIntentId(String stripePaymentIntentId);
+
+    // Single-statement status transition; returns 0 when the payment is not in one of the allowed states
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = :status, p.updatedAt = :now " +
+            "WHERE p.stripePaymentIntentId = :intentId AND p.status IN :fromStatuses")
+    int transitionStatus(@Param("intentId") String intentId,
+                         @Param("fromStatuses") Collection<String> fromStatuses,
+                         @Param("status") String status,
+                         @Param("now") OffsetDateTime now);
 }
@@ -3,6 +3,8 @@ package com.eventplanner.registration.payments;
 import com.eventplanner.events.Event;
 import com.eventplanner.events.EventRepository;
 import com.eventplanner.registration.tickets.Ticket;
+import com.eventplanner.registration.tickets.TicketHold;
+import com.eventplanner.registration.tickets.TicketInventory;
 import com.eventplanner.registration.tickets.TicketRepository;
 import com.eventplanner.payments.PaymentSettingsService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -10,6 +12,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +26,14 @@ public class PaymentService {
     private final TicketRepository tickets;
     private final ObjectMapper objectMapper;
     private final PaymentSettingsService paymentSettingsService;
+    private final TicketInventory inventory;
+
+    // Statuses each outcome may replace; SUCCEEDED and CANCELLED are terminal
+    private static final Map<String, List<String>> ALLOWED_FROM = Map.of(
+            "PROCESSING", List.of("PENDING"),
+            "SUCCEEDED", List.of("PENDING", "PROCESSING", "FAILED"),
+            "FAILED", List.of("PENDING", "PROCESSING"),
+            "CANCELLED", List.of("PENDING", "PROCESSING", "FAILED"));
 
     @Value("${stripe.secret.key:}")
     private String stripeSecretKey;
@@ -30,12 +41,13 @@ public class PaymentService {
     @Value("${stripe.webhook.secret:}")
     private String stripeWebhookSecret;
 
-    public PaymentService(PaymentRepository repo, EventRepository events, TicketRepository tickets, ObjectMapper objectMapper, PaymentSettingsService paymentSettingsService) {
+    public PaymentService(PaymentRepository repo, EventRepository events, TicketRepository tickets, ObjectMapper objectMapper, PaymentSettingsService paymentSettingsService, TicketInventory inventory) {
         this.repo = repo;
         this.events = events;
         this.tickets = tickets;
         this.objectMapper = objectMapper;
         this.paymentSettingsService = paymentSettingsService;
+        this.inventory = inventory;
     }
 
     @Transactional(readOnly = true)
@@ -52,7 +64,10 @@ public class PaymentService {
         return toDto(p);
     }
 
-    @Transactional
+    /**
+     * Not transactional on purpose: the stock hold commits on its own before the Stripe call, so
+     * the ticket row is never locked (nor a pooled connection held) across the network round trip.
+     */
     public PaymentDto createPaymentIntent(Long eventId, Long ticketId, Integer quantity, Map<String, Object> metadata) {
         Event e = events.findById(eventId).orElseThrow(() -> new NoSuchElementException("Event not found"));
         Ticket t = tickets.findById(ticketId).orElseThrow(() -> new NoSuchElementException("Ticket not found"));
@@ -64,6 +79,9 @@ public class PaymentService {
         if (t.isFree()) {
             throw new IllegalArgumentException("Cannot create payment for free ticket");
         }
+        if (quantity == null || quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
 
         int subtotal = t.getPriceInMinor() * quantity;
         Integer rate = paymentSettingsService.get(eventId).getTaxRatePercent();
@@ -72,6 +90,7 @@ public class PaymentService {
         int tax = (int) Math.round(subtotal * (rate / 100.0));
         int totalAmount = subtotal + tax;
 
+        TicketHold hold = inventory.hold(t, quantity);
         try {
             // Create Stripe Payment Intent
             com.stripe.Stripe.apiKey = stripeSecretKey;
@@ -88,6 +107,7 @@ public class PaymentService {
                     .putMetadata("taxAmountInMinor", String.valueOf(tax))
                     .putMetadata("taxRatePercent", String.valueOf(rate))
                     .putMetadata("totalInMinor", String.valueOf(totalAmount))
+                    .putMetadata("ticketHoldId", hold.getId().toString())
                     .build()
             );
 
@@ -112,23 +132,36 @@ public class PaymentService {
                     .taxRatePercent(rate)
                     .build();
 
+            inventory.attachPaymentIntent(hold.getId(), paymentIntent.getId());
             Payment saved = repo.save(payment);
             return toDto(saved);
 
         } catch (Exception ex) {
+            inventory.release(hold.getId());
             throw new RuntimeException("Failed to create payment intent: " + ex.getMessage());
         }
     }
 
+    /**
+     * Conditional single-row transition; out-of-order events that would move a payment out of a
+     * terminal state are ignored. Returns whether the status changed.
+     */
     @Transactional
-    public void updatePaymentStatus(String stripePaymentIntentId, String status) {
-        Payment payment = repo.findAll().stream()
-                .filter(p -> stripePaymentIntentId.equals(p.getStripePaymentIntentId()))
-                .findFirst()
-                .orElseThrow(() -> new NoSuchElementException("Payment not found for intent: " + stripePaymentIntentId));
-
-        payment.setStatus(status);
-        repo.save(payment);
+    public boolean updatePaymentStatus(String stripePaymentIntentId, String status) {
+        List<String> from = ALLOWED_FROM.getOrDefault(status, List.of());
+        if (!from.isEmpty() && repo.transitionStatus(stripePaymentIntentId, from, status, OffsetDateTime.now()) > 0) {
+            // A failed attempt can still be retried on the same intent, so only these settle the hold
+            if ("SUCCEEDED".equals(status)) {
+                inventory.confirmForPaymentIntent(stripePaymentIntentId);
+            } else if ("CANCELLED".equals(status)) {
+                inventory.releaseForPaymentIntent(stripePaymentIntentId);
+            }
+            return true;
+        }
+        if (!repo.existsByStripePaymentIntentId(stripePaymentIntentId)) {
+            throw new NoSuchElementException("Payment not found for intent: " + stripePaymentIntentId);
+        }
+        return false;
     }
 
     private PaymentDto toDto(Payment p) {
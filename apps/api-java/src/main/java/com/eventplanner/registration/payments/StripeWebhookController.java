@@ -1,6 +1,7 @@
 package com.eventplanner.registration.payments;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stripe.exception.SignatureVerificationException;
 import com.stripe.model.Event;
 import com.stripe.model.EventDataObjectDeserializer;
 import com.stripe.model.PaymentIntent;
@@ -13,13 +14,13 @@ import org.springframework.web.bind.annotation.*;
 @RestController
 @RequestMapping("/api/webhooks/stripe")
 public class StripeWebhookController {
-    private final PaymentService paymentService;
+    private final StripeWebhookInbox webhookInbox;
 
     @Value("${stripe.webhook.secret:}")
     private String stripeWebhookSecret;
 
-    public StripeWebhookController(PaymentService paymentService, ObjectMapper objectMapper) {
-        this.paymentService = paymentService;
+    public StripeWebhookController(StripeWebhookInbox webhookInbox, ObjectMapper objectMapper) {
+        this.webhookInbox = webhookInbox;
     }
 
     @PostMapping
@@ -27,35 +28,33 @@ public class StripeWebhookController {
             @RequestBody String payload,
             @RequestHeader("Stripe-Signature") String signature
     ) {
+        Event event;
         try {
             // Verify webhook signature
-            Event event = Webhook.constructEvent(payload, signature, stripeWebhookSecret);
-
-            // Handle payment intent events
-            if ("payment_intent.succeeded".equals(event.getType()) ||
-                "payment_intent.payment_failed".equals(event.getType()) ||
-                "payment_intent.canceled".equals(event.getType())) {
-
-                EventDataObjectDeserializer deserializer = event.getDataObjectDeserializer();
-                if (deserializer != null && deserializer.getObject().isPresent()) {
-                    Object obj = deserializer.getObject().get();
-                    PaymentIntent paymentIntent = (PaymentIntent) obj;
-
-                    String status = switch (event.getType()) {
-                        case "payment_intent.succeeded" -> "SUCCEEDED";
-                        case "payment_intent.payment_failed" -> "FAILED";
-                        case "payment_intent.canceled" -> "CANCELLED";
-                        default -> "PROCESSING";
-                    };
-
-                    paymentService.updatePaymentStatus(paymentIntent.getId(), status);
-                }
-            }
+            event = Webhook.constructEvent(payload, signature, stripeWebhookSecret);
+        } catch (SignatureVerificationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Webhook signature verification failed");
+        }
 
-            return ResponseEntity.ok("Webhook handled");
+        // Handle payment intent events
+        String status = switch (event.getType()) {
+            case "payment_intent.succeeded" -> "SUCCEEDED";
+            case "payment_intent.payment_failed" -> "FAILED";
+            case "payment_intent.canceled" -> "CANCELLED";
+            default -> null;
+        };
+        if (status == null) {
+            return ResponseEntity.ok("Webhook ignored");
+        }
 
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Webhook signature verification failed");
+        EventDataObjectDeserializer deserializer = event.getDataObjectDeserializer();
+        if (deserializer != null && deserializer.getObject().isPresent()) {
+            PaymentIntent paymentIntent = (PaymentIntent) deserializer.getObject().get();
+            // Applied asynchronously by StripeWebhookInbox; acknowledging only needs the append
+            boolean queued = webhookInbox.append(event.getId(), event.getType(), paymentIntent.getId(), status, payload);
+            return ResponseEntity.ok(queued ? "Webhook queued" : "Webhook already received");
         }
+
+        return ResponseEntity.ok("Webhook handled");
     }
 }
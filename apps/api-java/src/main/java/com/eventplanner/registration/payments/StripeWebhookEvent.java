@@ -0,0 +1,53 @@
+package com.eventplanner.registration.payments;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Inbox row for a verified Stripe webhook event. The Stripe event id is the key, so redeliveries
+ * are dropped on insert; {@code seq} is the arrival order the worker drains in.
+ */
+@Entity
+@Table(name = "stripe_webhook_events")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class StripeWebhookEvent {
+    @Id
+    @Column(name = "event_id", length = 255)
+    private String eventId;
+
+    // Declared so a schema created by Hibernate (before schema.sql runs) still numbers rows
+    @Column(name = "seq", insertable = false, updatable = false,
+            columnDefinition = "BIGINT GENERATED BY DEFAULT AS IDENTITY")
+    private Long seq;
+
+    @Column(name = "event_type", length = 100, nullable = false)
+    private String eventType;
+
+    @Column(name = "payment_intent_id", length = 255)
+    private String paymentIntentId;
+
+    @Column(name = "target_status", length = 24)
+    private String targetStatus;
+
+    @Column(name = "payload", columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "received_at", nullable = false)
+    private OffsetDateTime receivedAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private OffsetDateTime nextAttemptAt;
+
+    @Column(name = "leased_until")
+    private OffsetDateTime leasedUntil;
+
+    @Column(name = "processed_at")
+    private OffsetDateTime processedAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+}
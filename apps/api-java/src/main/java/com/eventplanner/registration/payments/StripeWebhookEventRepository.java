@@ -0,0 +1,64 @@
+package com.eventplanner.registration.payments;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface StripeWebhookEventRepository extends JpaRepository<StripeWebhookEvent, String> {
+
+    // Returns 0 when the event is already in the inbox (a redelivery)
+    @Modifying
+    @Query(value = "INSERT INTO stripe_webhook_events " +
+            "(event_id, event_type, payment_intent_id, target_status, payload, received_at, next_attempt_at) " +
+            "VALUES (:eventId, :eventType, :intentId, :status, :payload, NOW(), NOW()) " +
+            "ON CONFLICT (event_id) DO NOTHING", nativeQuery = true)
+    int append(@Param("eventId") String eventId,
+               @Param("eventType") String eventType,
+               @Param("intentId") String intentId,
+               @Param("status") String status,
+               @Param("payload") String payload);
+
+    /**
+     * Due, unleased rows in arrival order, locked so concurrent drainers take disjoint batches.
+     * A row waits while an earlier row for the same intent is leased elsewhere or backing off,
+     * keeping per-intent order across nodes and retries.
+     */
+    @Query(value = "SELECT e.event_id FROM stripe_webhook_events e " +
+            "WHERE e.processed_at IS NULL AND e.next_attempt_at <= NOW() " +
+            "AND (e.leased_until IS NULL OR e.leased_until < NOW()) " +
+            "AND NOT EXISTS (SELECT 1 FROM stripe_webhook_events o " +
+            "  WHERE o.payment_intent_id = e.payment_intent_id AND o.seq < e.seq " +
+            "  AND o.processed_at IS NULL AND (o.leased_until >= NOW() OR o.next_attempt_at > NOW())) " +
+            "ORDER BY e.seq LIMIT :limit FOR UPDATE OF e SKIP LOCKED", nativeQuery = true)
+    List<String> findClaimable(@Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE StripeWebhookEvent e SET e.leasedUntil = :until WHERE e.eventId IN :ids")
+    int lease(@Param("ids") Collection<String> ids, @Param("until") OffsetDateTime until);
+
+    @Modifying
+    @Query("UPDATE StripeWebhookEvent e SET e.leasedUntil = null WHERE e.eventId = :eventId")
+    int release(@Param("eventId") String eventId);
+
+    List<StripeWebhookEvent> findByEventIdInOrderBySeqAsc(Collection<String> ids);
+
+    @Modifying
+    @Query("UPDATE StripeWebhookEvent e SET e.processedAt = :now, e.leasedUntil = null, e.lastError = :error " +
+            "WHERE e.eventId = :eventId")
+    int markProcessed(@Param("eventId") String eventId, @Param("now") OffsetDateTime now, @Param("error") String error);
+
+    @Modifying
+    @Query("UPDATE StripeWebhookEvent e SET e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt, " +
+            "e.leasedUntil = null, e.lastError = :error WHERE e.eventId = :eventId")
+    int markRetry(@Param("eventId") String eventId, @Param("nextAttemptAt") OffsetDateTime nextAttemptAt,
+                  @Param("error") String error);
+
+    @Modifying
+    @Query("DELETE FROM StripeWebhookEvent e WHERE e.processedAt IS NOT NULL AND e.receivedAt < :before")
+    int deleteProcessedBefore(@Param("before") OffsetDateTime before);
+}
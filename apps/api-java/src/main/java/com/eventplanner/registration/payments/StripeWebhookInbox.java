@@ -0,0 +1,154 @@
+package com.eventplanner.registration.payments;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable inbox for Stripe webhooks. The endpoint only appends the verified event and returns;
+ * {@link #drain()} applies pending events in arrival order, each in its own short transaction.
+ * Rows are leased rather than held under a lock while being applied, so a drain never needs more
+ * than one pooled connection and a crashed node's lease simply expires.
+ *
+ * <p>Draining is the only path that applies payment status, so it runs on a thread of its own
+ * rather than the shared scheduler, where it would queue behind unrelated jobs.
+ */
+@Component
+@Lazy(false) // must start draining after a restart even before the next webhook arrives
+@Slf4j
+public class StripeWebhookInbox {
+    private final StripeWebhookEventRepository inbox;
+    private final PaymentService paymentService;
+    private final TransactionTemplate tx;
+    private final ScheduledExecutorService drainer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "stripe-webhook-drain");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Value("${eventplanner.payments.webhook-inbox.poll-ms:500}")
+    private long pollMs;
+
+    @Value("${eventplanner.payments.webhook-inbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${eventplanner.payments.webhook-inbox.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${eventplanner.payments.webhook-inbox.max-attempts:10}")
+    private int maxAttempts;
+
+    // Stripe stops redelivering after 3 days; keep ids well past that
+    @Value("${eventplanner.payments.webhook-dedupe-retention-days:30}")
+    private int retentionDays;
+
+    public StripeWebhookInbox(StripeWebhookEventRepository inbox, PaymentService paymentService,
+                              PlatformTransactionManager transactionManager) {
+        this.inbox = inbox;
+        this.paymentService = paymentService;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    /** Returns false when Stripe redelivered an event that is already in the inbox. */
+    @Transactional
+    public boolean append(String eventId, String eventType, String paymentIntentId, String targetStatus, String payload) {
+        return inbox.append(eventId, eventType, paymentIntentId, targetStatus, payload) > 0;
+    }
+
+    @PostConstruct
+    void start() {
+        drainer.scheduleWithFixedDelay(() -> {
+            try {
+                drain();
+            } catch (Exception e) {
+                // A failed poll must not cancel the schedule; the next one retries
+                log.warn("Stripe webhook drain failed: {}", e.toString());
+            }
+        }, pollMs, pollMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        drainer.shutdownNow();
+    }
+
+    public void drain() {
+        List<StripeWebhookEvent> batch;
+        do {
+            batch = claimBatch();
+            // Once an intent's event fails, its later events in this batch wait for the retry
+            Set<String> blockedIntents = new HashSet<>();
+            for (StripeWebhookEvent event : batch) {
+                if (blockedIntents.contains(event.getPaymentIntentId())) {
+                    tx.executeWithoutResult(s -> inbox.release(event.getEventId()));
+                } else if (!apply(event)) {
+                    blockedIntents.add(event.getPaymentIntentId());
+                }
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    @Scheduled(cron = "0 45 3 * * *")
+    @Transactional
+    public void purgeProcessed() {
+        int deleted = inbox.deleteProcessedBefore(OffsetDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("Purged {} processed Stripe webhook events", deleted);
+        }
+    }
+
+    private List<StripeWebhookEvent> claimBatch() {
+        return tx.execute(s -> {
+            List<String> ids = inbox.findClaimable(batchSize);
+            if (ids.isEmpty()) return List.of();
+            inbox.lease(ids, OffsetDateTime.now().plusSeconds(leaseSeconds));
+            return inbox.findByEventIdInOrderBySeqAsc(ids);
+        });
+    }
+
+    private boolean apply(StripeWebhookEvent event) {
+        try {
+            tx.executeWithoutResult(s -> {
+                paymentService.updatePaymentStatus(event.getPaymentIntentId(), event.getTargetStatus());
+                inbox.markProcessed(event.getEventId(), OffsetDateTime.now(), null);
+            });
+            return true;
+        } catch (Exception e) {
+            recordFailure(event, e);
+            return false;
+        }
+    }
+
+    // Payment rows can commit after Stripe's first event, so "not found" is retried with backoff
+    private void recordFailure(StripeWebhookEvent event, Exception e) {
+        int attempt = event.getAttempts() + 1;
+        String error = e instanceof NoSuchElementException ? e.getMessage() : e.toString();
+        if (attempt >= maxAttempts) {
+            log.error("Giving up on Stripe event {} ({}) after {} attempts: {}",
+                    event.getEventId(), event.getEventType(), attempt, error);
+            tx.executeWithoutResult(s -> inbox.markProcessed(event.getEventId(), OffsetDateTime.now(), error));
+            return;
+        }
+        Duration backoff = Duration.ofSeconds(Math.min(3600, 5L << Math.min(attempt, 10)));
+        log.warn("Stripe event {} failed (attempt {}), retrying in {}s: {}",
+                event.getEventId(), attempt, backoff.toSeconds(), error);
+        tx.executeWithoutResult(s -> inbox.markRetry(event.getEventId(), OffsetDateTime.now().plus(backoff), error));
+    }
+}
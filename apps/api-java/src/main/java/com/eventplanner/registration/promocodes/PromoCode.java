@@ -31,7 +31,8 @@ public class PromoCode {
     @Builder.Default
     private Integer maxUses = -1; // -1 for unlimited
 
-    @Column(name = "used_count", nullable = false)
+    // Only changed by PromoCodeRepository.claimUse/releaseUse; never written back from a loaded entity
+    @Column(name = "used_count", nullable = false, updatable = false)
     @Builder.Default
     private Integer usedCount = 0;
 
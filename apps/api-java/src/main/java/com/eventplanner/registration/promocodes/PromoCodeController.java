@@ -54,6 +54,26 @@ public class PromoCodeController {
         PromoCodeService.PromoCodeValidationResult result = service.validatePromoCode(code, eventId, ticketId, orderAmount);
         return ResponseEntity.ok(new PromoCodeValidationResponse(result));
     }
+
+    @PostMapping("/redeem")
+    public ResponseEntity<PromoCodeRedemptionResponse> redeem(
+            @PathVariable("eventId") Long eventId,
+            @RequestParam("code") String code,
+            @RequestParam("userEmail") String userEmail,
+            @RequestParam(value = "ticketId", required = false) Long ticketId,
+            @RequestParam(value = "orderAmount", required = false) Integer orderAmount,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
+        PromoCodeService.PromoCodeRedemptionResult result =
+                service.redeem(eventId, code, userEmail, idempotencyKey, ticketId, orderAmount);
+        return ResponseEntity.ok(new PromoCodeRedemptionResponse(result));
+    }
+
+    @DeleteMapping("/redemptions/{redemptionId}")
+    public ResponseEntity<Void> reverseRedemption(@PathVariable("eventId") Long eventId, @PathVariable("redemptionId") Long redemptionId) {
+        service.reverseRedemption(eventId, redemptionId);
+        return ResponseEntity.noContent().build();
+    }
 }
 
 class PromoCodeValidationResponse {
@@ -77,3 +97,14 @@ class PromoCodeValidationResponse {
         this.description = result.getDescription();
     }
 }
+
+class PromoCodeRedemptionResponse extends PromoCodeValidationResponse {
+    public final Long redemptionId;
+    public final boolean replayed;
+
+    public PromoCodeRedemptionResponse(PromoCodeService.PromoCodeRedemptionResult result) {
+        super(result.getValidation());
+        this.redemptionId = result.getRedemptionId();
+        this.replayed = result.isReplayed();
+    }
+}
@@ -0,0 +1,202 @@
+package com.eventplanner.registration.promocodes;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-event in-memory view of active promo codes for checkout validation. Codes are keyed
+ * upper-case, applicable ticket ids are pre-parsed into a sorted {@code long[]} and validity
+ * windows into epoch millis, so a lookup needs no query or JSON parsing.
+ *
+ * <p>An event's codes are loaded on first use and dropped by {@link #invalidate(Long)}, which
+ * create/update/delete call; the drop is repeated after commit and broadcast on
+ * {@link #INVALIDATION_CHANNEL}. Use counts are a load-time snapshot plus this node's own
+ * redemptions, so the limit check made from here is only a preview.
+ */
+@Component
+@Slf4j
+public class PromoCodeIndex {
+    static final String INVALIDATION_CHANNEL = "promo:invalidate";
+
+    private final PromoCodeRepository repo;
+    private final ObjectMapper objectMapper;
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final Cache<Long, Map<String, Entry>> byEvent;
+
+    public PromoCodeIndex(PromoCodeRepository repo,
+                          ObjectMapper objectMapper,
+                          ObjectProvider<RedisTemplate<String, byte[]>> redisTemplateProvider,
+                          ObjectProvider<RedisMessageListenerContainer> listenerContainerProvider,
+                          @Value("${eventplanner.promo-codes.index.max-events:10000}") long maxEvents,
+                          @Value("${eventplanner.promo-codes.index.ttl-seconds:300}") long ttlSeconds) {
+        this.repo = repo;
+        this.objectMapper = objectMapper;
+        this.redisTemplate = redisTemplateProvider.getIfAvailable();
+        this.byEvent = Caffeine.newBuilder()
+                .maximumSize(maxEvents)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        RedisMessageListenerContainer container = listenerContainerProvider.getIfAvailable();
+        if (container != null && redisTemplate != null) {
+            container.addMessageListener(this::onInvalidationMessage, new ChannelTopic(INVALIDATION_CHANNEL));
+        }
+    }
+
+    /** The active code {@code code} (any case) of {@code eventId}, or null. */
+    public Entry find(Long eventId, String code) {
+        if (eventId == null || code == null) return null;
+        return byEvent.get(eventId, this::load).get(normalize(code));
+    }
+
+    /** Counts a committed redemption made on this node so previews see it before the next reload. */
+    void recordUse(Long eventId, String code, int delta) {
+        Map<String, Entry> codes = byEvent.getIfPresent(eventId);
+        Entry entry = codes != null ? codes.get(normalize(code)) : null;
+        if (entry != null) {
+            entry.usedCount.addAndGet(delta);
+        }
+    }
+
+    /**
+     * Drops the event's codes on all nodes. Inside a transaction it runs again after commit so a
+     * concurrent reader cannot re-index pre-commit rows.
+     */
+    public void invalidate(Long eventId) {
+        if (eventId == null) return;
+        invalidateEverywhere(eventId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateEverywhere(eventId);
+                }
+            });
+        }
+    }
+
+    /** Index entry for a loaded row; also used by redemption, which always reads the row itself. */
+    Entry toEntry(PromoCode pc) {
+        long[] ticketIds = null;
+        boolean applicabilityError = false;
+        if (pc.getApplicableTicketIds() != null) {
+            ticketIds = parseTicketIds(pc.getApplicableTicketIds());
+            applicabilityError = ticketIds == null;
+        }
+        return new Entry(pc.getId(), pc.getEvent().getId(), pc.getCode(), pc.getDiscountType(),
+                pc.getDiscountAmount(), pc.getMaxUses(), pc.getUsedCount(), pc.getMinOrderAmount(),
+                ticketIds, applicabilityError,
+                pc.getStartDate() != null ? pc.getStartDate().toInstant().toEpochMilli() : Long.MIN_VALUE,
+                pc.getEndDate() != null ? pc.getEndDate().toInstant().toEpochMilli() : Long.MAX_VALUE,
+                Boolean.TRUE.equals(pc.getIsActive()), pc.getDescription());
+    }
+
+    private Map<String, Entry> load(Long eventId) {
+        Map<String, Entry> codes = new HashMap<>();
+        for (PromoCode pc : repo.findByEventIdAndIsActiveTrueOrderByCreatedAtDesc(eventId)) {
+            codes.put(normalize(pc.getCode()), toEntry(pc));
+        }
+        return codes;
+    }
+
+    // Sorted for binary search; null when the column is not a JSON array of ids
+    private long[] parseTicketIds(String json) {
+        try {
+            JsonNode node = objectMapper.readTree(json);
+            if (node == null || !node.isArray()) return null;
+            long[] ids = new long[node.size()];
+            for (int i = 0; i < ids.length; i++) {
+                JsonNode id = node.get(i);
+                if (!id.canConvertToLong()) return null;
+                ids[i] = id.asLong();
+            }
+            Arrays.sort(ids);
+            return ids;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void invalidateEverywhere(Long eventId) {
+        byEvent.invalidate(eventId);
+        if (redisTemplate == null) return; // Single node
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, String.valueOf(eventId).getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.warn("[PromoCodeIndex] publish failed for event {}: {}", eventId, e.getMessage());
+        }
+    }
+
+    private void onInvalidationMessage(Message message, byte[] pattern) {
+        try {
+            byEvent.invalidate(Long.valueOf(new String(message.getBody(), StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            log.warn("[PromoCodeIndex] invalid invalidation message: {}", e.getMessage());
+        }
+    }
+
+    static String normalize(String code) {
+        return code.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /** Immutable snapshot of one code, apart from the local use counter. */
+    public static final class Entry {
+        final Long id;
+        final Long eventId;
+        final String code;
+        final String discountType;
+        final Integer discountAmount;
+        final int maxUses;
+        final AtomicInteger usedCount;
+        final int minOrderAmount;
+        final long[] applicableTicketIds; // sorted; null means every ticket
+        final boolean applicabilityError;
+        final long startsAtMillis;
+        final long endsAtMillis;
+        final boolean active;
+        final String description;
+
+        private Entry(Long id, Long eventId, String code, String discountType, Integer discountAmount,
+                      int maxUses, int usedCount, int minOrderAmount, long[] applicableTicketIds,
+                      boolean applicabilityError, long startsAtMillis, long endsAtMillis,
+                      boolean active, String description) {
+            this.id = id;
+            this.eventId = eventId;
+            this.code = code;
+            this.discountType = discountType;
+            this.discountAmount = discountAmount;
+            this.maxUses = maxUses;
+            this.usedCount = new AtomicInteger(usedCount);
+            this.minOrderAmount = minOrderAmount;
+            this.applicableTicketIds = applicableTicketIds;
+            this.applicabilityError = applicabilityError;
+            this.startsAtMillis = startsAtMillis;
+            this.endsAtMillis = endsAtMillis;
+            this.active = active;
+            this.description = description;
+        }
+
+        boolean appliesTo(long ticketId) {
+            return applicableTicketIds == null || Arrays.binarySearch(applicableTicketIds, ticketId) >= 0;
+        }
+    }
+}
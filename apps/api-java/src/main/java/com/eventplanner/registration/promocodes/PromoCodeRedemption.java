@@ -0,0 +1,45 @@
+package com.eventplanner.registration.promocodes;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Ledger entry for one use of a promo code. REDEEMED until the order falls through and the use
+ * is handed back (REVERSED).
+ */
+@Entity
+@Table(name = "promo_code_redemptions")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class PromoCodeRedemption {
+    public static final String REDEEMED = "REDEEMED";
+    public static final String REVERSED = "REVERSED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "promo_code_id", nullable = false)
+    private Long promoCodeId;
+
+    // Normalized (trimmed, lower-case) email the per-user limit is counted against
+    @Column(name = "user_key", nullable = false, length = 255)
+    private String userKey;
+
+    @Column(name = "idempotency_key", nullable = false, length = 128)
+    private String idempotencyKey;
+
+    @Column(name = "order_amount")
+    private Integer orderAmount; // minor units
+
+    @Column(name = "discount_amount", nullable = false)
+    private Integer discountAmount; // minor units
+
+    @Column(name = "status", length = 16, nullable = false)
+    @Builder.Default
+    private String status = REDEEMED;
+
+    @Column(name = "created_at", nullable = false)
+    @Builder.Default
+    private OffsetDateTime createdAt = OffsetDateTime.now();
+}
@@ -0,0 +1,35 @@
+package com.eventplanner.registration.promocodes;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface PromoCodeRedemptionRepository extends JpaRepository<PromoCodeRedemption, Long> {
+    /** The user's live redemption under {@code idempotencyKey}; a reversed one is never replayed. */
+    @Query("SELECT r FROM PromoCodeRedemption r WHERE r.promoCodeId = :promoCodeId AND r.userKey = :userKey "
+            + "AND r.idempotencyKey = :idempotencyKey AND r.status = 'REDEEMED'")
+    Optional<PromoCodeRedemption> findReplayable(@Param("promoCodeId") Long promoCodeId, @Param("userKey") String userKey,
+                                                 @Param("idempotencyKey") String idempotencyKey);
+
+    @Modifying
+    @Query("UPDATE PromoCodeRedemption r SET r.status = :to WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") Long id, @Param("from") String from, @Param("to") String to);
+
+    /**
+     * Counts one use against the user's limit; returns 0 (and changes nothing) once the user has
+     * used the code {@code limit} times. The upsert only locks this user's counter row.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO promo_code_user_uses (promo_code_id, user_key, used) VALUES (:promoCodeId, :userKey, 1) "
+            + "ON CONFLICT (promo_code_id, user_key) DO UPDATE SET used = promo_code_user_uses.used + 1 "
+            + "WHERE promo_code_user_uses.used < :limit", nativeQuery = true)
+    int claimUserUse(@Param("promoCodeId") Long promoCodeId, @Param("userKey") String userKey, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE promo_code_user_uses SET used = used - 1 "
+            + "WHERE promo_code_id = :promoCodeId AND user_key = :userKey AND used > 0", nativeQuery = true)
+    int releaseUserUse(@Param("promoCodeId") Long promoCodeId, @Param("userKey") String userKey);
+}
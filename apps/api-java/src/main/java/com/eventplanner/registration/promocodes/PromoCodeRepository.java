@@ -1,6 +1,9 @@
 package com.eventplanner.registration.promocodes;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -9,4 +12,14 @@ public interface PromoCodeRepository extends JpaRepository<PromoCode, Long> {
     List<PromoCode> findByEventIdAndIsActiveTrueOrderByCreatedAtDesc(Long eventId);
     Optional<PromoCode> findByCodeAndIsActiveTrue(String code);
     Optional<PromoCode> findByIdAndEventId(Long id, Long eventId);
+
+    // Check and increment in one statement so concurrent redemptions can never exceed max_uses
+    @Modifying
+    @Query("UPDATE PromoCode p SET p.usedCount = p.usedCount + 1 "
+            + "WHERE p.id = :id AND p.isActive = true AND (p.maxUses = -1 OR p.usedCount < p.maxUses)")
+    int claimUse(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE PromoCode p SET p.usedCount = p.usedCount - 1 WHERE p.id = :id AND p.usedCount > 0")
+    int releaseUse(@Param("id") Long id);
 }
@@ -2,25 +2,37 @@ package com.eventplanner.registration.promocodes;
 
 import com.eventplanner.events.Event;
 import com.eventplanner.events.EventRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.NoSuchElementException;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 public class PromoCodeService {
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 128;
+
     private final PromoCodeRepository repo;
+    private final PromoCodeRedemptionRepository redemptions;
     private final EventRepository events;
-    private final ObjectMapper objectMapper;
+    private final PromoCodeIndex index;
+    private final TransactionTemplate tx;
 
-    public PromoCodeService(PromoCodeRepository repo, EventRepository events, ObjectMapper objectMapper) {
+    public PromoCodeService(PromoCodeRepository repo, PromoCodeRedemptionRepository redemptions,
+                            EventRepository events, PromoCodeIndex index,
+                            PlatformTransactionManager transactionManager) {
         this.repo = repo;
+        this.redemptions = redemptions;
         this.events = events;
-        this.objectMapper = objectMapper;
+        this.index = index;
+        this.tx = new TransactionTemplate(transactionManager);
     }
 
     @Transactional(readOnly = true)
@@ -63,6 +75,7 @@ public class PromoCodeService {
                 .build();
 
         PromoCode saved = repo.save(pc);
+        index.invalidate(eventId);
         return toDto(saved);
     }
 
@@ -93,7 +106,9 @@ public class PromoCodeService {
         if (dto.isActive != null) pc.setIsActive(dto.isActive);
         if (dto.description != null) pc.setDescription(dto.description);
 
-        return toDto(repo.save(pc));
+        PromoCode saved = repo.save(pc);
+        index.invalidate(eventId);
+        return toDto(saved);
     }
 
     @Transactional
@@ -101,76 +116,170 @@ public class PromoCodeService {
         PromoCode pc = repo.findByIdAndEventId(promoCodeId, eventId)
                 .orElseThrow(() -> new NoSuchElementException("Promo code not found"));
         repo.delete(pc);
+        index.invalidate(eventId);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Preview of a code for an order, answered from {@link PromoCodeIndex} without touching the
+     * database once the event's codes are indexed. The usage limit seen here may already be
+     * stale; only {@link #redeem} actually takes a use.
+     */
     public PromoCodeValidationResult validatePromoCode(String code, Long eventId, Long ticketId, Integer orderAmount) {
-        PromoCode pc = repo.findByCodeAndIsActiveTrue(code).orElse(null);
+        return evaluate(index.find(eventId, code), eventId, ticketId, orderAmount);
+    }
 
+    private PromoCodeValidationResult evaluate(PromoCodeIndex.Entry pc, Long eventId, Long ticketId, Integer orderAmount) {
         if (pc == null) {
             return PromoCodeValidationResult.invalid("Promo code not found");
         }
 
-        if (!pc.getEvent().getId().equals(eventId)) {
+        if (!pc.eventId.equals(eventId)) {
             return PromoCodeValidationResult.invalid("Promo code not valid for this event");
         }
 
-        if (!pc.getIsActive()) {
+        if (!pc.active) {
             return PromoCodeValidationResult.invalid("Promo code is not active");
         }
 
-        OffsetDateTime now = OffsetDateTime.now();
-        if (pc.getStartDate() != null && now.isBefore(pc.getStartDate())) {
+        long now = System.currentTimeMillis();
+        if (now < pc.startsAtMillis) {
             return PromoCodeValidationResult.invalid("Promo code not yet valid");
         }
 
-        if (pc.getEndDate() != null && now.isAfter(pc.getEndDate())) {
+        if (now > pc.endsAtMillis) {
             return PromoCodeValidationResult.invalid("Promo code has expired");
         }
 
-        if (pc.getMaxUses() != -1 && pc.getUsedCount() >= pc.getMaxUses()) {
+        // Cheap early reject for exhausted codes; PromoCodeRepository.claimUse is the real check
+        if (pc.maxUses != -1 && pc.usedCount.get() >= pc.maxUses) {
             return PromoCodeValidationResult.invalid("Promo code usage limit exceeded");
         }
 
-        if (orderAmount != null && orderAmount < pc.getMinOrderAmount()) {
+        if (orderAmount != null && orderAmount < pc.minOrderAmount) {
             return PromoCodeValidationResult.invalid("Order amount below minimum required");
         }
 
         // Check if promo code is applicable to specific tickets
-        if (pc.getApplicableTicketIds() != null && ticketId != null) {
-            try {
-                List<Long> applicableTicketIds = objectMapper.readValue(pc.getApplicableTicketIds(),
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, Long.class));
-                if (!applicableTicketIds.contains(ticketId)) {
-                    return PromoCodeValidationResult.invalid("Promo code not applicable to this ticket");
-                }
-            } catch (Exception e) {
-                return PromoCodeValidationResult.invalid("Error validating promo code applicability");
-            }
+        if (pc.applicabilityError && ticketId != null) {
+            return PromoCodeValidationResult.invalid("Error validating promo code applicability");
+        }
+        if (ticketId != null && !pc.appliesTo(ticketId)) {
+            return PromoCodeValidationResult.invalid("Promo code not applicable to this ticket");
         }
 
         // Calculate discount
         // Guard against nulls in discount inputs
         int safeOrderAmount = orderAmount != null ? orderAmount : 0;
-        Integer pcDiscount = pc.getDiscountAmount();
+        Integer pcDiscount = pc.discountAmount;
         int safeDiscount = pcDiscount != null ? pcDiscount : 0;
 
         Integer discountAmount = 0;
-        if ("PERCENT".equals(pc.getDiscountType())) {
+        if ("PERCENT".equals(pc.discountType)) {
             discountAmount = (safeOrderAmount * safeDiscount) / 100;
-        } else if ("FIXED".equals(pc.getDiscountType())) {
+        } else if ("FIXED".equals(pc.discountType)) {
             discountAmount = Math.min(safeDiscount, safeOrderAmount);
         }
 
-        return PromoCodeValidationResult.valid(pc.getId(), pc.getCode(), pc.getDiscountType(),
-            pc.getDiscountAmount(), discountAmount, pc.getDescription());
+        return PromoCodeValidationResult.valid(pc.id, pc.code, pc.discountType,
+            pc.discountAmount, discountAmount, pc.description);
+    }
+
+    /**
+     * Redeems {@code code} for one order by {@code userEmail}. The global and per-user limits are
+     * each enforced by a single conditional statement, so concurrent redemptions never overshoot
+     * and never wait on a lock taken by a read. The same user retrying with the same
+     * {@code idempotencyKey} gets the original redemption back instead of using the code again,
+     * unless that redemption has since been reversed.
+     */
+    public PromoCodeRedemptionResult redeem(Long eventId, String code, String userEmail, String idempotencyKey,
+                                            Long ticketId, Integer orderAmount) {
+        if (userEmail == null || userEmail.isBlank()) {
+            throw new IllegalArgumentException("userEmail is required");
+        }
+        String userKey = userEmail.trim().toLowerCase(Locale.ROOT);
+        String key = idempotencyKey != null && !idempotencyKey.isBlank()
+                ? idempotencyKey.trim() : UUID.randomUUID().toString();
+        if (key.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key must be at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        String normalizedCode = PromoCodeIndex.normalize(code);
+        try {
+            PromoCodeRedemptionResult result =
+                    tx.execute(s -> redeemOnce(eventId, normalizedCode, userKey, key, ticketId, orderAmount, s));
+            if (result.getRedemptionId() != null && !result.isReplayed()) {
+                index.recordUse(eventId, normalizedCode, 1);
+            }
+            return result;
+        } catch (DataIntegrityViolationException duplicate) {
+            // A concurrent retry with the same key committed first; its redemption answers this one too
+            return tx.execute(s -> repo.findByCodeAndIsActiveTrue(normalizedCode)
+                    .flatMap(pc -> redemptions.findReplayable(pc.getId(), userKey, key)
+                            .map(r -> PromoCodeRedemptionResult.replayed(pc, r)))
+                    .orElseThrow(() -> duplicate));
+        }
+    }
+
+    private PromoCodeRedemptionResult redeemOnce(Long eventId, String code, String userKey, String key,
+                                                 Long ticketId, Integer orderAmount, TransactionStatus status) {
+        PromoCode pc = repo.findByCodeAndIsActiveTrue(code).orElse(null);
+        if (pc != null) {
+            PromoCodeRedemption previous = redemptions.findReplayable(pc.getId(), userKey, key).orElse(null);
+            if (previous != null) {
+                return PromoCodeRedemptionResult.replayed(pc, previous);
+            }
+        }
+        // Validated against the row just read, never the index, since this takes a real use
+        PromoCodeValidationResult validation = evaluate(pc != null ? index.toEntry(pc) : null, eventId, ticketId, orderAmount);
+        if (!validation.isValid()) {
+            return PromoCodeRedemptionResult.rejected(validation);
+        }
+
+        // Ledger row first: a duplicate key fails here, before any counter is touched
+        PromoCodeRedemption redemption = redemptions.saveAndFlush(PromoCodeRedemption.builder()
+                .promoCodeId(pc.getId())
+                .userKey(userKey)
+                .idempotencyKey(key)
+                .orderAmount(orderAmount)
+                .discountAmount(validation.getCalculatedDiscount())
+                .build());
+        if (pc.getMaxUsesPerUser() > 0 && redemptions.claimUserUse(pc.getId(), userKey, pc.getMaxUsesPerUser()) == 0) {
+            status.setRollbackOnly();
+            return PromoCodeRedemptionResult.rejected(
+                    PromoCodeValidationResult.invalid("Promo code already used the maximum number of times"));
+        }
+        // The shared promo row is updated last so its row lock is held only until commit
+        if (repo.claimUse(pc.getId()) == 0) {
+            status.setRollbackOnly();
+            // Previews on this node still think uses are left; reload the event's codes
+            index.invalidate(eventId);
+            return PromoCodeRedemptionResult.rejected(
+                    PromoCodeValidationResult.invalid("Promo code usage limit exceeded"));
+        }
+        return PromoCodeRedemptionResult.redeemed(redemption.getId(), validation);
+    }
+
+    /** Hands a redemption's use back, e.g. when its order was cancelled. Reversing twice is a no-op. */
+    @Transactional
+    public void reverseRedemption(Long eventId, Long redemptionId) {
+        PromoCodeRedemption redemption = redemptions.findById(redemptionId)
+                .orElseThrow(() -> new NoSuchElementException("Redemption not found"));
+        repo.findByIdAndEventId(redemption.getPromoCodeId(), eventId)
+                .orElseThrow(() -> new NoSuchElementException("Redemption not found"));
+        if (redemptions.transition(redemptionId, PromoCodeRedemption.REDEEMED, PromoCodeRedemption.REVERSED) == 0) {
+            return;
+        }
+        repo.releaseUse(redemption.getPromoCodeId());
+        redemptions.releaseUserUse(redemption.getPromoCodeId(), redemption.getUserKey());
+        index.invalidate(eventId);
     }
 
+    /** Takes one use without a ledger entry; prefer {@link #redeem}. */
     @Transactional
     public void incrementUsage(Long promoCodeId) {
-        PromoCode pc = repo.findById(promoCodeId).orElseThrow();
-        pc.setUsedCount(pc.getUsedCount() + 1);
-        repo.save(pc);
+        if (repo.claimUse(promoCodeId) == 0) {
+            repo.findById(promoCodeId).orElseThrow(() -> new NoSuchElementException("Promo code not found"));
+            throw new IllegalArgumentException("Promo code usage limit exceeded");
+        }
     }
 
     private PromoCodeDto toDto(PromoCode pc) {
@@ -233,4 +342,34 @@ public class PromoCodeService {
         public Integer getCalculatedDiscount() { return calculatedDiscount; }
         public String getDescription() { return description; }
     }
+
+    public static class PromoCodeRedemptionResult {
+        private final PromoCodeValidationResult validation;
+        private final Long redemptionId;
+        private final boolean replayed;
+
+        private PromoCodeRedemptionResult(PromoCodeValidationResult validation, Long redemptionId, boolean replayed) {
+            this.validation = validation;
+            this.redemptionId = redemptionId;
+            this.replayed = replayed;
+        }
+
+        public static PromoCodeRedemptionResult rejected(PromoCodeValidationResult validation) {
+            return new PromoCodeRedemptionResult(validation, null, false);
+        }
+
+        public static PromoCodeRedemptionResult redeemed(Long redemptionId, PromoCodeValidationResult validation) {
+            return new PromoCodeRedemptionResult(validation, redemptionId, false);
+        }
+
+        static PromoCodeRedemptionResult replayed(PromoCode pc, PromoCodeRedemption redemption) {
+            PromoCodeValidationResult validation = PromoCodeValidationResult.valid(pc.getId(), pc.getCode(),
+                    pc.getDiscountType(), pc.getDiscountAmount(), redemption.getDiscountAmount(), pc.getDescription());
+            return new PromoCodeRedemptionResult(validation, redemption.getId(), true);
+        }
+
+        public PromoCodeValidationResult getValidation() { return validation; }
+        public Long getRedemptionId() { return redemptionId; }
+        public boolean isReplayed() { return replayed; }
+    }
 }
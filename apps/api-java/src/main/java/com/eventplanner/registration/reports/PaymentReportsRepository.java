@@ -0,0 +1,73 @@
+package com.eventplanner.registration.reports;
+
+import com.eventplanner.registration.payments.Payment;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Payment aggregates for the registration dashboards, computed in Postgres so a report returns
+ * a handful of rows whatever the number of payments. Day and hour buckets are in UTC. All
+ * queries are served by {@code idx_payments_event_created} (see V20240930_29__payment_report_index.sql).
+ */
+public interface PaymentReportsRepository extends Repository<Payment, Long> {
+
+    interface Totals {
+        Long getTotal();
+        Long getSucceeded();
+        Long getFailed();
+        Long getPending();
+        Long getRevenueMinor(); // succeeded payments only
+    }
+
+    interface StatusCount {
+        String getStatus();
+        Long getPayments();
+    }
+
+    interface DayBucket {
+        String getDay(); // yyyy-MM-dd
+        Long getPayments();
+        Long getSucceeded();
+        Long getRevenueMinor();
+    }
+
+    interface NumberBucket {
+        Integer getBucket();
+        Long getPayments();
+    }
+
+    @Query(value = "SELECT count(*) AS total, "
+            + "count(*) FILTER (WHERE status = 'SUCCEEDED') AS succeeded, "
+            + "count(*) FILTER (WHERE status = 'FAILED') AS failed, "
+            + "count(*) FILTER (WHERE status = 'PENDING') AS pending, "
+            + "coalesce(sum(amount_in_minor) FILTER (WHERE status = 'SUCCEEDED'), 0) AS revenueMinor "
+            + "FROM payments WHERE event_id = :eventId", nativeQuery = true)
+    Totals totals(@Param("eventId") Long eventId);
+
+    @Query(value = "SELECT status, count(*) AS payments FROM payments WHERE event_id = :eventId GROUP BY status",
+            nativeQuery = true)
+    List<StatusCount> countByStatus(@Param("eventId") Long eventId);
+
+    // Newest day first, matching the order the dashboard charts have always received
+    @Query(value = "SELECT to_char(created_at AT TIME ZONE 'UTC', 'YYYY-MM-DD') AS day, count(*) AS payments, "
+            + "count(*) FILTER (WHERE status = 'SUCCEEDED') AS succeeded, "
+            + "coalesce(sum(amount_in_minor) FILTER (WHERE status = 'SUCCEEDED'), 0) AS revenueMinor "
+            + "FROM payments WHERE event_id = :eventId AND created_at > :since "
+            + "GROUP BY 1 ORDER BY 1 DESC", nativeQuery = true)
+    List<DayBucket> byDay(@Param("eventId") Long eventId, @Param("since") OffsetDateTime since);
+
+    @Query(value = "SELECT CAST(extract(hour FROM created_at AT TIME ZONE 'UTC') AS int) AS bucket, count(*) AS payments "
+            + "FROM payments WHERE event_id = :eventId AND created_at > :since "
+            + "GROUP BY 1 ORDER BY max(created_at) DESC", nativeQuery = true)
+    List<NumberBucket> byHour(@Param("eventId") Long eventId, @Param("since") OffsetDateTime since);
+
+    // ISO day of week, 1 = Monday
+    @Query(value = "SELECT CAST(extract(isodow FROM created_at AT TIME ZONE 'UTC') AS int) AS bucket, count(*) AS payments "
+            + "FROM payments WHERE event_id = :eventId "
+            + "GROUP BY 1 ORDER BY max(created_at) DESC", nativeQuery = true)
+    List<NumberBucket> byDayOfWeek(@Param("eventId") Long eventId);
+}
@@ -2,8 +2,6 @@ package com.eventplanner.registration.reports;
 
 import com.eventplanner.events.Event;
 import com.eventplanner.events.EventRepository;
-import com.eventplanner.registration.payments.Payment;
-import com.eventplanner.registration.payments.PaymentRepository;
 import com.eventplanner.registration.promocodes.PromoCode;
 import com.eventplanner.registration.promocodes.PromoCodeRepository;
 import com.eventplanner.registration.tickets.Ticket;
@@ -12,27 +10,27 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DayOfWeek;
 import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 public class RegistrationReportsService {
     private final TicketRepository ticketRepo;
-    private final PaymentRepository paymentRepo;
+    private final PaymentReportsRepository paymentReports;
     private final PromoCodeRepository promoCodeRepo;
     private final EventRepository eventRepo;
     private final ObjectMapper objectMapper;
 
     public RegistrationReportsService(
             TicketRepository ticketRepo,
-            PaymentRepository paymentRepo,
+            PaymentReportsRepository paymentReports,
             PromoCodeRepository promoCodeRepo,
             EventRepository eventRepo,
             ObjectMapper objectMapper) {
         this.ticketRepo = ticketRepo;
-        this.paymentRepo = paymentRepo;
+        this.paymentReports = paymentReports;
         this.promoCodeRepo = promoCodeRepo;
         this.eventRepo = eventRepo;
         this.objectMapper = objectMapper;
@@ -43,20 +41,13 @@ public class RegistrationReportsService {
         Event event = eventRepo.findById(eventId).orElseThrow();
 
         List<Ticket> tickets = ticketRepo.findByEvent(event);
-        List<Payment> payments = paymentRepo.findByEventIdOrderByCreatedAtDesc(eventId);
+        PaymentReportsRepository.Totals totals = paymentReports.totals(eventId);
 
         // Calculate registration metrics
         long totalTicketsSold = tickets.stream().mapToLong(Ticket::getSold).sum();
         long totalTicketsAvailable = tickets.stream().mapToLong(Ticket::getQuantity).sum();
-        double totalRevenue = payments.stream()
-                .filter(p -> "SUCCEEDED".equals(p.getStatus()))
-                .mapToDouble(p -> p.getAmountInMinor() / 100.0)
-                .sum();
-        double averageOrderValue = payments.stream()
-                .filter(p -> "SUCCEEDED".equals(p.getStatus()))
-                .mapToDouble(p -> p.getAmountInMinor() / 100.0)
-                .average()
-                .orElse(0.0);
+        double totalRevenue = totals.getRevenueMinor() / 100.0;
+        double averageOrderValue = totals.getSucceeded() > 0 ? totalRevenue / totals.getSucceeded() : 0.0;
 
         // Find top ticket type
         Ticket topTicket = tickets.stream()
@@ -105,44 +96,28 @@ public class RegistrationReportsService {
 
     @Transactional(readOnly = true)
     public PaymentAnalyticsDto getPaymentAnalytics(Long eventId) {
-        List<Payment> payments = paymentRepo.findByEventIdOrderByCreatedAtDesc(eventId);
+        PaymentReportsRepository.Totals totals = paymentReports.totals(eventId);
 
-        long totalPayments = payments.size();
-        double totalRevenue = payments.stream()
-                .filter(p -> "SUCCEEDED".equals(p.getStatus()))
-                .mapToDouble(p -> p.getAmountInMinor() / 100.0)
-                .sum();
-        double averagePaymentAmount = payments.stream()
-                .filter(p -> "SUCCEEDED".equals(p.getStatus()))
-                .mapToDouble(p -> p.getAmountInMinor() / 100.0)
-                .average()
-                .orElse(0.0);
-
-        long successfulPayments = payments.stream()
-                .mapToLong(p -> "SUCCEEDED".equals(p.getStatus()) ? 1 : 0)
-                .sum();
-        long failedPayments = payments.stream()
-                .mapToLong(p -> "FAILED".equals(p.getStatus()) ? 1 : 0)
-                .sum();
-        long pendingPayments = payments.stream()
-                .mapToLong(p -> "PENDING".equals(p.getStatus()) ? 1 : 0)
-                .sum();
+        long totalPayments = totals.getTotal();
+        double totalRevenue = totals.getRevenueMinor() / 100.0;
+        long successfulPayments = totals.getSucceeded();
+        double averagePaymentAmount = successfulPayments > 0 ? totalRevenue / successfulPayments : 0.0;
+        long failedPayments = totals.getFailed();
+        long pendingPayments = totals.getPending();
 
         // Generate revenue by day data (last 30 days)
         Map<String, Double> dailyRevenue = new LinkedHashMap<>();
-        OffsetDateTime thirtyDaysAgo = OffsetDateTime.now().minusDays(30);
-
-        payments.stream()
-                .filter(p -> "SUCCEEDED".equals(p.getStatus()) &&
-                        p.getCreatedAt().isAfter(thirtyDaysAgo))
-                .forEach(payment -> {
-                    String day = payment.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-                    dailyRevenue.merge(day, payment.getAmountInMinor() / 100.0, Double::sum);
-                });
+        for (PaymentReportsRepository.DayBucket day : paymentReports.byDay(eventId, OffsetDateTime.now().minusDays(30))) {
+            if (day.getSucceeded() > 0) {
+                dailyRevenue.put(day.getDay(), day.getRevenueMinor() / 100.0);
+            }
+        }
 
         // Generate payments by status data
-        Map<String, Long> statusCounts = payments.stream()
-                .collect(Collectors.groupingBy(Payment::getStatus, Collectors.counting()));
+        Map<String, Long> statusCounts = new LinkedHashMap<>();
+        for (PaymentReportsRepository.StatusCount row : paymentReports.countByStatus(eventId)) {
+            statusCounts.put(row.getStatus(), row.getPayments());
+        }
 
         PaymentAnalyticsDto analytics = new PaymentAnalyticsDto();
         analytics.totalPayments = totalPayments;
@@ -211,46 +186,29 @@ public class RegistrationReportsService {
 
     @Transactional(readOnly = true)
     public RegistrationTrendsDto getRegistrationTrends(Long eventId) {
-        List<Payment> payments = paymentRepo.findByEventIdOrderByCreatedAtDesc(eventId);
+        OffsetDateTime now = OffsetDateTime.now();
 
-        // Daily registrations (last 30 days)
+        // Daily registrations and revenue trend (last 30 days)
         Map<String, Long> dailyRegistrations = new LinkedHashMap<>();
-        OffsetDateTime thirtyDaysAgo = OffsetDateTime.now().minusDays(30);
-
-        payments.stream()
-                .filter(p -> p.getCreatedAt().isAfter(thirtyDaysAgo))
-                .forEach(payment -> {
-                    String day = payment.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-                    dailyRegistrations.merge(day, 1L, Long::sum);
-                });
-
-        // Revenue trend (daily)
         Map<String, Double> revenueTrend = new LinkedHashMap<>();
-        payments.stream()
-                .filter(p -> "SUCCEEDED".equals(p.getStatus()) &&
-                        p.getCreatedAt().isAfter(thirtyDaysAgo))
-                .forEach(payment -> {
-                    String day = payment.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-                    revenueTrend.merge(day, payment.getAmountInMinor() / 100.0, Double::sum);
-                });
+        for (PaymentReportsRepository.DayBucket day : paymentReports.byDay(eventId, now.minusDays(30))) {
+            dailyRegistrations.put(day.getDay(), day.getPayments());
+            if (day.getSucceeded() > 0) {
+                revenueTrend.put(day.getDay(), day.getRevenueMinor() / 100.0);
+            }
+        }
 
         // Hourly distribution (last 7 days)
         Map<Integer, Long> hourlyDistribution = new LinkedHashMap<>();
-        OffsetDateTime sevenDaysAgo = OffsetDateTime.now().minusDays(7);
-
-        payments.stream()
-                .filter(p -> p.getCreatedAt().isAfter(sevenDaysAgo))
-                .forEach(payment -> {
-                    int hour = payment.getCreatedAt().getHour();
-                    hourlyDistribution.merge(hour, 1L, Long::sum);
-                });
+        for (PaymentReportsRepository.NumberBucket hour : paymentReports.byHour(eventId, now.minusDays(7))) {
+            hourlyDistribution.put(hour.getBucket(), hour.getPayments());
+        }
 
         // Daily distribution by day of week
         Map<String, Long> dailyDistribution = new LinkedHashMap<>();
-        payments.forEach(payment -> {
-            String dayOfWeek = payment.getCreatedAt().getDayOfWeek().toString();
-            dailyDistribution.merge(dayOfWeek, 1L, Long::sum);
-        });
+        for (PaymentReportsRepository.NumberBucket day : paymentReports.byDayOfWeek(eventId)) {
+            dailyDistribution.put(DayOfWeek.of(day.getBucket()).toString(), day.getPayments());
+        }
 
         RegistrationTrendsDto trends = new RegistrationTrendsDto();
 
@@ -1,9 +1,22 @@
 package com.eventplanner.registration.rsvp;
 
 import com.eventplanner.events.Event;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface RsvpRepository extends JpaRepository<Rsvp, Long> {
     List<Rsvp> findByEvent(Event event);
+
+    // Forward-only cursor for exports; must be consumed inside a transaction and closed
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT r FROM Rsvp r WHERE r.event.id = :eventId ORDER BY r.id")
+    Stream<Rsvp> streamByEventId(@Param("eventId") Long eventId);
 }
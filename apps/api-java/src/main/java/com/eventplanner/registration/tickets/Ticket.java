@@ -33,9 +33,14 @@ public class Ticket {
     @Column(name = "quantity", nullable = false)
     private Integer quantity = 0;
 
-    @Column(name = "sold", nullable = false)
+    // Owned by TicketInventory's conditional updates; never written back from a loaded entity
+    @Column(name = "sold", nullable = false, updatable = false)
     private Integer sold = 0;
 
+    // 0 = single counter on this row; > 0 = stock split across ticket_inventory_shards
+    @Column(name = "inventory_shards", nullable = false, updatable = false)
+    private Integer inventoryShards = 0;
+
     @Column(name = "requires_approval", nullable = false)
     private boolean requiresApproval = false;
 
@@ -75,6 +80,8 @@ public class Ticket {
     public void setQuantity(Integer quantity) { this.quantity = quantity; }
     public Integer getSold() { return sold; }
     public void setSold(Integer sold) { this.sold = sold; }
+    public Integer getInventoryShards() { return inventoryShards; }
+    public void setInventoryShards(Integer inventoryShards) { this.inventoryShards = inventoryShards; }
     public boolean isRequiresApproval() { return requiresApproval; }
     public void setRequiresApproval(boolean requiresApproval) { this.requiresApproval = requiresApproval; }
     public String getStatus() { return status; }
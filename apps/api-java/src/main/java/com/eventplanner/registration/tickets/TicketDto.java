@@ -12,6 +12,7 @@ public class TicketDto {
     public String currency;
     public Integer quantity;
     public Integer sold;
+    public Integer inventoryShards;
     public boolean requiresApproval;
     public String status;
     public OffsetDateTime salesStartAt;
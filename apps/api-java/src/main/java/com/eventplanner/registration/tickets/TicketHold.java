@@ -0,0 +1,47 @@
+package com.eventplanner.registration.tickets;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Stock taken for a checkout in progress. HELD until the payment succeeds (CONFIRMED), is
+ * cancelled (RELEASED) or the hold runs out (EXPIRED); the latter two give the stock back.
+ */
+@Entity
+@Table(name = "ticket_holds")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class TicketHold {
+    public static final String HELD = "HELD";
+    public static final String CONFIRMED = "CONFIRMED";
+    public static final String RELEASED = "RELEASED";
+    public static final String EXPIRED = "EXPIRED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ticket_id", nullable = false)
+    private Long ticketId;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    // Counter shard the stock came from; null for unsharded tickets
+    @Column(name = "shard_no")
+    private Integer shardNo;
+
+    @Column(name = "payment_intent_id", length = 255)
+    private String paymentIntentId;
+
+    @Column(name = "status", length = 16, nullable = false)
+    @Builder.Default
+    private String status = HELD;
+
+    @Column(name = "expires_at", nullable = false)
+    private OffsetDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    @Builder.Default
+    private OffsetDateTime createdAt = OffsetDateTime.now();
+}
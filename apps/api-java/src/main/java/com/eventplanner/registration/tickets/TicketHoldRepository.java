@@ -0,0 +1,37 @@
+package com.eventplanner.registration.tickets;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface TicketHoldRepository extends JpaRepository<TicketHold, Long> {
+    Optional<TicketHold> findByPaymentIntentId(String paymentIntentId);
+
+    @Query("SELECT h FROM TicketHold h WHERE h.status = 'HELD' AND h.expiresAt < :now ORDER BY h.expiresAt")
+    List<TicketHold> findExpired(@Param("now") OffsetDateTime now, Pageable pageable);
+
+    List<TicketHold> findByTicketIdAndStatus(Long ticketId, String status);
+
+    // Read from the row, since a reshard may have moved the hold after it was loaded
+    @Query("SELECT h.shardNo FROM TicketHold h WHERE h.id = :id")
+    Integer findShardNo(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE TicketHold h SET h.shardNo = :shard WHERE h.id IN :ids")
+    int moveToShard(@Param("ids") List<Long> ids, @Param("shard") Integer shard);
+
+    @Modifying
+    @Query("UPDATE TicketHold h SET h.paymentIntentId = :intentId WHERE h.id = :id")
+    int attachPaymentIntent(@Param("id") Long id, @Param("intentId") String intentId);
+
+    // Compare-and-set on status so a hold's stock is returned or kept exactly once
+    @Modifying
+    @Query("UPDATE TicketHold h SET h.status = :to WHERE h.id = :id AND h.status = :from")
+    int transition(@Param("id") Long id, @Param("from") String from, @Param("to") String to);
+}
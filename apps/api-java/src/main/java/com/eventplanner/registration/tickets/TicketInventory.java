@@ -0,0 +1,256 @@
+package com.eventplanner.registration.tickets;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ticket stock. Every change is a single conditional UPDATE ({@code sold + n <= quantity}) in a
+ * short transaction of its own, so buyers never wait on each other across a Stripe call.
+ * Checkouts take a time-boxed {@link TicketHold}; holds that are not paid in time are returned
+ * by {@link #releaseExpired()}.
+ *
+ * <p>Hot ticket classes can be split into {@code inventory_shards} counter rows; a checkout
+ * takes stock from a random shard, spreading row-lock contention. {@code tickets.sold} is then a
+ * lagging sum refreshed by the release sweep. A live hold always points at an existing shard:
+ * resharding moves it, and give-backs wait for a reshard in progress.
+ */
+@Service
+@Lazy(false) // the expiry sweep must run even before the first checkout after a restart
+@Slf4j
+public class TicketInventory {
+    static final int MAX_SHARDS = 64;
+
+    private final TicketRepository tickets;
+    private final TicketHoldRepository holds;
+    private final TransactionTemplate tx;
+
+    @Value("${eventplanner.tickets.hold-minutes:15}")
+    private long holdMinutes;
+
+    @Value("${eventplanner.tickets.hold-release-batch-size:500}")
+    private int releaseBatchSize;
+
+    public TicketInventory(TicketRepository tickets, TicketHoldRepository holds,
+                           PlatformTransactionManager transactionManager) {
+        this.tickets = tickets;
+        this.holds = holds;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    /** Takes {@code quantity} of the ticket's stock for a checkout; fails when not enough is left. */
+    @Transactional
+    public TicketHold hold(Ticket ticket, int quantity) {
+        Integer shard = take(ticket.getId(), ticket.getInventoryShards(), quantity);
+        return holds.save(TicketHold.builder()
+                .ticketId(ticket.getId())
+                .quantity(quantity)
+                .shardNo(shard)
+                .expiresAt(OffsetDateTime.now().plusMinutes(holdMinutes))
+                .build());
+    }
+
+    @Transactional
+    public void attachPaymentIntent(Long holdId, String paymentIntentId) {
+        holds.attachPaymentIntent(holdId, paymentIntentId);
+    }
+
+    /** Gives the stock back, e.g. when the payment intent could not be created. */
+    @Transactional
+    public void release(Long holdId) {
+        holds.findById(holdId).ifPresent(hold -> giveBack(hold, TicketHold.RELEASED));
+    }
+
+    @Transactional
+    public void releaseForPaymentIntent(String paymentIntentId) {
+        holds.findByPaymentIntentId(paymentIntentId).ifPresent(hold -> giveBack(hold, TicketHold.RELEASED));
+    }
+
+    /** Keeps the stock for good once the payment succeeded. */
+    @Transactional
+    public void confirmForPaymentIntent(String paymentIntentId) {
+        holds.findByPaymentIntentId(paymentIntentId).ifPresent(hold -> {
+            if (holds.transition(hold.getId(), TicketHold.HELD, TicketHold.CONFIRMED) > 0) return;
+            if (holds.transition(hold.getId(), TicketHold.EXPIRED, TicketHold.CONFIRMED) == 0) return;
+            // The hold ran out before the payment landed; the buyer has paid, so stock is taken back even past capacity
+            Ticket ticket = tickets.findById(hold.getTicketId()).orElse(null);
+            int shards = ticket != null ? ticket.getInventoryShards() : 0;
+            try {
+                take(hold.getTicketId(), shards, hold.getQuantity());
+            } catch (IllegalArgumentException soldOut) {
+                if (shards > 0) {
+                    tickets.adjustShard(hold.getTicketId(), 0, hold.getQuantity());
+                } else {
+                    tickets.adjustSold(hold.getTicketId(), hold.getQuantity());
+                }
+                log.warn("Ticket {} oversold by late payment {} (quantity {})",
+                        hold.getTicketId(), paymentIntentId, hold.getQuantity());
+            }
+        });
+    }
+
+    /**
+     * Stock currently taken (sold or held), read under the ticket's and its shards' row locks,
+     * which are kept until the caller's transaction ends.
+     */
+    @Transactional
+    public int lockTaken(Long ticketId) {
+        TicketRepository.StockRow stock = tickets.lockStock(ticketId)
+                .orElseThrow(() -> new NoSuchElementException("Ticket not found"));
+        return stock.getInventoryShards() > 0 ? tickets.sumShardTaken(ticketId) : stock.getSold();
+    }
+
+    /**
+     * Splits the ticket's stock into {@code shards} counters (0 = back to the single counter).
+     * Live holds are moved onto the new shards together with their stock, so giving one back
+     * later lands on a shard that still counts it. Also re-run when quantity changes.
+     */
+    @Transactional
+    public void reshard(Long ticketId, int shards) {
+        if (shards < 0 || shards > MAX_SHARDS) {
+            throw new IllegalArgumentException("inventoryShards must be between 0 and " + MAX_SHARDS);
+        }
+        // The ticket row lock also keeps give-backs out until commit (see giveBack)
+        TicketRepository.StockRow stock = tickets.lockStock(ticketId)
+                .orElseThrow(() -> new NoSuchElementException("Ticket not found"));
+        int taken = stock.getInventoryShards() > 0 ? tickets.sumShardTaken(ticketId) : stock.getSold();
+        int quantity = stock.getQuantity();
+        List<TicketHold> live = holds.findByTicketIdAndStatus(ticketId, TicketHold.HELD);
+        tickets.deleteShards(ticketId);
+        if (shards == 0) {
+            if (!live.isEmpty()) holds.moveToShard(live.stream().map(TicketHold::getId).toList(), null);
+        } else {
+            Split split = split(quantity, taken, shards, live.stream().mapToInt(TicketHold::getQuantity).toArray());
+            for (int i = 0; i < shards; i++) {
+                tickets.insertShard(ticketId, i, split.capacity()[i], split.taken()[i]);
+            }
+            Map<Integer, List<Long>> byShard = new HashMap<>();
+            for (int h = 0; h < live.size(); h++) {
+                byShard.computeIfAbsent(split.holdShards()[h], k -> new ArrayList<>()).add(live.get(h).getId());
+            }
+            byShard.forEach((shard, ids) -> holds.moveToShard(ids, shard));
+        }
+        tickets.setInventory(ticketId, shards, taken);
+    }
+
+    /** Per-shard capacity and taken stock, and the shard each live hold (by index) is moved to. */
+    record Split(int[] capacity, int[] taken, int[] holdShards) {}
+
+    /**
+     * Capacity is split evenly. Holds go largest first onto the shard with the most room left,
+     * then the rest of the taken stock fills the remaining room evenly. A shard only ends up over
+     * capacity when a hold does not fit anywhere whole or the ticket is oversold; it then simply
+     * refuses new holds until stock comes back.
+     */
+    static Split split(int quantity, int taken, int shards, int[] holdQuantities) {
+        int[] capacity = new int[shards];
+        int[] shardTaken = new int[shards];
+        int[] holdShards = new int[holdQuantities.length];
+        for (int i = 0; i < shards; i++) {
+            capacity[i] = share(quantity, shards, i);
+        }
+        Integer[] largestFirst = new Integer[holdQuantities.length];
+        for (int h = 0; h < largestFirst.length; h++) largestFirst[h] = h;
+        Arrays.sort(largestFirst, (a, b) -> Integer.compare(holdQuantities[b], holdQuantities[a]));
+        int held = 0;
+        for (int h : largestFirst) {
+            int shard = roomiest(capacity, shardTaken);
+            shardTaken[shard] += holdQuantities[h];
+            holdShards[h] = shard;
+            held += holdQuantities[h];
+        }
+        int rest = Math.max(taken - held, 0);
+        while (rest > 0) {
+            int open = 0;
+            for (int i = 0; i < shards; i++) {
+                if (shardTaken[i] < capacity[i]) open++;
+            }
+            if (open == 0) {
+                shardTaken[roomiest(capacity, shardTaken)] += rest;
+                break;
+            }
+            int each = Math.max(rest / open, 1);
+            for (int i = 0; i < shards && rest > 0; i++) {
+                int give = Math.min(Math.min(capacity[i] - shardTaken[i], each), rest);
+                if (give <= 0) continue;
+                shardTaken[i] += give;
+                rest -= give;
+            }
+        }
+        return new Split(capacity, shardTaken, holdShards);
+    }
+
+    private static int roomiest(int[] capacity, int[] taken) {
+        int best = 0;
+        for (int i = 1; i < capacity.length; i++) {
+            if (capacity[i] - taken[i] > capacity[best] - taken[best]) best = i;
+        }
+        return best;
+    }
+
+    @Scheduled(fixedDelayString = "${eventplanner.tickets.hold-release-ms:30000}")
+    public void releaseExpired() {
+        List<TicketHold> expired = holds.findExpired(OffsetDateTime.now(), PageRequest.of(0, releaseBatchSize));
+        int released = 0;
+        for (TicketHold hold : expired) {
+            // One short transaction per hold so a hot ticket row is never locked for the whole sweep
+            if (Boolean.TRUE.equals(tx.execute(s -> giveBack(hold, TicketHold.EXPIRED)))) {
+                released++;
+            }
+        }
+        tx.executeWithoutResult(s -> tickets.syncShardedSold());
+        if (released > 0) {
+            log.info("Released {} expired ticket holds", released);
+        }
+    }
+
+    private Integer take(Long ticketId, int shards, int quantity) {
+        if (shards <= 0) {
+            if (tickets.tryReserve(ticketId, quantity) == 0) throw soldOut();
+            return null;
+        }
+        int start = ThreadLocalRandom.current().nextInt(shards);
+        for (int i = 0; i < shards; i++) {
+            int shard = (start + i) % shards;
+            if (tickets.tryReserveShard(ticketId, shard, quantity) > 0) return shard;
+        }
+        throw soldOut();
+    }
+
+    private boolean giveBack(TicketHold hold, String status) {
+        // Conflicts only with reshard's lock, so the shard layout can't change until commit
+        Integer shards = tickets.lockShardCount(hold.getTicketId()).orElse(null);
+        if (holds.transition(hold.getId(), TicketHold.HELD, status) == 0) return false;
+        if (shards == null) return true; // Ticket deleted
+        Integer shardNo = holds.findShardNo(hold.getId());
+        if (shards > 0 && shardNo != null) {
+            tickets.adjustShard(hold.getTicketId(), shardNo, -hold.getQuantity());
+        } else {
+            tickets.adjustSold(hold.getTicketId(), -hold.getQuantity());
+        }
+        return true;
+    }
+
+    private static int share(int total, int parts, int index) {
+        return total / parts + (index < total % parts ? 1 : 0);
+    }
+
+    private static IllegalArgumentException soldOut() {
+        return new IllegalArgumentException("Not enough tickets available");
+    }
+}
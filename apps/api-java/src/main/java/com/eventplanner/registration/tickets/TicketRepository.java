@@ -2,11 +2,75 @@ package com.eventplanner.registration.tickets;
 
 import com.eventplanner.events.Event;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
     List<Ticket> findByEvent(Event event);
+
+    interface StockRow {
+        Integer getQuantity();
+        Integer getSold();
+        Integer getInventoryShards();
+    }
+
+    // Current counters read under a row lock (bypassing any stale entity in the persistence context)
+    @Query(value = "SELECT quantity, sold, inventory_shards AS inventoryShards FROM tickets WHERE id = :id FOR UPDATE",
+            nativeQuery = true)
+    Optional<StockRow> lockStock(@Param("id") Long id);
+
+    // Weakest row lock: give-backs don't block each other or stock updates, but do wait for a reshard
+    @Query(value = "SELECT inventory_shards FROM tickets WHERE id = :id FOR KEY SHARE", nativeQuery = true)
+    Optional<Integer> lockShardCount(@Param("id") Long id);
+
+    // Single-statement reservation: 0 rows means not enough stock left
+    @Modifying
+    @Query(value = "UPDATE tickets SET sold = sold + :qty WHERE id = :id AND sold + :qty <= quantity", nativeQuery = true)
+    int tryReserve(@Param("id") Long id, @Param("qty") int qty);
+
+    @Modifying
+    @Query(value = "UPDATE tickets SET sold = GREATEST(sold + :delta, 0) WHERE id = :id", nativeQuery = true)
+    int adjustSold(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Query(value = "UPDATE ticket_inventory_shards SET taken = taken + :qty " +
+            "WHERE ticket_id = :id AND shard_no = :shard AND taken + :qty <= capacity", nativeQuery = true)
+    int tryReserveShard(@Param("id") Long id, @Param("shard") int shard, @Param("qty") int qty);
+
+    @Modifying
+    @Query(value = "UPDATE ticket_inventory_shards SET taken = GREATEST(taken + :delta, 0) " +
+            "WHERE ticket_id = :id AND shard_no = :shard", nativeQuery = true)
+    int adjustShard(@Param("id") Long id, @Param("shard") int shard, @Param("delta") int delta);
+
+    // Locks the shard rows so no reservation lands between the sum and a re-split
+    @Query(value = "SELECT COALESCE(SUM(s.taken), 0) FROM " +
+            "(SELECT taken FROM ticket_inventory_shards WHERE ticket_id = :id FOR UPDATE) s", nativeQuery = true)
+    int sumShardTaken(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "DELETE FROM ticket_inventory_shards WHERE ticket_id = :id", nativeQuery = true)
+    int deleteShards(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "INSERT INTO ticket_inventory_shards (ticket_id, shard_no, capacity, taken) " +
+            "VALUES (:id, :shard, :capacity, :taken)", nativeQuery = true)
+    int insertShard(@Param("id") Long id, @Param("shard") int shard,
+                    @Param("capacity") int capacity, @Param("taken") int taken);
+
+    @Modifying
+    @Query(value = "UPDATE tickets SET inventory_shards = :shards, sold = :sold WHERE id = :id", nativeQuery = true)
+    int setInventory(@Param("id") Long id, @Param("shards") int shards, @Param("sold") int sold);
+
+    // Sharded tickets keep tickets.sold as a lagging sum of their shards for listings and reports
+    @Modifying
+    @Query(value = "UPDATE tickets t SET sold = s.taken FROM " +
+            "(SELECT ticket_id, SUM(taken) AS taken FROM ticket_inventory_shards GROUP BY ticket_id) s " +
+            "WHERE t.id = s.ticket_id AND t.inventory_shards > 0 AND t.sold <> s.taken", nativeQuery = true)
+    int syncShardedSold();
 }
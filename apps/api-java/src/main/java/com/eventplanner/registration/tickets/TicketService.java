@@ -13,10 +13,12 @@ import java.util.stream.Collectors;
 public class TicketService {
     private final TicketRepository repo;
     private final EventRepository events;
+    private final TicketInventory inventory;
 
-    public TicketService(TicketRepository repo, EventRepository events) {
+    public TicketService(TicketRepository repo, EventRepository events, TicketInventory inventory) {
         this.repo = repo;
         this.events = events;
+        this.inventory = inventory;
     }
 
     @Transactional(readOnly = true)
@@ -42,6 +44,10 @@ public class TicketService {
         t.setSalesStartAt(dto.salesStartAt);
         t.setSalesEndAt(dto.salesEndAt);
         Ticket saved = repo.save(t);
+        if (dto.inventoryShards != null && dto.inventoryShards > 0) {
+            inventory.reshard(saved.getId(), dto.inventoryShards);
+            saved.setInventoryShards(dto.inventoryShards);
+        }
         return toDto(saved);
     }
 
@@ -55,13 +61,24 @@ public class TicketService {
         t.setFree(dto.free);
         if (dto.priceInMinor != null) t.setPriceInMinor(dto.priceInMinor);
         if (dto.currency != null) t.setCurrency(dto.currency);
+        // sold is owned by TicketInventory; capacity can't drop below what is already taken, counted under lock
+        boolean quantityChanged = dto.quantity != null && !dto.quantity.equals(t.getQuantity());
+        if (quantityChanged && dto.quantity < inventory.lockTaken(ticketId)) {
+            throw new IllegalArgumentException("Quantity cannot be less than tickets already sold");
+        }
         if (dto.quantity != null) t.setQuantity(dto.quantity);
-        if (dto.sold != null) t.setSold(dto.sold);
         t.setRequiresApproval(dto.requiresApproval);
         if (dto.status != null) t.setStatus(dto.status);
         t.setSalesStartAt(dto.salesStartAt);
         t.setSalesEndAt(dto.salesEndAt);
-        return toDto(repo.save(t));
+        Ticket saved = repo.save(t);
+        int shards = dto.inventoryShards != null ? dto.inventoryShards : saved.getInventoryShards();
+        if (shards != saved.getInventoryShards() || (quantityChanged && shards > 0)) {
+            repo.flush();
+            inventory.reshard(saved.getId(), shards);
+            saved.setInventoryShards(shards);
+        }
+        return toDto(saved);
     }
 
     @Transactional
@@ -83,6 +100,7 @@ public class TicketService {
         d.currency = t.getCurrency();
         d.quantity = t.getQuantity();
         d.sold = t.getSold();
+        d.inventoryShards = t.getInventoryShards();
         d.requiresApproval = t.isRequiresApproval();
         d.status = t.getStatus();
         d.salesStartAt = t.getSalesStartAt();
@@ -0,0 +1,286 @@
+package com.eventplanner.seating;
+
+import com.eventplanner.seating.dto.SeatAvailabilityDto;
+import com.eventplanner.seating.dto.SeatHoldDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Seat holds. Seats are claimed first in the event's in-memory {@link SeatMap} (lock-free, so
+ * contended seats are rejected without touching the database) and then written through to
+ * {@code seat_reservations} in one statement. The partial unique index on live reservations is
+ * the final arbiter across nodes and the web app: a conflicting insert frees the claimed bits and
+ * reloads the map. Maps are rebuilt from the database once they are older than the refresh age.
+ * With Redis, seat changes are also broadcast so other nodes' maps and viewers follow at once.
+ */
+@Service
+@Lazy(false) // the expiry sweep must run after a restart even before the first hold
+@Slf4j
+public class SeatHoldService {
+    static final String CHANGE_CHANNEL = "seating:changes";
+
+    private final SeatInventoryRepository inventory;
+    private final SeatReservationRepository reservations;
+    private final TransactionTemplate tx;
+    private final Cache<Long, SeatMap> maps;
+    private final SeatMapStream stream;
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    // Holds taken on this node, so expiry and release can free their bits without a reload
+    private final Map<String, LocalHold> holds = new ConcurrentHashMap<>();
+
+    @Value("${eventplanner.seating.hold-seconds:600}")
+    private long holdSeconds;
+
+    @Value("${eventplanner.seating.max-seats-per-hold:10}")
+    private int maxSeatsPerHold;
+
+    @Value("${eventplanner.seating.map-refresh-seconds:60}")
+    private long mapRefreshSeconds;
+
+    private record LocalHold(Long eventId, SeatMap map, int[] indexes, OffsetDateTime expiresAt) {}
+
+    public SeatHoldService(SeatInventoryRepository inventory, SeatReservationRepository reservations,
+                           PlatformTransactionManager transactionManager, SeatMapStream stream,
+                           ObjectProvider<RedisTemplate<String, byte[]>> redisTemplateProvider,
+                           ObjectProvider<RedisMessageListenerContainer> listenerContainerProvider,
+                           @Value("${eventplanner.seating.max-maps:200}") long maxMaps) {
+        this.inventory = inventory;
+        this.reservations = reservations;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.stream = stream;
+        this.maps = Caffeine.newBuilder()
+                .maximumSize(maxMaps)
+                .expireAfterAccess(Duration.ofMinutes(30))
+                .build();
+        this.redisTemplate = redisTemplateProvider.getIfAvailable();
+        RedisMessageListenerContainer container = listenerContainerProvider.getIfAvailable();
+        if (container != null && redisTemplate != null) {
+            container.addMessageListener(this::onSeatChangeMessage, new ChannelTopic(CHANGE_CHANNEL));
+        }
+    }
+
+    /** Live availability: a snapshot, then coalesced deltas (see {@link SeatMapStream}). */
+    public SseEmitter subscribe(Long eventId) {
+        return stream.subscribe(eventId, map(eventId));
+    }
+
+    public SeatHoldDto hold(Long eventId, List<Long> seatIds, String email) {
+        List<Long> distinct = List.copyOf(new LinkedHashSet<>(seatIds));
+        checkQuantity(distinct.size());
+        SeatMap map = map(eventId);
+        int[] indexes = map.indexesOf(distinct);
+        if (!map.tryTake(indexes)) {
+            throw new IllegalArgumentException("One or more seats are no longer available");
+        }
+        return writeThrough(eventId, map, indexes, email);
+    }
+
+    /** Best available block of adjacent seats in one row, front rows first. */
+    public SeatHoldDto holdBestAvailable(Long eventId, String section, String row, int quantity, String email) {
+        checkQuantity(quantity);
+        SeatMap map = map(eventId);
+        // Another buyer may take part of a block between search and claim; search again
+        for (int attempt = 0; attempt < 16; attempt++) {
+            int[] block = map.findBlock(section, row, quantity);
+            if (block == null) break;
+            if (map.tryTake(block)) {
+                return writeThrough(eventId, map, block, email);
+            }
+        }
+        throw new IllegalArgumentException("No block of " + quantity + " adjacent seats available");
+    }
+
+    public void confirm(Long eventId, String holdId, Long registrationId, String paymentStatus) {
+        Integer confirmed = tx.execute(s -> reservations.confirmHold(
+                eventId, holdId, registrationId, paymentStatus != null ? paymentStatus : "PAID"));
+        if (confirmed == null || confirmed == 0) {
+            throw new NoSuchElementException("Hold not found or expired");
+        }
+        // Bits stay set: the seats are sold
+        holds.remove(holdId);
+    }
+
+    public void release(Long eventId, String holdId) {
+        Integer released = tx.execute(s -> reservations.releaseHold(eventId, holdId));
+        LocalHold local = holds.remove(holdId);
+        if (local != null) {
+            local.map().free(local.indexes());
+            seatsChanged(eventId, local.map(), local.indexes(), false);
+        } else if (released != null && released > 0) {
+            reload(eventId); // held on another node; reload to see the seats free
+        } else {
+            throw new NoSuchElementException("Hold not found");
+        }
+    }
+
+    public SeatAvailabilityDto availability(Long eventId) {
+        SeatMap map = map(eventId);
+        Map<String, Integer> bySection = map.availableBySection();
+        int available = bySection.values().stream().mapToInt(Integer::intValue).sum();
+        return new SeatAvailabilityDto(eventId, map.size(), available, bySection);
+    }
+
+    @Scheduled(fixedDelayString = "${eventplanner.seating.expiry-sweep-ms:5000}")
+    public void expireHolds() {
+        OffsetDateTime now = OffsetDateTime.now();
+        Set<Long> stale = new HashSet<>();
+        holds.entrySet().removeIf(entry -> {
+            LocalHold hold = entry.getValue();
+            if (hold.expiresAt().isAfter(now)) return false;
+            hold.map().free(hold.indexes());
+            seatsChanged(hold.eventId(), hold.map(), hold.indexes(), false);
+            if (maps.getIfPresent(hold.eventId()) != hold.map()) stale.add(hold.eventId());
+            return true;
+        });
+        Integer expired = tx.execute(s -> reservations.expireAll(now));
+        stale.forEach(this::reload);
+        if (expired != null && expired > 0) {
+            log.debug("Expired {} seat reservations", expired);
+        }
+    }
+
+    private SeatHoldDto writeThrough(Long eventId, SeatMap map, int[] indexes, String email) {
+        String holdId = UUID.randomUUID().toString();
+        OffsetDateTime expiresAt = OffsetDateTime.now().plusSeconds(holdSeconds);
+        List<Long> seatIds = map.seatIdsOf(indexes);
+        try {
+            tx.executeWithoutResult(s -> {
+                reservations.expireLapsed(seatIds);
+                reservations.insertHold(eventId, seatIds, holdId, email, expiresAt);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Taken through another node or the web app since this map was built
+            map.free(indexes);
+            reload(eventId);
+            throw new IllegalArgumentException("One or more seats are no longer available");
+        } catch (RuntimeException e) {
+            map.free(indexes);
+            throw e;
+        }
+        holds.put(holdId, new LocalHold(eventId, map, indexes, expiresAt));
+        seatsChanged(eventId, map, indexes, true);
+        return new SeatHoldDto(holdId, eventId, seatIds, expiresAt);
+    }
+
+    // Rebuilds load outside the cache's bin lock so a slow query never blocks other events'
+    // lookups; when several requests rebuild the same map at once, the first install wins
+    private SeatMap map(Long eventId) {
+        ConcurrentMap<Long, SeatMap> view = maps.asMap();
+        while (true) {
+            SeatMap current = maps.getIfPresent(eventId);
+            if (isFresh(current)) return current;
+            SeatMap fresh = load(eventId);
+            boolean installed = current == null
+                    ? view.putIfAbsent(eventId, fresh) == null
+                    : view.replace(eventId, current, fresh);
+            if (installed) {
+                if (current != null) streamRebuild(eventId, current, fresh);
+                return fresh;
+            }
+            // Lost to a concurrent rebuild: claims must go to the map that was installed
+        }
+    }
+
+    private void reload(Long eventId) {
+        SeatMap current = maps.getIfPresent(eventId);
+        if (current == null) return;
+        SeatMap fresh = load(eventId);
+        if (maps.asMap().replace(eventId, current, fresh)) {
+            streamRebuild(eventId, current, fresh);
+        }
+    }
+
+    // Viewers see what the rebuild picked up from other writers (the web app, nodes without Redis)
+    private void streamRebuild(Long eventId, SeatMap previous, SeatMap fresh) {
+        if (!stream.hasViewers(eventId)) return;
+        if (!previous.sameLayout(fresh)) {
+            stream.reset(eventId, fresh);
+            return;
+        }
+        List<Integer> nowTaken = new ArrayList<>();
+        List<Integer> nowFree = new ArrayList<>();
+        for (int i = 0; i < fresh.size(); i++) {
+            boolean taken = fresh.isTakenAt(i);
+            if (taken != previous.isTakenAt(i)) (taken ? nowTaken : nowFree).add(i);
+        }
+        stream.changed(eventId, nowTaken.stream().mapToInt(Integer::intValue).toArray(), true);
+        stream.changed(eventId, nowFree.stream().mapToInt(Integer::intValue).toArray(), false);
+    }
+
+    private void seatsChanged(Long eventId, SeatMap map, int[] indexes, boolean taken) {
+        if (maps.getIfPresent(eventId) == map) {
+            stream.changed(eventId, indexes, taken);
+        }
+        if (redisTemplate == null) return; // Single node
+        try {
+            String message = nodeId + "|" + eventId + "|" + (taken ? "T" : "F") + "|"
+                    + map.seatIdsOf(indexes).stream().map(String::valueOf).collect(Collectors.joining(","));
+            redisTemplate.convertAndSend(CHANGE_CHANNEL, message.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.warn("[SeatHoldService] publish failed for event {}: {}", eventId, e.getMessage());
+        }
+    }
+
+    private void onSeatChangeMessage(Message message, byte[] pattern) {
+        try {
+            String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+            if (parts.length != 4 || nodeId.equals(parts[0])) return;
+            Long eventId = Long.valueOf(parts[1]);
+            SeatMap map = maps.getIfPresent(eventId);
+            if (map == null) return; // loaded fresh from the database on first use
+            List<Long> seatIds = Arrays.stream(parts[3].split(",")).filter(v -> !v.isEmpty()).map(Long::valueOf).toList();
+            stream.changed(eventId, map.apply(seatIds, "T".equals(parts[2])), "T".equals(parts[2]));
+        } catch (Exception e) {
+            log.warn("[SeatHoldService] invalid seat change message: {}", e.getMessage());
+        }
+    }
+
+    private boolean isFresh(SeatMap map) {
+        return map != null && map.ageNanos() < Duration.ofSeconds(mapRefreshSeconds).toNanos();
+    }
+
+    private SeatMap load(Long eventId) {
+        List<SeatInventory> seats = inventory.findByEventId(eventId);
+        if (seats.isEmpty()) {
+            throw new NoSuchElementException("No seating configured for event " + eventId);
+        }
+        return SeatMap.build(seats, new HashSet<>(reservations.findLiveSeatIds(eventId)));
+    }
+
+    private void checkQuantity(int quantity) {
+        if (quantity < 1 || quantity > maxSeatsPerHold) {
+            throw new IllegalArgumentException("A hold must cover between 1 and " + maxSeatsPerHold + " seats");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.eventplanner.seating;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+
+/** A physical seat of an event's floor plan (seat_inventory, written by the floor plan editor). */
+@Entity
+@Table(name = "seat_inventory")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class SeatInventory {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "section", nullable = false)
+    private String section;
+
+    @Column(name = "row_number", nullable = false)
+    private String rowNumber;
+
+    @Column(name = "seat_number", nullable = false)
+    private String seatNumber;
+
+    @Column(name = "seat_type")
+    private String seatType;
+
+    @Column(name = "base_price")
+    private BigDecimal basePrice;
+
+    @Column(name = "is_available")
+    private Boolean available;
+
+    @Column(name = "tenant_id")
+    private String tenantId;
+}
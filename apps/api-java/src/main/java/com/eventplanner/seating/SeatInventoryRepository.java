@@ -0,0 +1,9 @@
+package com.eventplanner.seating;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface SeatInventoryRepository extends JpaRepository<SeatInventory, Long> {
+    List<SeatInventory> findByEventId(Long eventId);
+}
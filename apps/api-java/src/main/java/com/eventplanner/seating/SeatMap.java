@@ -0,0 +1,232 @@
+package com.eventplanner.seating;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free availability bitmap for one event. Seats are indexed in section/row/seat order so
+ * every row is a contiguous index range; a set bit means the seat is not available. Bits are
+ * claimed by compare-and-set, so concurrent holds on the same seat cannot both succeed.
+ */
+final class SeatMap {
+    record Row(String section, String row, int from, int to) {}
+
+    private static final Comparator<SeatInventory> SEAT_ORDER = Comparator
+            .comparing(SeatInventory::getSection, SeatMap::compareNatural)
+            .thenComparing(SeatInventory::getRowNumber, SeatMap::compareNatural)
+            .thenComparing(SeatInventory::getSeatNumber, SeatMap::compareNatural);
+
+    private final long[] seatIds;
+    private final Map<Long, Integer> indexBySeatId;
+    private final List<Row> rows;
+    private final AtomicLongArray taken;
+    private final long builtAtNanos = System.nanoTime();
+
+    private SeatMap(long[] seatIds, Map<Long, Integer> indexBySeatId, List<Row> rows) {
+        this.seatIds = seatIds;
+        this.indexBySeatId = indexBySeatId;
+        this.rows = rows;
+        this.taken = new AtomicLongArray((seatIds.length + 63) / 64);
+    }
+
+    /** {@code unavailable} are seat ids already held or sold. */
+    static SeatMap build(List<SeatInventory> seats, Set<Long> unavailable) {
+        List<SeatInventory> ordered = new ArrayList<>(seats);
+        ordered.sort(SEAT_ORDER);
+        long[] ids = new long[ordered.size()];
+        Map<Long, Integer> index = new HashMap<>(ordered.size() * 2);
+        List<Row> rows = new ArrayList<>();
+        int rowStart = 0;
+        for (int i = 0; i < ordered.size(); i++) {
+            SeatInventory seat = ordered.get(i);
+            ids[i] = seat.getId();
+            index.put(seat.getId(), i);
+            boolean rowEnds = i + 1 == ordered.size()
+                    || !seat.getSection().equals(ordered.get(i + 1).getSection())
+                    || !seat.getRowNumber().equals(ordered.get(i + 1).getRowNumber());
+            if (rowEnds) {
+                rows.add(new Row(seat.getSection(), seat.getRowNumber(), rowStart, i + 1));
+                rowStart = i + 1;
+            }
+        }
+        SeatMap map = new SeatMap(ids, index, List.copyOf(rows));
+        for (int i = 0; i < ordered.size(); i++) {
+            SeatInventory seat = ordered.get(i);
+            if (Boolean.FALSE.equals(seat.getAvailable()) || unavailable.contains(seat.getId())) {
+                map.trySet(i);
+            }
+        }
+        return map;
+    }
+
+    long ageNanos() {
+        return System.nanoTime() - builtAtNanos;
+    }
+
+    /** Index of each seat id; throws when a seat is not part of this event. */
+    int[] indexesOf(Collection<Long> ids) {
+        int[] indexes = new int[ids.size()];
+        int i = 0;
+        for (Long id : ids) {
+            Integer index = indexBySeatId.get(id);
+            if (index == null) throw new IllegalArgumentException("Seat " + id + " is not part of this event");
+            indexes[i++] = index;
+        }
+        return indexes;
+    }
+
+    List<Long> seatIdsOf(int[] indexes) {
+        List<Long> ids = new ArrayList<>(indexes.length);
+        for (int index : indexes) ids.add(seatIds[index]);
+        return ids;
+    }
+
+    /** Claims all seats or none. */
+    boolean tryTake(int[] indexes) {
+        for (int i = 0; i < indexes.length; i++) {
+            if (!trySet(indexes[i])) {
+                for (int j = 0; j < i; j++) clear(indexes[j]);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void free(int[] indexes) {
+        for (int index : indexes) clear(index);
+    }
+
+    /**
+     * First run of {@code quantity} adjacent free seats in one row, front rows first, optionally
+     * limited to a section and row. The result is a snapshot; callers still claim it with
+     * {@link #tryTake} and search again if they lose the race.
+     */
+    int[] findBlock(String section, String row, int quantity) {
+        for (Row r : rows) {
+            if (section != null && !section.equalsIgnoreCase(r.section())) continue;
+            if (row != null && !row.equalsIgnoreCase(r.row())) continue;
+            int run = 0;
+            for (int i = r.from(); i < r.to(); i++) {
+                run = isTaken(i) ? 0 : run + 1;
+                if (run == quantity) {
+                    int[] block = new int[quantity];
+                    for (int k = 0; k < quantity; k++) block[k] = i - quantity + 1 + k;
+                    return block;
+                }
+            }
+        }
+        return null;
+    }
+
+    int size() {
+        return seatIds.length;
+    }
+
+    boolean sameLayout(SeatMap other) {
+        return Arrays.equals(seatIds, other.seatIds);
+    }
+
+    boolean isTakenAt(int index) {
+        return isTaken(index);
+    }
+
+    /** Applies a change made elsewhere (another node); unknown seats are ignored. */
+    int[] apply(Collection<Long> ids, boolean taken) {
+        int[] indexes = ids.stream().map(indexBySeatId::get).filter(Objects::nonNull).mapToInt(Integer::intValue).toArray();
+        for (int index : indexes) {
+            if (taken) trySet(index); else clear(index);
+        }
+        return indexes;
+    }
+
+    /** Seat ids in index order as {@code [firstId, count]} runs; ids are usually sequential per event. */
+    List<long[]> seatIdRuns() {
+        List<long[]> runs = new ArrayList<>();
+        for (long id : seatIds) {
+            long[] last = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+            if (last != null && last[0] + last[1] == id) {
+                last[1]++;
+            } else {
+                runs.add(new long[] {id, 1});
+            }
+        }
+        return runs;
+    }
+
+    /** One bit per seat index (bit {@code i & 7} of byte {@code i >> 3}), set when taken. */
+    byte[] takenBits() {
+        byte[] bits = new byte[(seatIds.length + 7) / 8];
+        for (int i = 0; i < seatIds.length; i++) {
+            if (isTaken(i)) bits[i >>> 3] |= (byte) (1 << (i & 7));
+        }
+        return bits;
+    }
+
+    /** Free seat count per section, in floor plan order. */
+    Map<String, Integer> availableBySection() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Row r : rows) {
+            int free = 0;
+            for (int i = r.from(); i < r.to(); i++) {
+                if (!isTaken(i)) free++;
+            }
+            counts.merge(r.section(), free, Integer::sum);
+        }
+        return counts;
+    }
+
+    private boolean isTaken(int index) {
+        return (taken.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    private boolean trySet(int index) {
+        int word = index >>> 6;
+        long mask = 1L << index;
+        while (true) {
+            long current = taken.get(word);
+            if ((current & mask) != 0) return false;
+            if (taken.compareAndSet(word, current, current | mask)) return true;
+        }
+    }
+
+    private void clear(int index) {
+        int word = index >>> 6;
+        long mask = 1L << index;
+        while (true) {
+            long current = taken.get(word);
+            if (taken.compareAndSet(word, current, current & ~mask)) return;
+        }
+    }
+
+    /** Orders "A2" before "A10": digit runs compare by value, everything else case-insensitively. */
+    static int compareNatural(String a, String b) {
+        int i = 0, j = 0;
+        while (i < a.length() && j < b.length()) {
+            char ca = a.charAt(i), cb = b.charAt(j);
+            if (Character.isDigit(ca) && Character.isDigit(cb)) {
+                int si = i, sj = j;
+                while (i < a.length() && Character.isDigit(a.charAt(i))) i++;
+                while (j < b.length() && Character.isDigit(b.charAt(j))) j++;
+                String na = a.substring(si, i).replaceFirst("^0+(?=.)", "");
+                String nb = b.substring(sj, j).replaceFirst("^0+(?=.)", "");
+                int cmp = na.length() != nb.length() ? Integer.compare(na.length(), nb.length()) : na.compareTo(nb);
+                if (cmp != 0) return cmp;
+            } else {
+                int cmp = Character.compare(Character.toLowerCase(ca), Character.toLowerCase(cb));
+                if (cmp != 0) return cmp;
+                i++;
+                j++;
+            }
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+}
@@ -0,0 +1,171 @@
+package com.eventplanner.seating;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.eventplanner.common.SseOutbox;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live seat availability over SSE. A viewer first receives one {@code snapshot} (seat ids as
+ * {@code [firstId, count]} runs plus a base64 bitmap of taken seats, both in seat index order),
+ * then {@code delta} events listing the indexes that became taken or free. Changes are coalesced
+ * per event and flushed once per tick, and each payload is serialized once for all viewers.
+ * Deltas carry absolute states, so one that is already reflected in a snapshot is harmless.
+ *
+ * <p>Ticks and heartbeats only enqueue: every viewer has its own bounded {@link SseOutbox}
+ * drained by a virtual thread, so a stalled client never holds up the scheduler.
+ */
+@Component
+@Slf4j
+public class SeatMapStream {
+    private final Map<Long, Viewers> viewersByEvent = new ConcurrentHashMap<>();
+    // Latest state per seat index since the last flush; only mutated inside compute()
+    private final Map<Long, Map<Integer, Boolean>> pending = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("seatmap-sse-", 0).factory());
+    private final int queueCapacity;
+
+    public SeatMapStream(ObjectMapper objectMapper,
+                         @Value("${eventplanner.seating.stream-queue-capacity:64}") int queueCapacity) {
+        this.objectMapper = objectMapper;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * An event's viewers and delta version. Frames are enqueued under its monitor, so each
+     * viewer's queue holds the snapshot ahead of any delta; it is dropped with its last viewer.
+     */
+    private static final class Viewers {
+        final List<SseOutbox> outboxes = new CopyOnWriteArrayList<>();
+        final AtomicLong version = new AtomicLong();
+        boolean removed;
+    }
+
+    SseEmitter subscribe(Long eventId, SeatMap map) {
+        SseEmitter emitter = new SseEmitter(0L); // no timeout
+        while (true) {
+            Viewers viewers = viewersByEvent.computeIfAbsent(eventId, k -> new Viewers());
+            synchronized (viewers) {
+                if (viewers.removed) continue; // Lost a race with the last viewer leaving; take the new entry
+                SseOutbox outbox = new SseOutbox(emitter, queueCapacity, senders, () -> leave(eventId, viewers));
+                // Registered before the bitmap is read, so no change can fall between snapshot and deltas
+                viewers.outboxes.add(outbox);
+                String snapshot = json("snapshot", eventId, snapshot(viewers, map));
+                if (snapshot != null) outbox.send(SseOutbox.Frame.json("snapshot", snapshot));
+                return emitter;
+            }
+        }
+    }
+
+    boolean hasViewers(Long eventId) {
+        Viewers viewers = viewersByEvent.get(eventId);
+        return viewers != null && !viewers.outboxes.isEmpty();
+    }
+
+    void changed(Long eventId, int[] indexes, boolean taken) {
+        if (indexes.length == 0 || !hasViewers(eventId)) return;
+        pending.compute(eventId, (id, changes) -> {
+            Map<Integer, Boolean> merged = changes != null ? changes : new HashMap<>();
+            for (int index : indexes) merged.put(index, taken);
+            return merged;
+        });
+    }
+
+    /** The event's seat layout changed; every viewer gets a fresh snapshot. */
+    void reset(Long eventId, SeatMap map) {
+        pending.remove(eventId);
+        Viewers viewers = viewersByEvent.get(eventId);
+        if (viewers == null) return;
+        synchronized (viewers) {
+            broadcast(eventId, viewers, "snapshot", snapshot(viewers, map));
+        }
+    }
+
+    @Scheduled(fixedRateString = "${eventplanner.seating.stream-tick-ms:100}")
+    public void flush() {
+        for (Long eventId : pending.keySet()) {
+            Map<Integer, Boolean> changes = pending.remove(eventId);
+            Viewers viewers = viewersByEvent.get(eventId);
+            if (changes == null || viewers == null) continue;
+            List<Integer> taken = new ArrayList<>();
+            List<Integer> free = new ArrayList<>();
+            changes.forEach((index, isTaken) -> (isTaken ? taken : free).add(index));
+            taken.sort(null);
+            free.sort(null);
+            synchronized (viewers) {
+                Map<String, Object> delta = new LinkedHashMap<>();
+                delta.put("version", viewers.version.incrementAndGet());
+                delta.put("taken", taken);
+                delta.put("free", free);
+                broadcast(eventId, viewers, "delta", delta);
+            }
+        }
+    }
+
+    // Keeps idle connections open through proxies; a ping that cannot be written closes the viewer
+    @Scheduled(fixedRate = 15_000)
+    public void heartbeat() {
+        viewersByEvent.values().forEach(viewers -> viewers.outboxes.forEach(outbox -> outbox.send(SseOutbox.Frame.PING)));
+    }
+
+    private void leave(Long eventId, Viewers viewers) {
+        synchronized (viewers) {
+            viewers.outboxes.removeIf(SseOutbox::isClosed);
+            if (viewers.outboxes.isEmpty() && !viewers.removed) {
+                viewers.removed = true;
+                viewersByEvent.remove(eventId, viewers);
+                pending.remove(eventId);
+            }
+        }
+    }
+
+    private Map<String, Object> snapshot(Viewers viewers, SeatMap map) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("version", viewers.version.get());
+        snapshot.put("seats", map.size());
+        snapshot.put("seatIdRuns", map.seatIdRuns());
+        snapshot.put("taken", Base64.getEncoder().encodeToString(map.takenBits()));
+        return snapshot;
+    }
+
+    private void broadcast(Long eventId, Viewers viewers, String name, Object payload) {
+        String json = json(name, eventId, payload);
+        if (json == null) return;
+        SseOutbox.Frame frame = SseOutbox.Frame.json(name, json);
+        for (SseOutbox outbox : viewers.outboxes) {
+            outbox.send(frame);
+        }
+    }
+
+    private String json(String name, Long eventId, Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.warn("[SeatMapStream] could not serialize {} for event {}: {}", name, eventId, e.getMessage());
+            return null;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+    }
+}
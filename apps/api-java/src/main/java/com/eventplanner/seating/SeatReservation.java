@@ -0,0 +1,54 @@
+package com.eventplanner.seating;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.OffsetDateTime;
+
+/**
+ * A hold on or sale of one seat. Live statuses are RESERVED/LOCKED (until {@code expiresAt}) and
+ * CONFIRMED; EXPIRED and CANCELLED rows are history. The web app writes this table too.
+ */
+@Entity
+@Table(name = "seat_reservations")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class SeatReservation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "seat_id")
+    private Long seatId;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "hold_id", length = 36)
+    private String holdId;
+
+    @Column(name = "user_email")
+    private String userEmail;
+
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    @Column(name = "expires_at")
+    private OffsetDateTime expiresAt;
+
+    @Column(name = "payment_status")
+    private String paymentStatus;
+
+    @Column(name = "registration_id")
+    private Long registrationId;
+
+    @Column(name = "confirmed_at")
+    private OffsetDateTime confirmedAt;
+
+    @Column(name = "tenant_id")
+    private String tenantId;
+
+    @Column(name = "created_at")
+    private OffsetDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+}
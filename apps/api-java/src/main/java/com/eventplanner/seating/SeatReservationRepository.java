@@ -0,0 +1,60 @@
+package com.eventplanner.seating;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface SeatReservationRepository extends JpaRepository<SeatReservation, Long> {
+
+    @Query(value = "SELECT seat_id FROM seat_reservations WHERE event_id = :eventId " +
+            "AND status IN ('RESERVED', 'LOCKED', 'CONFIRMED') AND (expires_at IS NULL OR expires_at > NOW())",
+            nativeQuery = true)
+    List<Long> findLiveSeatIds(@Param("eventId") Long eventId);
+
+    // Lapsed holds still count for the live-seat unique index until they are marked EXPIRED
+    @Modifying
+    @Query(value = "UPDATE seat_reservations SET status = 'EXPIRED', updated_at = NOW() " +
+            "WHERE seat_id IN (:seatIds) AND status IN ('RESERVED', 'LOCKED') AND expires_at < NOW()",
+            nativeQuery = true)
+    int expireLapsed(@Param("seatIds") Collection<Long> seatIds);
+
+    // One row per seat; fails on uq_seat_res_live_seat if any seat is already live elsewhere
+    @Modifying
+    @Query(value = "INSERT INTO seat_reservations " +
+            "(seat_id, event_id, hold_id, user_email, status, expires_at, tenant_id, created_at, updated_at) " +
+            "SELECT si.id, si.event_id, :holdId, :email, 'RESERVED', :expiresAt, si.tenant_id, NOW(), NOW() " +
+            "FROM seat_inventory si WHERE si.event_id = :eventId AND si.id IN (:seatIds)",
+            nativeQuery = true)
+    int insertHold(@Param("eventId") Long eventId,
+                   @Param("seatIds") Collection<Long> seatIds,
+                   @Param("holdId") String holdId,
+                   @Param("email") String email,
+                   @Param("expiresAt") OffsetDateTime expiresAt);
+
+    @Modifying
+    @Query(value = "UPDATE seat_reservations SET status = 'CONFIRMED', confirmed_at = NOW(), expires_at = NULL, " +
+            "payment_status = :paymentStatus, registration_id = :registrationId, updated_at = NOW() " +
+            "WHERE event_id = :eventId AND hold_id = :holdId AND status IN ('RESERVED', 'LOCKED') " +
+            "AND expires_at > NOW()", nativeQuery = true)
+    int confirmHold(@Param("eventId") Long eventId,
+                    @Param("holdId") String holdId,
+                    @Param("registrationId") Long registrationId,
+                    @Param("paymentStatus") String paymentStatus);
+
+    @Modifying
+    @Query(value = "UPDATE seat_reservations SET status = 'CANCELLED', updated_at = NOW() " +
+            "WHERE event_id = :eventId AND hold_id = :holdId AND status IN ('RESERVED', 'LOCKED')",
+            nativeQuery = true)
+    int releaseHold(@Param("eventId") Long eventId, @Param("holdId") String holdId);
+
+    // Same predicate as expireLapsed: a lapsed LOCKED row would otherwise keep its seat off sale
+    @Modifying
+    @Query(value = "UPDATE seat_reservations SET status = 'EXPIRED', updated_at = NOW() " +
+            "WHERE status IN ('RESERVED', 'LOCKED') AND expires_at < :now", nativeQuery = true)
+    int expireAll(@Param("now") OffsetDateTime now);
+}
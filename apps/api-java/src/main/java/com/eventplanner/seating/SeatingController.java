@@ -0,0 +1,62 @@
+package com.eventplanner.seating;
+
+import com.eventplanner.seating.dto.SeatAvailabilityDto;
+import com.eventplanner.seating.dto.SeatConfirmRequest;
+import com.eventplanner.seating.dto.SeatHoldDto;
+import com.eventplanner.seating.dto.SeatHoldRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events/{eventId}/seating")
+public class SeatingController {
+
+    private final SeatHoldService seatHoldService;
+
+    public SeatingController(SeatHoldService seatHoldService) {
+        this.seatHoldService = seatHoldService;
+    }
+
+    @GetMapping("/availability")
+    public ResponseEntity<SeatAvailabilityDto> availability(@PathVariable Long eventId) {
+        return ResponseEntity.ok(seatHoldService.availability(eventId));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PathVariable Long eventId) {
+        return seatHoldService.subscribe(eventId);
+    }
+
+    // Explicit seats when seatIds is given, otherwise the best available block of quantity seats
+    @PostMapping("/holds")
+    public ResponseEntity<SeatHoldDto> hold(@PathVariable Long eventId, @RequestBody SeatHoldRequest request) {
+        SeatHoldDto hold;
+        if (request.seatIds() != null && !request.seatIds().isEmpty()) {
+            hold = seatHoldService.hold(eventId, request.seatIds(), request.email());
+        } else if (request.quantity() != null) {
+            hold = seatHoldService.holdBestAvailable(eventId, request.section(), request.row(),
+                    request.quantity(), request.email());
+        } else {
+            throw new IllegalArgumentException("seatIds or quantity is required");
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+    }
+
+    @PostMapping("/holds/{holdId}/confirm")
+    public ResponseEntity<Void> confirm(@PathVariable Long eventId, @PathVariable String holdId,
+                                        @RequestBody(required = false) SeatConfirmRequest request) {
+        seatHoldService.confirm(eventId, holdId,
+                request != null ? request.registrationId() : null,
+                request != null ? request.paymentStatus() : null);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<Void> release(@PathVariable Long eventId, @PathVariable String holdId) {
+        seatHoldService.release(eventId, holdId);
+        return ResponseEntity.noContent().build();
+    }
+}
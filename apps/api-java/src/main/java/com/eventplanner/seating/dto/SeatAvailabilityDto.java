@@ -0,0 +1,10 @@
+package com.eventplanner.seating.dto;
+
+import java.util.Map;
+
+public record SeatAvailabilityDto(
+        Long eventId,
+        int totalSeats,
+        int availableSeats,
+        Map<String, Integer> availableBySection
+) {}
@@ -0,0 +1,6 @@
+package com.eventplanner.seating.dto;
+
+public record SeatConfirmRequest(
+        Long registrationId,
+        String paymentStatus
+) {}
@@ -0,0 +1,11 @@
+package com.eventplanner.seating.dto;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public record SeatHoldDto(
+        String holdId,
+        Long eventId,
+        List<Long> seatIds,
+        OffsetDateTime expiresAt
+) {}
@@ -0,0 +1,12 @@
+package com.eventplanner.seating.dto;
+
+import java.util.List;
+
+/** Either explicit {@code seatIds}, or {@code quantity} (plus optional section/row) for best available. */
+public record SeatHoldRequest(
+        List<Long> seatIds,
+        Integer quantity,
+        String section,
+        String row,
+        String email
+) {}
@@ -0,0 +1,14 @@
+package com.eventplanner.util;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (cursor) listing. Unlike {@code Page}, no total count is computed;
+ * {@code nextCursor} is null on the last page.
+ */
+public record CursorPage<T>(
+        List<T> content,
+        String nextCursor,
+        boolean hasNext,
+        int size
+) {}
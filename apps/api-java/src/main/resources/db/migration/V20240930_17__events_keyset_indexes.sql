@@ -0,0 +1,5 @@
+-- Composite (sort key, id) indexes backing keyset pagination of event listings
+CREATE INDEX IF NOT EXISTS idx_events_tenant_created_id ON events (tenant_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_events_tenant_starts_id ON events (tenant_id, starts_at, id);
+CREATE INDEX IF NOT EXISTS idx_events_tenant_updated_id ON events (tenant_id, updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_events_created_id ON events (created_at, id);
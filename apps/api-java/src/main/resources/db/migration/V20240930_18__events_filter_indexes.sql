@@ -0,0 +1,20 @@
+-- Indexes backing the EventSpecifications listing filters.
+--
+-- Plain rather than partial indexes: the lifecycle statuses reach Postgres as bind parameters,
+-- and a generic plan never matches a partial index predicate. The status filter is applied to
+-- the rows the range scan returns; CANCELLED/TRASHED events are a small share of any tenant.
+-- Already covered elsewhere: (tenant_id, starts_at) by idx_events_tenant_starts_id (V20240930_17),
+-- starts_at/ends_at alone by V2, and (tenant_id, event_mode) by the mode/starts prefix below.
+
+-- DRAFT / LIVE: range on starts_at
+CREATE INDEX IF NOT EXISTS idx_events_tenant_mode_starts ON events (tenant_id, event_mode, starts_at);
+
+-- COMPLETED: range on ends_at
+CREATE INDEX IF NOT EXISTS idx_events_tenant_ends ON events (tenant_id, ends_at);
+CREATE INDEX IF NOT EXISTS idx_events_tenant_mode_ends ON events (tenant_id, event_mode, ends_at);
+
+-- Explicit CANCELLED / TRASHED listings
+CREATE INDEX IF NOT EXISTS idx_events_tenant_status ON events (tenant_id, status);
+
+-- City filter compares lower(city)
+CREATE INDEX IF NOT EXISTS idx_events_tenant_city_lower ON events (tenant_id, lower(city));
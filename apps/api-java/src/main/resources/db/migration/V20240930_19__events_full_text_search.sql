@@ -0,0 +1,17 @@
+-- Full-text search for events: weighted generated tsvector (GIN) plus pg_trgm indexes
+-- for fuzzy name matching, autocomplete and the keyset-mode substring filter in EventSpecifications.text
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE events ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+  setweight(to_tsvector('english'::regconfig, coalesce(name, '')), 'A') ||
+  setweight(to_tsvector('english'::regconfig, coalesce(venue, '') || ' ' || coalesce(city, '')), 'B') ||
+  setweight(to_tsvector('english'::regconfig, coalesce(address, '')), 'C') ||
+  setweight(to_tsvector('english'::regconfig, coalesce(description, '')), 'D')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_events_search_vector ON events USING GIN (search_vector);
+
+CREATE INDEX IF NOT EXISTS idx_events_name_trgm ON events USING GIN (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_events_venue_trgm ON events USING GIN (lower(venue) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_events_address_trgm ON events USING GIN (lower(address) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_events_description_trgm ON events USING GIN (lower(description) gin_trgm_ops);
@@ -0,0 +1,6 @@
+-- Spatial index for "events near me" radius queries (earthdistance over cube)
+CREATE EXTENSION IF NOT EXISTS cube;
+CREATE EXTENSION IF NOT EXISTS earthdistance;
+
+CREATE INDEX IF NOT EXISTS idx_events_location_earth ON events USING GIST (ll_to_earth(latitude, longitude))
+  WHERE latitude IS NOT NULL AND longitude IS NOT NULL;
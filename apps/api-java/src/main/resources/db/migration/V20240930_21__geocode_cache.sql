@@ -0,0 +1,12 @@
+-- Persistent geocode answers shared by all nodes; NULL lat/lon is a cached "no result"
+CREATE TABLE IF NOT EXISTS geocode_cache (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  city_key VARCHAR(200) NOT NULL,
+  country_codes VARCHAR(64) NOT NULL DEFAULT '',
+  city VARCHAR(200),
+  lat DOUBLE PRECISION,
+  lon DOUBLE PRECISION,
+  resolved_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+  expires_at TIMESTAMPTZ NOT NULL,
+  CONSTRAINT uq_geocode_cache_key UNIQUE (city_key, country_codes)
+);
@@ -0,0 +1,10 @@
+-- Resume positions for scan jobs (GeocodeBackfillJob)
+CREATE TABLE IF NOT EXISTS job_checkpoints (
+  job_name VARCHAR(100) PRIMARY KEY,
+  last_id BIGINT NOT NULL,
+  updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+-- Keyset scan over events still missing coordinates
+CREATE INDEX IF NOT EXISTS idx_events_missing_coords ON events (id)
+  WHERE latitude IS NULL OR longitude IS NULL;
@@ -0,0 +1,7 @@
+-- Materialized agenda per event (serialized day/track/session tree), maintained on session writes
+CREATE TABLE IF NOT EXISTS agenda_projections (
+  event_id BIGINT PRIMARY KEY REFERENCES events(id) ON DELETE CASCADE,
+  version BIGINT NOT NULL,
+  body TEXT NOT NULL,
+  updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
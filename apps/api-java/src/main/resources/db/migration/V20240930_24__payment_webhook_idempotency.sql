@@ -0,0 +1,30 @@
+-- Webhook lookups go by intent id; one payment per intent. The unique index replaces the plain one.
+DROP INDEX IF EXISTS idx_payments_stripe;
+-- Rows from double submits share an intent: the SUCCEEDED one, else the newest, keeps it. The
+-- others are recorded here with the intent id before it is cleared, so no Stripe link is lost.
+CREATE TABLE IF NOT EXISTS payment_intent_duplicates (
+  payment_id BIGINT PRIMARY KEY,
+  stripe_payment_intent_id VARCHAR(255) NOT NULL,
+  kept_payment_id BIGINT NOT NULL,
+  detached_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+INSERT INTO payment_intent_duplicates (payment_id, stripe_payment_intent_id, kept_payment_id)
+SELECT id, stripe_payment_intent_id, kept_id
+  FROM (SELECT id, stripe_payment_intent_id, first_value(id) OVER w AS kept_id, row_number() OVER w AS rn
+          FROM payments WHERE stripe_payment_intent_id IS NOT NULL
+        WINDOW w AS (PARTITION BY stripe_payment_intent_id ORDER BY (status = 'SUCCEEDED') DESC, id DESC)) d
+  WHERE d.rn > 1
+ON CONFLICT (payment_id) DO NOTHING;
+UPDATE payments p SET stripe_payment_intent_id = NULL, updated_at = NOW()
+  FROM payment_intent_duplicates d
+  WHERE p.id = d.payment_id AND p.stripe_payment_intent_id = d.stripe_payment_intent_id;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_payments_stripe_intent ON payments (stripe_payment_intent_id)
+  WHERE stripe_payment_intent_id IS NOT NULL;
+
+-- Stripe event ids already applied, so redeliveries are no-ops
+CREATE TABLE IF NOT EXISTS stripe_webhook_events (
+  event_id VARCHAR(255) PRIMARY KEY,
+  event_type VARCHAR(100) NOT NULL,
+  received_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+CREATE INDEX IF NOT EXISTS idx_stripe_webhook_events_received ON stripe_webhook_events (received_at);
@@ -0,0 +1,19 @@
+-- stripe_webhook_events becomes a durable inbox: the webhook endpoint appends, a worker drains
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS seq BIGINT GENERATED BY DEFAULT AS IDENTITY;
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS payment_intent_id VARCHAR(255);
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS target_status VARCHAR(24);
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS payload TEXT;
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMPTZ NOT NULL DEFAULT NOW();
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS leased_until TIMESTAMPTZ;
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS processed_at TIMESTAMPTZ;
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS last_error TEXT;
+
+-- Rows recorded before the inbox existed were applied inline
+UPDATE stripe_webhook_events SET processed_at = received_at WHERE processed_at IS NULL AND payment_intent_id IS NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_stripe_webhook_events_seq ON stripe_webhook_events (seq);
+CREATE INDEX IF NOT EXISTS idx_stripe_webhook_events_pending ON stripe_webhook_events (seq)
+  WHERE processed_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_stripe_webhook_events_intent_pending ON stripe_webhook_events (payment_intent_id, seq)
+  WHERE processed_at IS NULL;
@@ -0,0 +1,25 @@
+-- Time-boxed stock reservations taken when a payment intent is created
+CREATE TABLE IF NOT EXISTS ticket_holds (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  ticket_id BIGINT NOT NULL REFERENCES tickets(id) ON DELETE CASCADE,
+  quantity INTEGER NOT NULL,
+  shard_no INTEGER,
+  payment_intent_id VARCHAR(255),
+  status VARCHAR(16) NOT NULL DEFAULT 'HELD',
+  expires_at TIMESTAMPTZ NOT NULL,
+  created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+CREATE UNIQUE INDEX IF NOT EXISTS uq_ticket_holds_intent ON ticket_holds (payment_intent_id)
+  WHERE payment_intent_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_ticket_holds_expiring ON ticket_holds (expires_at) WHERE status = 'HELD';
+
+-- Optional split counters for very hot ticket classes (tickets.inventory_shards > 0)
+ALTER TABLE tickets ADD COLUMN IF NOT EXISTS inventory_shards INTEGER NOT NULL DEFAULT 0;
+CREATE TABLE IF NOT EXISTS ticket_inventory_shards (
+  ticket_id BIGINT NOT NULL REFERENCES tickets(id) ON DELETE CASCADE,
+  shard_no INTEGER NOT NULL,
+  capacity INTEGER NOT NULL,
+  taken INTEGER NOT NULL DEFAULT 0,
+  PRIMARY KEY (ticket_id, shard_no),
+  CONSTRAINT ck_ticket_inventory_shards_taken CHECK (taken >= 0)
+);
@@ -0,0 +1,16 @@
+-- Seats held together share a hold id so they are confirmed or released as one
+ALTER TABLE seat_reservations ADD COLUMN IF NOT EXISTS hold_id VARCHAR(36);
+CREATE INDEX IF NOT EXISTS idx_seat_res_hold ON seat_reservations (hold_id) WHERE hold_id IS NOT NULL;
+
+-- Retire holds that already ran out, then any hold on a sold seat or behind an older hold
+UPDATE seat_reservations SET status = 'EXPIRED', updated_at = NOW()
+  WHERE status IN ('RESERVED', 'LOCKED') AND expires_at < NOW();
+UPDATE seat_reservations r SET status = 'EXPIRED', updated_at = NOW()
+  WHERE r.status IN ('RESERVED', 'LOCKED')
+    AND EXISTS (SELECT 1 FROM seat_reservations o
+                WHERE o.seat_id = r.seat_id AND o.id <> r.id
+                  AND (o.status = 'CONFIRMED' OR (o.status IN ('RESERVED', 'LOCKED') AND o.id < r.id)));
+
+-- At most one live reservation per seat, whichever service writes it
+CREATE UNIQUE INDEX IF NOT EXISTS uq_seat_res_live_seat ON seat_reservations (seat_id)
+  WHERE status IN ('RESERVED', 'LOCKED', 'CONFIRMED');
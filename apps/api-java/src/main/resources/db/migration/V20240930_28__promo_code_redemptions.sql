@@ -0,0 +1,24 @@
+-- One row per redemption; the user's idempotency key makes client retries return the original redemption
+CREATE TABLE IF NOT EXISTS promo_code_redemptions (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  promo_code_id BIGINT NOT NULL REFERENCES promo_codes(id) ON DELETE CASCADE,
+  user_key VARCHAR(255) NOT NULL,
+  idempotency_key VARCHAR(128) NOT NULL,
+  order_amount INTEGER,
+  discount_amount INTEGER NOT NULL,
+  status VARCHAR(16) NOT NULL DEFAULT 'REDEEMED',
+  created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+CREATE INDEX IF NOT EXISTS idx_promo_redemptions_user ON promo_code_redemptions (promo_code_id, user_key);
+-- A key belongs to one user, and a reversed redemption frees it for a fresh attempt
+CREATE UNIQUE INDEX IF NOT EXISTS uq_promo_redemptions_live_key
+  ON promo_code_redemptions (promo_code_id, user_key, idempotency_key) WHERE status = 'REDEEMED';
+
+-- Per-user use counters, bumped by a conditional upsert so max_uses_per_user holds under concurrency
+CREATE TABLE IF NOT EXISTS promo_code_user_uses (
+  promo_code_id BIGINT NOT NULL REFERENCES promo_codes(id) ON DELETE CASCADE,
+  user_key VARCHAR(255) NOT NULL,
+  used INTEGER NOT NULL DEFAULT 0,
+  PRIMARY KEY (promo_code_id, user_key),
+  CONSTRAINT ck_promo_code_user_uses_used CHECK (used >= 0)
+);
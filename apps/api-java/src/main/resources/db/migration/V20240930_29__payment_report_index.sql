@@ -0,0 +1,4 @@
+-- Per-event payment scans for reports and listings; the included columns make the
+-- dashboard aggregates index-only
+CREATE INDEX IF NOT EXISTS idx_payments_event_created ON payments (event_id, created_at DESC)
+  INCLUDE (status, amount_in_minor);
@@ -0,0 +1,20 @@
+-- Append-only check-in ledger; a re-scan of the same code at the same door hits the unique key.
+-- scope_ref is 0 for event-wide check-ins so the key never contains NULL.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE TABLE IF NOT EXISTS check_ins (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  event_id BIGINT NOT NULL,
+  scope VARCHAR(16) NOT NULL,
+  scope_ref BIGINT NOT NULL DEFAULT 0,
+  code VARCHAR(255) NOT NULL,
+  name VARCHAR(255),
+  attendee_id VARCHAR(64),
+  checked_in_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+  CONSTRAINT uq_check_ins_scan UNIQUE (event_id, scope, scope_ref, code)
+);
+-- Prefix search on code and name, trigram search on name
+CREATE INDEX IF NOT EXISTS idx_check_ins_code_prefix ON check_ins (event_id, lower(code) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_check_ins_name_prefix ON check_ins (event_id, lower(name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_check_ins_name_trgm ON check_ins USING GIN (lower(name) gin_trgm_ops);
+-- Device-generated id of the scan that created the row, so a retried request is recognised
+ALTER TABLE check_ins ADD COLUMN IF NOT EXISTS client_scan_id VARCHAR(64);
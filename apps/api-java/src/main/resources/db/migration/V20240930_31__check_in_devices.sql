@@ -0,0 +1,6 @@
+-- Scanner that recorded the check-in; offline scans synced later keep their own device and time
+ALTER TABLE check_ins ADD COLUMN IF NOT EXISTS device_id VARCHAR(64);
+-- Earliest known scan when an offline scan synced later predates the recorded one; the
+-- recorded columns are never rewritten
+ALTER TABLE check_ins ADD COLUMN IF NOT EXISTS first_scan_at TIMESTAMPTZ;
+ALTER TABLE check_ins ADD COLUMN IF NOT EXISTS first_scan_device_id VARCHAR(64);
@@ -50,7 +50,28 @@ CREATE TABLE IF NOT EXISTS payments (
   updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
 );
 
-CREATE INDEX IF NOT EXISTS idx_payments_stripe ON payments(stripe_payment_intent_id);
+-- One payment per intent (see V20240930_24__payment_webhook_idempotency.sql)
+DROP INDEX IF EXISTS idx_payments_stripe;
+-- Rows from double submits share an intent: the SUCCEEDED one, else the newest, keeps it. The
+-- others are recorded here with the intent id before it is cleared, so no Stripe link is lost.
+CREATE TABLE IF NOT EXISTS payment_intent_duplicates (
+  payment_id BIGINT PRIMARY KEY,
+  stripe_payment_intent_id VARCHAR(255) NOT NULL,
+  kept_payment_id BIGINT NOT NULL,
+  detached_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+INSERT INTO payment_intent_duplicates (payment_id, stripe_payment_intent_id, kept_payment_id)
+SELECT id, stripe_payment_intent_id, kept_id
+  FROM (SELECT id, stripe_payment_intent_id, first_value(id) OVER w AS kept_id, row_number() OVER w AS rn
+          FROM payments WHERE stripe_payment_intent_id IS NOT NULL
+        WINDOW w AS (PARTITION BY stripe_payment_intent_id ORDER BY (status = 'SUCCEEDED') DESC, id DESC)) d
+  WHERE d.rn > 1
+ON CONFLICT (payment_id) DO NOTHING;
+UPDATE payments p SET stripe_payment_intent_id = NULL, updated_at = NOW()
+  FROM payment_intent_duplicates d
+  WHERE p.id = d.payment_id AND p.stripe_payment_intent_id = d.stripe_payment_intent_id;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_payments_stripe_intent ON payments(stripe_payment_intent_id)
+  WHERE stripe_payment_intent_id IS NOT NULL;
 
 ALTER TABLE payments ADD COLUMN IF NOT EXISTS subtotal_in_minor INTEGER;
 ALTER TABLE payments ADD COLUMN IF NOT EXISTS tax_amount_in_minor INTEGER;
@@ -335,3 +356,212 @@ CREATE TABLE IF NOT EXISTS payment_settings (
 );
 
 CREATE INDEX IF NOT EXISTS idx_payment_settings_event ON payment_settings(event_id);
+
+-- Event keyset pagination indexes (see V20240930_17__events_keyset_indexes.sql)
+CREATE INDEX IF NOT EXISTS idx_events_tenant_created_id ON events (tenant_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_events_tenant_starts_id ON events (tenant_id, starts_at, id);
+CREATE INDEX IF NOT EXISTS idx_events_tenant_updated_id ON events (tenant_id, updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_events_created_id ON events (created_at, id);
+
+-- Event listing filter indexes (see V20240930_18__events_filter_indexes.sql)
+CREATE INDEX IF NOT EXISTS idx_events_tenant_mode_starts ON events (tenant_id, event_mode, starts_at);
+CREATE INDEX IF NOT EXISTS idx_events_tenant_ends ON events (tenant_id, ends_at);
+CREATE INDEX IF NOT EXISTS idx_events_tenant_mode_ends ON events (tenant_id, event_mode, ends_at);
+CREATE INDEX IF NOT EXISTS idx_events_tenant_status ON events (tenant_id, status);
+CREATE INDEX IF NOT EXISTS idx_events_tenant_city_lower ON events (tenant_id, lower(city));
+
+-- Event full-text search (see V20240930_19__events_full_text_search.sql)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+ALTER TABLE events ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+  setweight(to_tsvector('english'::regconfig, coalesce(name, '')), 'A') ||
+  setweight(to_tsvector('english'::regconfig, coalesce(venue, '') || ' ' || coalesce(city, '')), 'B') ||
+  setweight(to_tsvector('english'::regconfig, coalesce(address, '')), 'C') ||
+  setweight(to_tsvector('english'::regconfig, coalesce(description, '')), 'D')
+) STORED;
+CREATE INDEX IF NOT EXISTS idx_events_search_vector ON events USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_events_name_trgm ON events USING GIN (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_events_venue_trgm ON events USING GIN (lower(venue) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_events_address_trgm ON events USING GIN (lower(address) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_events_description_trgm ON events USING GIN (lower(description) gin_trgm_ops);
+
+-- Event radius search (see V20240930_20__events_geo_index.sql)
+CREATE EXTENSION IF NOT EXISTS cube;
+CREATE EXTENSION IF NOT EXISTS earthdistance;
+CREATE INDEX IF NOT EXISTS idx_events_location_earth ON events USING GIST (ll_to_earth(latitude, longitude))
+  WHERE latitude IS NOT NULL AND longitude IS NOT NULL;
+
+-- Geocode cache (see V20240930_21__geocode_cache.sql)
+CREATE TABLE IF NOT EXISTS geocode_cache (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  city_key VARCHAR(200) NOT NULL,
+  country_codes VARCHAR(64) NOT NULL DEFAULT '',
+  city VARCHAR(200),
+  lat DOUBLE PRECISION,
+  lon DOUBLE PRECISION,
+  resolved_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+  expires_at TIMESTAMPTZ NOT NULL,
+  CONSTRAINT uq_geocode_cache_key UNIQUE (city_key, country_codes)
+);
+
+-- Scan job checkpoints (see V20240930_22__geocode_backfill_checkpoint.sql)
+CREATE TABLE IF NOT EXISTS job_checkpoints (
+  job_name VARCHAR(100) PRIMARY KEY,
+  last_id BIGINT NOT NULL,
+  updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+CREATE INDEX IF NOT EXISTS idx_events_missing_coords ON events (id)
+  WHERE latitude IS NULL OR longitude IS NULL;
+
+-- Agenda projections (see V20240930_23__agenda_projections.sql)
+CREATE TABLE IF NOT EXISTS agenda_projections (
+  event_id BIGINT PRIMARY KEY REFERENCES events(id) ON DELETE CASCADE,
+  version BIGINT NOT NULL,
+  body TEXT NOT NULL,
+  updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+-- Processed Stripe webhook events (see V20240930_24__payment_webhook_idempotency.sql)
+CREATE TABLE IF NOT EXISTS stripe_webhook_events (
+  event_id VARCHAR(255) PRIMARY KEY,
+  event_type VARCHAR(100) NOT NULL,
+  received_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+CREATE INDEX IF NOT EXISTS idx_stripe_webhook_events_received ON stripe_webhook_events (received_at);
+
+-- Stripe webhook inbox columns (see V20240930_25__stripe_webhook_inbox.sql)
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS seq BIGINT GENERATED BY DEFAULT AS IDENTITY;
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS payment_intent_id VARCHAR(255);
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS target_status VARCHAR(24);
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS payload TEXT;
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMPTZ NOT NULL DEFAULT NOW();
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS leased_until TIMESTAMPTZ;
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS processed_at TIMESTAMPTZ;
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS last_error TEXT;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_stripe_webhook_events_seq ON stripe_webhook_events (seq);
+CREATE INDEX IF NOT EXISTS idx_stripe_webhook_events_pending ON stripe_webhook_events (seq)
+  WHERE processed_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_stripe_webhook_events_intent_pending ON stripe_webhook_events (payment_intent_id, seq)
+  WHERE processed_at IS NULL;
+
+-- Ticket inventory holds and shards (see V20240930_26__ticket_inventory_holds.sql)
+CREATE TABLE IF NOT EXISTS ticket_holds (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  ticket_id BIGINT NOT NULL REFERENCES tickets(id) ON DELETE CASCADE,
+  quantity INTEGER NOT NULL,
+  shard_no INTEGER,
+  payment_intent_id VARCHAR(255),
+  status VARCHAR(16) NOT NULL DEFAULT 'HELD',
+  expires_at TIMESTAMPTZ NOT NULL,
+  created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+CREATE UNIQUE INDEX IF NOT EXISTS uq_ticket_holds_intent ON ticket_holds (payment_intent_id)
+  WHERE payment_intent_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_ticket_holds_expiring ON ticket_holds (expires_at) WHERE status = 'HELD';
+
+-- Optional split counters for very hot ticket classes (tickets.inventory_shards > 0)
+ALTER TABLE tickets ADD COLUMN IF NOT EXISTS inventory_shards INTEGER NOT NULL DEFAULT 0;
+CREATE TABLE IF NOT EXISTS ticket_inventory_shards (
+  ticket_id BIGINT NOT NULL REFERENCES tickets(id) ON DELETE CASCADE,
+  shard_no INTEGER NOT NULL,
+  capacity INTEGER NOT NULL,
+  taken INTEGER NOT NULL DEFAULT 0,
+  PRIMARY KEY (ticket_id, shard_no),
+  CONSTRAINT ck_ticket_inventory_shards_taken CHECK (taken >= 0)
+);
+
+-- Seating (see V14__seating_tables.sql, V15__seating_seed_demo.sql, V20240930_27__seat_holds.sql)
+CREATE TABLE IF NOT EXISTS seat_inventory (
+  id            BIGSERIAL PRIMARY KEY,
+  event_id      BIGINT NOT NULL,
+  section       TEXT   NOT NULL,
+  row_number    TEXT   NOT NULL,
+  seat_number   TEXT   NOT NULL,
+  seat_type     TEXT,
+  base_price    NUMERIC,
+  x_coordinate  NUMERIC,
+  y_coordinate  NUMERIC,
+  is_available  BOOLEAN DEFAULT TRUE,
+  tenant_id     TEXT,
+  created_at    TIMESTAMPTZ DEFAULT NOW(),
+  updated_at    TIMESTAMPTZ DEFAULT NOW()
+);
+CREATE INDEX IF NOT EXISTS idx_seat_inventory_event ON seat_inventory (event_id);
+CREATE TABLE IF NOT EXISTS seat_reservations (
+  id          BIGSERIAL PRIMARY KEY,
+  seat_id     BIGINT REFERENCES seat_inventory(id) ON DELETE CASCADE,
+  event_id    BIGINT NOT NULL,
+  user_email  TEXT,
+  status      TEXT NOT NULL,
+  expires_at  TIMESTAMPTZ,
+  created_at  TIMESTAMPTZ DEFAULT NOW(),
+  updated_at  TIMESTAMPTZ DEFAULT NOW()
+);
+ALTER TABLE seat_reservations
+  ADD COLUMN IF NOT EXISTS user_id BIGINT,
+  ADD COLUMN IF NOT EXISTS payment_status TEXT,
+  ADD COLUMN IF NOT EXISTS price_paid NUMERIC,
+  ADD COLUMN IF NOT EXISTS registration_id BIGINT,
+  ADD COLUMN IF NOT EXISTS confirmed_at TIMESTAMPTZ,
+  ADD COLUMN IF NOT EXISTS tenant_id TEXT,
+  ADD COLUMN IF NOT EXISTS hold_id VARCHAR(36);
+CREATE INDEX IF NOT EXISTS idx_seat_res_event ON seat_reservations (event_id);
+CREATE INDEX IF NOT EXISTS idx_seat_res_status_exp ON seat_reservations (status, expires_at);
+CREATE INDEX IF NOT EXISTS idx_seat_res_hold ON seat_reservations (hold_id) WHERE hold_id IS NOT NULL;
+-- Retire lapsed holds and holds behind a sale or an older hold, or the unique index cannot be built
+UPDATE seat_reservations SET status = 'EXPIRED', updated_at = NOW()
+  WHERE status IN ('RESERVED', 'LOCKED') AND expires_at < NOW();
+UPDATE seat_reservations r SET status = 'EXPIRED', updated_at = NOW()
+  WHERE r.status IN ('RESERVED', 'LOCKED')
+    AND EXISTS (SELECT 1 FROM seat_reservations o
+                WHERE o.seat_id = r.seat_id AND o.id <> r.id
+                  AND (o.status = 'CONFIRMED' OR (o.status IN ('RESERVED', 'LOCKED') AND o.id < r.id)));
+CREATE UNIQUE INDEX IF NOT EXISTS uq_seat_res_live_seat ON seat_reservations (seat_id)
+  WHERE status IN ('RESERVED', 'LOCKED', 'CONFIRMED');
+
+-- Promo redemption ledger and per-user counters (see V20240930_28__promo_code_redemptions.sql)
+CREATE TABLE IF NOT EXISTS promo_code_redemptions (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  promo_code_id BIGINT NOT NULL REFERENCES promo_codes(id) ON DELETE CASCADE,
+  user_key VARCHAR(255) NOT NULL,
+  idempotency_key VARCHAR(128) NOT NULL,
+  order_amount INTEGER,
+  discount_amount INTEGER NOT NULL,
+  status VARCHAR(16) NOT NULL DEFAULT 'REDEEMED',
+  created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+CREATE INDEX IF NOT EXISTS idx_promo_redemptions_user ON promo_code_redemptions (promo_code_id, user_key);
+-- A key belongs to one user, and a reversed redemption frees it for a fresh attempt
+CREATE UNIQUE INDEX IF NOT EXISTS uq_promo_redemptions_live_key
+  ON promo_code_redemptions (promo_code_id, user_key, idempotency_key) WHERE status = 'REDEEMED';
+CREATE TABLE IF NOT EXISTS promo_code_user_uses (
+  promo_code_id BIGINT NOT NULL REFERENCES promo_codes(id) ON DELETE CASCADE,
+  user_key VARCHAR(255) NOT NULL,
+  used INTEGER NOT NULL DEFAULT 0,
+  PRIMARY KEY (promo_code_id, user_key),
+  CONSTRAINT ck_promo_code_user_uses_used CHECK (used >= 0)
+);
+
+-- Payment report index (see V20240930_29__payment_report_index.sql)
+CREATE INDEX IF NOT EXISTS idx_payments_event_created ON payments (event_id, created_at DESC)
+  INCLUDE (status, amount_in_minor);
+
+-- Check-in ledger (see V20240930_30__check_ins.sql, V20240930_31__check_in_devices.sql)
+CREATE TABLE IF NOT EXISTS check_ins (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  event_id BIGINT NOT NULL,
+  scope VARCHAR(16) NOT NULL,
+  scope_ref BIGINT NOT NULL DEFAULT 0,
+  code VARCHAR(255) NOT NULL,
+  name VARCHAR(255),
+  attendee_id VARCHAR(64),
+  checked_in_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+  CONSTRAINT uq_check_ins_scan UNIQUE (event_id, scope, scope_ref, code)
+);
+CREATE INDEX IF NOT EXISTS idx_check_ins_code_prefix ON check_ins (event_id, lower(code) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_check_ins_name_prefix ON check_ins (event_id, lower(name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_check_ins_name_trgm ON check_ins USING GIN (lower(name) gin_trgm_ops);
+ALTER TABLE check_ins ADD COLUMN IF NOT EXISTS device_id VARCHAR(64);
+ALTER TABLE check_ins ADD COLUMN IF NOT EXISTS client_scan_id VARCHAR(64);
+ALTER TABLE check_ins ADD COLUMN IF NOT EXISTS first_scan_at TIMESTAMPTZ;
+ALTER TABLE check_ins ADD COLUMN IF NOT EXISTS first_scan_device_id VARCHAR(64);
@@ -0,0 +1,84 @@
+package com.eventplanner.checkin;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CheckInLiveFeedTest {
+    @SuppressWarnings("unchecked")
+    RedisTemplate<String, byte[]> redis = mock(RedisTemplate.class);
+    CountDownLatch redisStalled = new CountDownLatch(1);
+    CheckInLiveFeed feed;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ObjectProvider<RedisTemplate<String, byte[]>> templates = mock(ObjectProvider.class);
+        ObjectProvider<RedisMessageListenerContainer> containers = mock(ObjectProvider.class);
+        when(templates.getIfAvailable()).thenReturn(redis);
+        when(containers.getIfAvailable()).thenReturn(mock(RedisMessageListenerContainer.class));
+        when(redis.convertAndSend(anyString(), any())).thenAnswer(inv -> {
+            redisStalled.await();
+            return 1L;
+        });
+        feed = new CheckInLiveFeed(new ObjectMapper().registerModule(new JavaTimeModule()), templates, containers, 16, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        redisStalled.countDown();
+        feed.shutdown();
+    }
+
+    @Test
+    void stalledRedisDoesNotBlockThePublisher() {
+        // One publish in flight, one queued, the rest overflow to local delivery
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            for (int i = 0; i < 5; i++) {
+                feed.publish(checkIn("code-" + i));
+            }
+        });
+
+        redisStalled.countDown();
+
+        verify(redis, timeout(2000).times(2)).convertAndSend(anyString(), any());
+    }
+
+    @Test
+    void publishesOnTheEventChannel() {
+        redisStalled.countDown();
+
+        feed.publish(checkIn("code-1"));
+
+        verify(redis, timeout(2000)).convertAndSend(eq("checkin:live:7"), any());
+    }
+
+    private static CheckInEvent checkIn(String code) {
+        return CheckInEvent.builder()
+                .id(code)
+                .eventId(7L)
+                .scope(CheckInScope.EVENT)
+                .code(code)
+                .at(Instant.parse("2026-05-01T18:00:00Z"))
+                .duplicate(false)
+                .build();
+    }
+}
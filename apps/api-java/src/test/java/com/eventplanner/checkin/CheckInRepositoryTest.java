@@ -0,0 +1,87 @@
+package com.eventplanner.checkin;
+
+import com.eventplanner.support.PostgresContainerTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CheckInRepository.class)
+class CheckInRepositoryTest extends PostgresContainerTest {
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+    @Autowired CheckInRepository repo;
+
+    @Test
+    void insertSkipsCodesAlreadyCheckedIn() {
+        assertThat(repo.insertAll(List.of(scan("A1", "door-1", "s1", NOW)))).hasSize(1);
+
+        List<CheckInEvent> inserted = repo.insertAll(List.of(
+                scan("A1", "door-2", "s7", NOW.plusSeconds(5)),
+                scan("B2", "door-2", "s8", NOW.plusSeconds(5))));
+
+        assertThat(inserted).extracting(CheckInEvent::getCode).containsExactly("B2");
+        CheckInEvent existing = repo.findExisting(List.of(scan("A1", "door-2", "s7", NOW))).get(0);
+        assertThat(existing.getDeviceId()).isEqualTo("door-1");
+        assertThat(existing.getClientScanId()).isEqualTo("s1");
+        assertThat(existing.getAt()).isEqualTo(NOW);
+    }
+
+    @Test
+    void sameCodeAtAnotherDoorIsASeparateCheckIn() {
+        CheckInEvent zone = scan("A1", "door-1", "s2", NOW);
+        zone.setScope(CheckInScope.ZONE);
+        zone.setScopeRef(7L);
+
+        repo.insertAll(List.of(scan("A1", "door-1", "s1", NOW)));
+
+        assertThat(repo.insertAll(List.of(zone))).extracting(CheckInEvent::getScopeRef).containsExactly(7L);
+    }
+
+    @Test
+    void upsertRecordsOnlyAnEarlierFirstScan() {
+        repo.insertAll(List.of(scan("A1", "door-1", "s1", NOW)));
+
+        List<CheckInRepository.Synced> later = repo.upsertEarliest(List.of(scan("A1", "handheld", "h1", NOW.plusSeconds(60))));
+        List<CheckInRepository.Synced> earlier = repo.upsertEarliest(List.of(
+                scan("A1", "handheld", "h2", NOW.minusSeconds(60)),
+                scan("C3", "handheld", "h3", NOW.minusSeconds(60))));
+
+        assertThat(later).isEmpty();
+        assertThat(earlier).extracting(s -> s.checkIn().getCode(), CheckInRepository.Synced::inserted)
+                .containsExactlyInAnyOrder(
+                        tuple("A1", false),
+                        tuple("C3", true));
+        CheckInEvent row = repo.findExisting(List.of(scan("A1", null, null, NOW))).get(0);
+        assertThat(row.getFirstScanAt()).isEqualTo(NOW.minusSeconds(60));
+        assertThat(row.getFirstScanDeviceId()).isEqualTo("handheld");
+        // The recorded scan is untouched, so the online scanner's retry still matches it
+        assertThat(row.getAt()).isEqualTo(NOW);
+        assertThat(row.getDeviceId()).isEqualTo("door-1");
+        assertThat(row.getClientScanId()).isEqualTo("s1");
+
+        assertThat(repo.upsertEarliest(List.of(scan("A1", "handheld", "h4", NOW.minusSeconds(30))))).isEmpty();
+    }
+
+    private static CheckInEvent scan(String code, String deviceId, String clientScanId, Instant at) {
+        return CheckInEvent.builder()
+                .eventId(1L)
+                .scope(CheckInScope.EVENT)
+                .code(code)
+                .name(code)
+                .deviceId(deviceId)
+                .clientScanId(clientScanId)
+                .at(at)
+                .build();
+    }
+}
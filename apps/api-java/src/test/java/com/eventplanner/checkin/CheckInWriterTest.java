@@ -0,0 +1,96 @@
+package com.eventplanner.checkin;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CheckInWriterTest {
+    private static final Instant AT = Instant.parse("2026-05-01T18:00:00Z");
+
+    CheckInRepository repo = mock(CheckInRepository.class);
+    CheckInLiveFeed liveFeed = mock(CheckInLiveFeed.class);
+    CheckInWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new CheckInWriter(repo, liveFeed, mock(PlatformTransactionManager.class), 100, 50);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.shutdown();
+    }
+
+    @Test
+    void firstScanIsBroadcastOnceCommitted() throws Exception {
+        CheckInEvent row = row("door-1", "s1");
+        when(repo.insertAll(anyList())).thenReturn(List.of(row));
+
+        CheckInWriter.Outcome outcome = writer.submit(scan("door-1", "s1")).get(5, TimeUnit.SECONDS);
+
+        assertThat(outcome.duplicate()).isFalse();
+        assertThat(outcome.checkIn().getDuplicate()).isFalse();
+        verify(liveFeed, times(1)).publish(any());
+    }
+
+    @Test
+    void retryOfTheSameScanGetsTheOriginalResult() throws Exception {
+        // The first attempt committed, but its caller gave up waiting for the acknowledgement
+        when(repo.insertAll(anyList())).thenReturn(List.of());
+        when(repo.findExisting(anyList())).thenReturn(List.of(row("door-1", "s1")));
+
+        CheckInWriter.Outcome outcome = writer.submit(scan("door-1", "s1")).get(5, TimeUnit.SECONDS);
+
+        assertThat(outcome.duplicate()).isFalse();
+        assertThat(outcome.checkIn().getId()).isEqualTo("42");
+        verify(liveFeed, never()).publish(any());
+    }
+
+    @Test
+    void rescanFromAnotherScanIsADuplicate() throws Exception {
+        when(repo.insertAll(anyList())).thenReturn(List.of());
+        when(repo.findExisting(anyList())).thenReturn(List.of(row("door-1", "s1")));
+
+        CheckInWriter.Outcome sameDevice = writer.submit(scan("door-1", "s2")).get(5, TimeUnit.SECONDS);
+        CheckInWriter.Outcome otherDevice = writer.submit(scan("door-2", "s1")).get(5, TimeUnit.SECONDS);
+        CheckInWriter.Outcome noScanId = writer.submit(scan("door-1", null)).get(5, TimeUnit.SECONDS);
+
+        assertThat(sameDevice.duplicate()).isTrue();
+        assertThat(otherDevice.duplicate()).isTrue();
+        assertThat(noScanId.duplicate()).isTrue();
+        assertThat(noScanId.checkIn().getDuplicate()).isTrue();
+        verify(liveFeed, never()).publish(any());
+    }
+
+    private static CheckInEvent scan(String deviceId, String clientScanId) {
+        return CheckInEvent.builder()
+                .eventId(1L)
+                .scope(CheckInScope.EVENT)
+                .code("A1")
+                .name("A1")
+                .deviceId(deviceId)
+                .clientScanId(clientScanId)
+                .at(AT)
+                .build();
+    }
+
+    private static CheckInEvent row(String deviceId, String clientScanId) {
+        CheckInEvent row = scan(deviceId, clientScanId);
+        row.setId("42");
+        return row;
+    }
+}
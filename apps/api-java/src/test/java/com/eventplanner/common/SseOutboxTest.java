@@ -0,0 +1,54 @@
+package com.eventplanner.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SseOutboxTest {
+
+    @Test
+    void schedulesOneSenderWhileFramesAreQueued() {
+        List<Runnable> scheduled = new ArrayList<>();
+        SseOutbox outbox = new SseOutbox(new SseEmitter(0L), 8, scheduled::add, () -> {});
+
+        assertThat(outbox.send(SseOutbox.Frame.text("a", "1"))).isTrue();
+        assertThat(outbox.send(SseOutbox.Frame.text("b", "2"))).isTrue();
+
+        assertThat(scheduled).hasSize(1);
+    }
+
+    @Test
+    void disconnectsAClientThatFallsBehind() {
+        AtomicInteger closed = new AtomicInteger();
+        // Senders that never run: the queue only fills up
+        SseOutbox outbox = new SseOutbox(new SseEmitter(0L), 2, task -> {}, closed::incrementAndGet);
+
+        assertThat(outbox.send(SseOutbox.Frame.PING)).isTrue();
+        assertThat(outbox.send(SseOutbox.Frame.PING)).isTrue();
+        assertThat(outbox.send(SseOutbox.Frame.PING)).isFalse();
+
+        assertThat(outbox.isClosed()).isTrue();
+        assertThat(outbox.send(SseOutbox.Frame.PING)).isFalse();
+        assertThat(closed).hasValue(1);
+    }
+
+    @Test
+    void drainsEverythingQueuedBeforeTheSenderFinishes() {
+        List<Runnable> scheduled = new ArrayList<>();
+        SseOutbox outbox = new SseOutbox(new SseEmitter(0L), 8, scheduled::add, () -> {});
+        outbox.send(SseOutbox.Frame.text("a", "1"));
+        outbox.send(SseOutbox.Frame.text("b", "2"));
+
+        scheduled.get(0).run();
+        outbox.send(SseOutbox.Frame.text("c", "3"));
+
+        // The first sender finished, so the next frame needs (and gets) a new one
+        assertThat(scheduled).hasSize(2);
+        assertThat(outbox.isClosed()).isFalse();
+    }
+}
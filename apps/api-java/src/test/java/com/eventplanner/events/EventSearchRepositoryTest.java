@@ -0,0 +1,23 @@
+package com.eventplanner.events;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventSearchRepositoryTest {
+
+    @Test
+    void escapesEventTextAroundHighlightedTerms() {
+        String headline = "<img src=x onerror=alert(1)> \uE000jazz\uE001 & blues";
+
+        assertThat(EventSearchRepository.toHtml(headline))
+                .isEqualTo("&lt;img src=x onerror=alert(1)&gt; <mark>jazz</mark> &amp; blues");
+    }
+
+    @Test
+    void buildsPrefixQueryFromWordRunsOnly() {
+        assertThat(EventSearchRepository.toPrefixTsQuery("Jazz & <b>blues</b>!"))
+                .isEqualTo("jazz & b & blues & b:*");
+        assertThat(EventSearchRepository.toPrefixTsQuery("  !! ")).isNull();
+    }
+}
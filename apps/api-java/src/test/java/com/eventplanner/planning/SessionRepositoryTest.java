@@ -0,0 +1,86 @@
+package com.eventplanner.planning;
+
+import com.eventplanner.events.Event;
+import com.eventplanner.events.EventRepository;
+import com.eventplanner.support.PostgresContainerTest;
+import com.eventplanner.support.StatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SessionRepositoryTest extends PostgresContainerTest {
+
+    @Autowired SessionRepository sessions;
+    @Autowired SpeakerRepository speakers;
+    @Autowired EventRepository events;
+    @Autowired EntityManager em;
+
+    @Test
+    void sessionListLoadsSpeakersWithTheSessions() {
+        Event few = eventWithSessions(2);
+        Event many = eventWithSessions(20);
+        StatementCounter counter = new StatementCounter(em);
+
+        long forFew = counter.count(() -> speakerNames(sessions.findByEvent(few)));
+        long forMany = counter.count(() -> speakerNames(sessions.findByEvent(many)));
+
+        assertThat(forMany).isEqualTo(forFew).isEqualTo(1);
+    }
+
+    @Test
+    void sessionPageLoadsSpeakersInOneExtraQuery() {
+        Event few = eventWithSessions(2);
+        Event many = eventWithSessions(20);
+        StatementCounter counter = new StatementCounter(em);
+
+        long forFew = counter.count(() -> speakerNames(page(few)));
+        long forMany = counter.count(() -> speakerNames(page(many)));
+
+        assertThat(forMany).isEqualTo(forFew).isLessThanOrEqualTo(3); // page, count, speakers
+    }
+
+    // What SessionService.list does: the page, then the speakers of its sessions
+    private List<Session> page(Event event) {
+        Page<Session> page = sessions.findByEvent(event, PageRequest.of(0, 10));
+        sessions.fetchSpeakers(page.map(Session::getId).getContent());
+        return page.getContent();
+    }
+
+    // Reads what the session DTO mapper reads
+    private static void speakerNames(List<Session> list) {
+        list.forEach(session -> session.getSpeakers().forEach(Speaker::getName));
+    }
+
+    private Event eventWithSessions(int count) {
+        Event event = new Event();
+        event.setName("Statement count test");
+        event.setStartsAt(OffsetDateTime.now().plusDays(1));
+        event.setEndsAt(OffsetDateTime.now().plusDays(2));
+        events.save(event);
+        for (int i = 0; i < count; i++) {
+            Speaker speaker = new Speaker();
+            speaker.setEvent(event);
+            speaker.setName("Speaker " + i);
+            speakers.save(speaker);
+            Session session = new Session();
+            session.setEvent(event);
+            session.setTitle("Session " + i);
+            session.setStartTime(event.getStartsAt().plusHours(i));
+            session.setEndTime(event.getStartsAt().plusHours(i + 1));
+            session.getSpeakers().add(speaker);
+            sessions.save(session);
+        }
+        return event;
+    }
+}
@@ -0,0 +1,65 @@
+package com.eventplanner.registration.payments;
+
+import com.eventplanner.events.Event;
+import com.eventplanner.events.EventRepository;
+import com.eventplanner.registration.tickets.Ticket;
+import com.eventplanner.registration.tickets.TicketRepository;
+import com.eventplanner.support.PostgresContainerTest;
+import com.eventplanner.support.StatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PaymentRepositoryTest extends PostgresContainerTest {
+
+    @Autowired PaymentRepository payments;
+    @Autowired TicketRepository tickets;
+    @Autowired EventRepository events;
+    @Autowired EntityManager em;
+
+    @Test
+    void paymentListsLoadTheirTicketsInTheSameQuery() {
+        Event few = eventWithPayments(2);
+        Event many = eventWithPayments(20);
+        StatementCounter counter = new StatementCounter(em);
+
+        long forFew = counter.count(() -> ticketNames(payments.findByEventIdOrderByCreatedAtDesc(few.getId())));
+        long forMany = counter.count(() -> ticketNames(payments.findByEventIdOrderByCreatedAtDesc(many.getId())));
+        long byStatus = counter.count(() -> ticketNames(payments.findByStatusOrderByCreatedAtDesc("PENDING")));
+
+        assertThat(forMany).isEqualTo(forFew).isEqualTo(1);
+        assertThat(byStatus).isEqualTo(1);
+    }
+
+    // Reads what PaymentService.toDto reads; each payment has its own ticket, so a lazy load would show
+    private static void ticketNames(List<Payment> list) {
+        list.forEach(payment -> payment.getTicket().getName());
+    }
+
+    private Event eventWithPayments(int count) {
+        Event event = new Event();
+        event.setName("Statement count test");
+        event.setStartsAt(OffsetDateTime.now().plusDays(1));
+        event.setEndsAt(OffsetDateTime.now().plusDays(2));
+        events.save(event);
+        for (int i = 0; i < count; i++) {
+            Ticket ticket = new Ticket();
+            ticket.setEvent(event);
+            ticket.setName("Ticket " + i);
+            ticket.setQuantity(10);
+            ticket.setSold(0);
+            tickets.save(ticket);
+            payments.save(Payment.builder().event(event).ticket(ticket).amountInMinor(1000).build());
+        }
+        return event;
+    }
+}
@@ -0,0 +1,84 @@
+package com.eventplanner.registration.payments;
+
+import com.eventplanner.support.PostgresContainerTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // concurrent drainers need their own transactions
+class StripeWebhookEventRepositoryTest extends PostgresContainerTest {
+
+    @Autowired StripeWebhookEventRepository inbox;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(s -> inbox.deleteAllInBatch());
+    }
+
+    @Test
+    void appendIgnoresRedeliveries() {
+        assertThat(tx.execute(s -> inbox.append("evt_1", "payment_intent.succeeded", "pi_1", "SUCCEEDED", "{}")))
+                .isEqualTo(1);
+        assertThat(tx.execute(s -> inbox.append("evt_1", "payment_intent.succeeded", "pi_1", "SUCCEEDED", "{}")))
+                .isZero();
+    }
+
+    @Test
+    void concurrentDrainersClaimDisjointBatches() throws Exception {
+        tx.executeWithoutResult(s -> {
+            for (int i = 1; i <= 4; i++) {
+                inbox.append("evt_" + i, "payment_intent.succeeded", "pi_" + i, "SUCCEEDED", "{}");
+            }
+        });
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        // The first drainer keeps its row locks until the second one has claimed
+        CompletableFuture<List<String>> first = CompletableFuture.supplyAsync(() -> tx.execute(s -> {
+            List<String> ids = inbox.findClaimable(2);
+            claimed.countDown();
+            try {
+                done.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ids;
+        }));
+        assertThat(claimed.await(10, TimeUnit.SECONDS)).isTrue();
+        List<String> second = tx.execute(s -> inbox.findClaimable(10));
+        done.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).containsExactly("evt_1", "evt_2");
+        assertThat(second).containsExactly("evt_3", "evt_4");
+    }
+
+    @Test
+    void laterEventForAnIntentWaitsWhileAnEarlierOneIsLeased() {
+        tx.executeWithoutResult(s -> {
+            inbox.append("evt_a", "payment_intent.processing", "pi_same", "PROCESSING", "{}");
+            inbox.append("evt_b", "payment_intent.succeeded", "pi_same", "SUCCEEDED", "{}");
+        });
+        tx.executeWithoutResult(s -> inbox.lease(List.of("evt_a"), OffsetDateTime.now().plusMinutes(1)));
+
+        assertThat(tx.execute(s -> inbox.findClaimable(10))).isEmpty();
+    }
+}
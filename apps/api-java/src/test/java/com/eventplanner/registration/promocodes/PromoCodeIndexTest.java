@@ -0,0 +1,90 @@
+package com.eventplanner.registration.promocodes;
+
+import com.eventplanner.events.Event;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PromoCodeIndexTest {
+    private static final long EVENT_ID = 7L;
+
+    PromoCodeRepository repo = mock(PromoCodeRepository.class);
+
+    @SuppressWarnings("unchecked")
+    PromoCodeIndex index = new PromoCodeIndex(repo, new ObjectMapper(),
+            mock(ObjectProvider.class), mock(ObjectProvider.class), 100, 300);
+
+    @Test
+    void findsCodesInAnyCaseFromOneLoadPerEvent() {
+        when(repo.findByEventIdAndIsActiveTrueOrderByCreatedAtDesc(EVENT_ID)).thenReturn(List.of(code("Summer10", null)));
+
+        PromoCodeIndex.Entry entry = index.find(EVENT_ID, " summer10 ");
+
+        assertThat(entry).isNotNull();
+        assertThat(entry.code).isEqualTo("Summer10");
+        assertThat(index.find(EVENT_ID, "SUMMER10")).isSameAs(entry);
+        assertThat(index.find(EVENT_ID, "WINTER10")).isNull();
+        verify(repo, times(1)).findByEventIdAndIsActiveTrueOrderByCreatedAtDesc(EVENT_ID);
+    }
+
+    @Test
+    void invalidationReloadsTheEvent() {
+        when(repo.findByEventIdAndIsActiveTrueOrderByCreatedAtDesc(EVENT_ID))
+                .thenReturn(List.of(code("SUMMER10", null)))
+                .thenReturn(List.of());
+
+        assertThat(index.find(EVENT_ID, "SUMMER10")).isNotNull();
+        index.invalidate(EVENT_ID);
+
+        assertThat(index.find(EVENT_ID, "SUMMER10")).isNull();
+    }
+
+    @Test
+    void parsesApplicableTicketsOnce() {
+        PromoCodeIndex.Entry some = index.toEntry(code("SOME", "[12, 3, 7]"));
+        PromoCodeIndex.Entry all = index.toEntry(code("ALL", null));
+        PromoCodeIndex.Entry broken = index.toEntry(code("BROKEN", "[3, \"x\"]"));
+
+        assertThat(some.applicableTicketIds).containsExactly(3, 7, 12);
+        assertThat(some.appliesTo(7)).isTrue();
+        assertThat(some.appliesTo(8)).isFalse();
+        assertThat(all.appliesTo(8)).isTrue();
+        assertThat(broken.applicabilityError).isTrue();
+    }
+
+    @Test
+    void openEndedWindowsAndLocalUsesAreTracked() {
+        PromoCode pc = code("SUMMER10", null);
+        pc.setMaxUses(5);
+        pc.setUsedCount(2);
+        pc.setEndDate(OffsetDateTime.parse("2026-12-31T23:59:59Z"));
+        when(repo.findByEventIdAndIsActiveTrueOrderByCreatedAtDesc(EVENT_ID)).thenReturn(List.of(pc));
+
+        PromoCodeIndex.Entry entry = index.find(EVENT_ID, "SUMMER10");
+        index.recordUse(EVENT_ID, "summer10", 1);
+
+        assertThat(entry.startsAtMillis).isEqualTo(Long.MIN_VALUE);
+        assertThat(entry.endsAtMillis).isEqualTo(OffsetDateTime.parse("2026-12-31T23:59:59Z").toInstant().toEpochMilli());
+        assertThat(entry.usedCount.get()).isEqualTo(3);
+    }
+
+    private static PromoCode code(String code, String applicableTicketIds) {
+        Event event = new Event();
+        event.setId(EVENT_ID);
+        return PromoCode.builder()
+                .event(event)
+                .code(code)
+                .discountAmount(10)
+                .applicableTicketIds(applicableTicketIds)
+                .build();
+    }
+}
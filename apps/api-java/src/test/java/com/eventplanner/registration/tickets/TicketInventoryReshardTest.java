@@ -0,0 +1,93 @@
+package com.eventplanner.registration.tickets;
+
+import com.eventplanner.events.Event;
+import com.eventplanner.events.EventRepository;
+import com.eventplanner.support.PostgresContainerTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TicketInventory.class)
+class TicketInventoryReshardTest extends PostgresContainerTest {
+
+    @Autowired TicketInventory inventory;
+    @Autowired TicketRepository tickets;
+    @Autowired EventRepository events;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void holdOnARemovedShardIsReturnedAfterReshardingDown() {
+        Ticket ticket = ticket(100);
+        inventory.reshard(ticket.getId(), 8);
+        ticket.setInventoryShards(8);
+
+        // Shards are picked at random; keep holding until one sits on a shard that goes away
+        List<TicketHold> held = new ArrayList<>();
+        TicketHold onRemovedShard;
+        do {
+            onRemovedShard = inventory.hold(ticket, 2);
+            held.add(onRemovedShard);
+        } while (onRemovedShard.getShardNo() < 2);
+
+        inventory.reshard(ticket.getId(), 2);
+        assertThat(shardTaken(ticket)).isEqualTo(2 * held.size());
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM ticket_holds WHERE ticket_id = ? AND shard_no >= 2",
+                Integer.class, ticket.getId())).isZero();
+
+        inventory.release(onRemovedShard.getId());
+        assertThat(shardTaken(ticket)).isEqualTo(2 * (held.size() - 1));
+
+        held.forEach(hold -> inventory.release(hold.getId()));
+        assertThat(shardTaken(ticket)).isZero();
+        tickets.syncShardedSold();
+        assertThat(sold(ticket)).isZero();
+    }
+
+    @Test
+    void holdIsReturnedToTheSingleCounterAfterUnsharding() {
+        Ticket ticket = ticket(10);
+        inventory.reshard(ticket.getId(), 4);
+        ticket.setInventoryShards(4);
+        TicketHold hold = inventory.hold(ticket, 3);
+
+        inventory.reshard(ticket.getId(), 0);
+        assertThat(sold(ticket)).isEqualTo(3);
+
+        inventory.release(hold.getId());
+        assertThat(sold(ticket)).isZero();
+    }
+
+    private Ticket ticket(int quantity) {
+        Event event = new Event();
+        event.setName("Reshard test");
+        event.setStartsAt(OffsetDateTime.now().plusDays(1));
+        event.setEndsAt(OffsetDateTime.now().plusDays(2));
+        events.save(event);
+        Ticket ticket = new Ticket();
+        ticket.setEvent(event);
+        ticket.setName("General");
+        ticket.setQuantity(quantity);
+        ticket.setSold(0);
+        return tickets.saveAndFlush(ticket);
+    }
+
+    private int shardTaken(Ticket ticket) {
+        return jdbc.queryForObject("SELECT COALESCE(SUM(taken), 0) FROM ticket_inventory_shards WHERE ticket_id = ?",
+                Integer.class, ticket.getId());
+    }
+
+    private int sold(Ticket ticket) {
+        return jdbc.queryForObject("SELECT sold FROM tickets WHERE id = ?", Integer.class, ticket.getId());
+    }
+}
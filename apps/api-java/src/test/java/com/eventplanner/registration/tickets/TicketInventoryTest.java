@@ -0,0 +1,46 @@
+package com.eventplanner.registration.tickets;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TicketInventoryTest {
+
+    @Test
+    void splitSpreadsCapacityAndTakenStockEvenly() {
+        TicketInventory.Split split = TicketInventory.split(10, 6, 4, new int[0]);
+
+        assertThat(split.capacity()).containsExactly(3, 3, 2, 2);
+        assertThat(Arrays.stream(split.taken()).sum()).isEqualTo(6);
+        for (int i = 0; i < 4; i++) {
+            assertThat(split.taken()[i]).isLessThanOrEqualTo(split.capacity()[i]);
+        }
+    }
+
+    @Test
+    void splitPlacesEachHoldWholeOnAShardThatCountsIt() {
+        int[] holds = {5, 1, 3, 2};
+        TicketInventory.Split split = TicketInventory.split(20, 14, 3, holds);
+
+        int[] heldPerShard = new int[3];
+        for (int h = 0; h < holds.length; h++) {
+            assertThat(split.holdShards()[h]).isBetween(0, 2);
+            heldPerShard[split.holdShards()[h]] += holds[h];
+        }
+        // Giving every hold back to its shard can never drive a shard below zero
+        for (int i = 0; i < 3; i++) {
+            assertThat(split.taken()[i]).isGreaterThanOrEqualTo(heldPerShard[i]);
+            assertThat(split.taken()[i]).isLessThanOrEqualTo(split.capacity()[i]);
+        }
+        assertThat(Arrays.stream(split.taken()).sum()).isEqualTo(14);
+    }
+
+    @Test
+    void splitKeepsOversoldStockRatherThanDroppingIt() {
+        TicketInventory.Split split = TicketInventory.split(4, 7, 2, new int[]{3});
+
+        assertThat(Arrays.stream(split.taken()).sum()).isEqualTo(7);
+    }
+}
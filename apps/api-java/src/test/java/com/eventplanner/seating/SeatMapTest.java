@@ -0,0 +1,99 @@
+package com.eventplanner.seating;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeatMapTest {
+    private static final int THREADS = 16;
+
+    @Test
+    void exactlyOneHoldWinsAContendedSeat() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            SeatMap map = SeatMap.build(row(70), Set.of());
+            // Seat 64 is the first bit of the second bitmap word
+            List<Boolean> results = race(i -> map.tryTake(new int[] {64}));
+
+            assertThat(results).filteredOn(Boolean::booleanValue).hasSize(1);
+            assertThat(map.isTakenAt(64)).isTrue();
+        }
+    }
+
+    @Test
+    void overlappingBlocksNeverShareASeat() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            SeatMap map = SeatMap.build(row(THREADS + 1), Set.of());
+            AtomicIntegerArray owners = new AtomicIntegerArray(THREADS + 1);
+            // Thread i wants seats i and i + 1, so neighbours always collide on one seat
+            race(i -> {
+                int[] block = {i, i + 1};
+                if (!map.tryTake(block)) return false;
+                for (int seat : block) owners.incrementAndGet(seat);
+                return true;
+            });
+
+            for (int seat = 0; seat <= THREADS; seat++) {
+                assertThat(owners.get(seat)).isLessThanOrEqualTo(1);
+                assertThat(map.isTakenAt(seat)).isEqualTo(owners.get(seat) == 1);
+            }
+        }
+    }
+
+    @Test
+    void skipsSeatsAlreadyHeldWhenBuilt() {
+        SeatMap map = SeatMap.build(row(4), Set.of(2L));
+
+        assertThat(map.tryTake(map.indexesOf(List.of(1L, 2L)))).isFalse();
+        assertThat(map.isTakenAt(0)).isFalse(); // all or nothing
+        assertThat(map.findBlock(null, null, 2)).containsExactly(2, 3);
+    }
+
+    private interface Attempt {
+        boolean run(int thread);
+    }
+
+    private static List<Boolean> race(Attempt attempt) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int thread = i;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return attempt.run(thread);
+                }));
+            }
+            start.countDown();
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) results.add(future.get());
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // One row of seats with ids 1..count in seat order
+    private static List<SeatInventory> row(int count) {
+        List<SeatInventory> seats = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            SeatInventory seat = new SeatInventory();
+            seat.setId((long) i);
+            seat.setEventId(1L);
+            seat.setSection("A");
+            seat.setRowNumber("1");
+            seat.setSeatNumber(String.valueOf(i));
+            seats.add(seat);
+        }
+        return seats;
+    }
+}
@@ -0,0 +1,29 @@
+package com.eventplanner.support;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base for tests that need real Postgres semantics (row locks, ON CONFLICT, SKIP LOCKED).
+ * The schema comes from Hibernate plus schema.sql, as in development. Skipped without Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresContainerTest {
+
+    @Container
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        // Lets tests assert how many statements a code path issues (see StatementCounter)
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+    }
+}
@@ -0,0 +1,31 @@
+package com.eventplanner.support;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Counts the SQL statements Hibernate prepares while some work runs, so tests can pin list
+ * queries to a constant number of round trips. The persistence context is flushed and cleared
+ * first, so lazy associations really hit the database. Needs {@code hibernate.generate_statistics}.
+ */
+public final class StatementCounter {
+    private final EntityManager em;
+    private final Statistics statistics;
+
+    public StatementCounter(EntityManager em) {
+        this.em = em;
+        this.statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            throw new IllegalStateException("hibernate.generate_statistics is not enabled");
+        }
+    }
+
+    public long count(Runnable work) {
+        em.flush();
+        em.clear();
+        statistics.clear();
+        work.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,91 @@
+-- Benchmark for GET /api/events/nearby (EventGeoRepository) over 1M synthetic events.
+--
+--   psql "$DATABASE_URL" -f scripts/bench-events-nearby.sql
+--
+-- Everything lives in a throwaway bench_geo schema, so it can run against a dev database; the
+-- schema is dropped at the end. Needs the cube and earthdistance extensions (contrib).
+-- Compares the indexed query the endpoint runs (earth_box on the GiST index, exact distance
+-- only inside the box) with computing the distance for every row.
+
+\timing on
+CREATE EXTENSION IF NOT EXISTS cube;
+CREATE EXTENSION IF NOT EXISTS earthdistance;
+
+DROP SCHEMA IF EXISTS bench_geo CASCADE;
+CREATE SCHEMA bench_geo;
+
+-- Same columns the radius query reads
+CREATE TABLE bench_geo.events (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  tenant_id VARCHAR(255),
+  status VARCHAR(255) NOT NULL,
+  event_mode VARCHAR(255) NOT NULL,
+  starts_at TIMESTAMPTZ NOT NULL,
+  ends_at TIMESTAMPTZ NOT NULL,
+  latitude DOUBLE PRECISION,
+  longitude DOUBLE PRECISION
+);
+
+-- 1M events: 90% scattered within ~30 km of ten metro centres, 5% anywhere in India,
+-- 5% without coordinates (not yet geocoded). Seeded, so runs are comparable.
+SELECT setseed(0.42);
+WITH centres(n, lat, lon) AS (VALUES
+  (0, 12.9716, 77.5946), (1, 19.0760, 72.8777), (2, 28.6139, 77.2090), (3, 13.0827, 80.2707),
+  (4, 17.3850, 78.4867), (5, 22.5726, 88.3639), (6, 18.5204, 73.8567), (7, 23.0225, 72.5714),
+  (8, 26.9124, 75.7873), (9, 9.9312, 76.2673))
+INSERT INTO bench_geo.events (tenant_id, status, event_mode, starts_at, ends_at, latitude, longitude)
+-- g % 10 picks the centre, so the other attributes use higher digits to stay independent of it
+SELECT 'tenant-' || (g / 10 % 50),
+       CASE g / 500 % 10 WHEN 8 THEN 'CANCELLED' WHEN 9 THEN 'TRASHED' ELSE 'DRAFT' END,
+       (ARRAY['IN_PERSON', 'IN_PERSON', 'VIRTUAL', 'HYBRID'])[1 + g / 5000 % 4],
+       NOW() + (g % 365) * INTERVAL '1 day',
+       NOW() + (g % 365) * INTERVAL '1 day' + INTERVAL '4 hours',
+       CASE WHEN r < 0.90 THEN c.lat + (random() - 0.5) * 0.54
+            WHEN r < 0.95 THEN 8 + random() * 27 END,
+       CASE WHEN r < 0.90 THEN c.lon + (random() - 0.5) * 0.54
+            WHEN r < 0.95 THEN 68 + random() * 29 END
+FROM (SELECT g, random() AS r FROM generate_series(1, 1000000) g) s
+JOIN centres c ON c.n = s.g % 10;
+
+-- The index from V20240930_20__events_geo_index.sql
+CREATE INDEX idx_bench_events_location_earth ON bench_geo.events USING GIST (ll_to_earth(latitude, longitude))
+  WHERE latitude IS NOT NULL AND longitude IS NOT NULL;
+ANALYZE bench_geo.events;
+
+-- 1. Endpoint query, 5 km around central Bengaluru (dense area)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT e.id, earth_distance(ll_to_earth(12.9716, 77.5946), ll_to_earth(e.latitude, e.longitude)) AS dist
+FROM bench_geo.events e
+WHERE e.latitude IS NOT NULL AND e.longitude IS NOT NULL
+  AND earth_box(ll_to_earth(12.9716, 77.5946), 5000) @> ll_to_earth(e.latitude, e.longitude)
+  AND earth_distance(ll_to_earth(12.9716, 77.5946), ll_to_earth(e.latitude, e.longitude)) <= 5000
+ORDER BY dist, e.id LIMIT 50;
+
+-- 2. Endpoint query, 50 km with tenant and status filters
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT e.id, earth_distance(ll_to_earth(12.9716, 77.5946), ll_to_earth(e.latitude, e.longitude)) AS dist
+FROM bench_geo.events e
+WHERE e.latitude IS NOT NULL AND e.longitude IS NOT NULL
+  AND earth_box(ll_to_earth(12.9716, 77.5946), 50000) @> ll_to_earth(e.latitude, e.longitude)
+  AND earth_distance(ll_to_earth(12.9716, 77.5946), ll_to_earth(e.latitude, e.longitude)) <= 50000
+  AND e.tenant_id = 'tenant-7' AND e.status NOT IN ('CANCELLED','TRASHED') AND e.starts_at > NOW()
+ORDER BY dist, e.id LIMIT 50;
+
+-- 3. Endpoint query, 5 km around a point with no events nearby (Thar desert)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT e.id, earth_distance(ll_to_earth(27.0, 71.0), ll_to_earth(e.latitude, e.longitude)) AS dist
+FROM bench_geo.events e
+WHERE e.latitude IS NOT NULL AND e.longitude IS NOT NULL
+  AND earth_box(ll_to_earth(27.0, 71.0), 5000) @> ll_to_earth(e.latitude, e.longitude)
+  AND earth_distance(ll_to_earth(27.0, 71.0), ll_to_earth(e.latitude, e.longitude)) <= 5000
+ORDER BY dist, e.id LIMIT 50;
+
+-- 4. Baseline: distance computed for every row, as without the index
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT e.id, earth_distance(ll_to_earth(12.9716, 77.5946), ll_to_earth(e.latitude, e.longitude)) AS dist
+FROM bench_geo.events e
+WHERE e.latitude IS NOT NULL AND e.longitude IS NOT NULL
+  AND earth_distance(ll_to_earth(12.9716, 77.5946), ll_to_earth(e.latitude, e.longitude)) <= 5000
+ORDER BY dist, e.id LIMIT 50;
+
+DROP SCHEMA bench_geo CASCADE;